@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Builds the fast-startup distribution in target/fast-startup:
+#   app/        extracted application (AOT-processed for the prod profile) plus app/application.jsa
+#   data/       an H2 file database created from db/schema.sql and seeded with data.sql
+# and prints the command that starts a node in that mode. Point LOAN_DB_URL at an existing database
+# (already migrated with db/schema.sql) to skip the local H2 database.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+OUT=target/fast-startup
+JAR=engine-0.0.1-SNAPSHOT.jar
+
+./mvnw -B -q -Pfast-startup -DskipTests package
+
+rm -rf "$OUT"
+java -Djarmode=tools -jar "target/$JAR" extract --destination "$OUT/app"
+
+if [ -z "${LOAN_DB_URL:-}" ]; then
+  export LOAN_DB_URL="jdbc:h2:file:$PWD/$OUT/data/loanrisk"
+  for script in src/main/resources/db/schema.sql src/main/resources/data.sql; do
+    java -cp "$OUT/app/lib/*" org.h2.tools.RunScript -url "$LOAN_DB_URL" -user sa -script "$script"
+  done
+fi
+
+# Training run: start the context once, then write the class-data-sharing archive on exit
+java -XX:ArchiveClassesAtExit="$OUT/app/application.jsa" -Xlog:cds=off -Xlog:cds+dynamic=off \
+  -Dspring.aot.enabled=true -Dspring.profiles.active=prod -Dspring.context.exit=onRefresh \
+  -jar "$OUT/app/$JAR"
+
+echo
+echo "Start a node with:"
+echo "  LOAN_DB_URL=$LOAN_DB_URL java -XX:SharedArchiveFile=$OUT/app/application.jsa \\"
+echo "      -Dspring.aot.enabled=true -Dspring.profiles.active=prod -jar $OUT/app/$JAR"
@@ -0,0 +1,164 @@
+package com.loanrisk.admission;
+
+import com.loanrisk.exception.RateLimitExceededException;
+import com.loanrisk.exception.ServiceOverloadedException;
+import com.loanrisk.service.StagedApplyService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for {@code /loan/apply}, checked before any work is queued:
+ * <ol>
+ *     <li>Load shedding: if the pipeline's expected queueing delay already exceeds
+ *     {@code loan.admission.latency-budget-ms}, the request is refused with 503.</li>
+ *     <li>Per API key and per customer token buckets: a caller over its rate is refused with 429. A
+ *     request refused for its customer gives its API key's permit back.</li>
+ * </ol>
+ * Both carry a {@code Retry-After} hint. Streamed applications use {@link #awaitAdmission} instead,
+ * which applies the same checks but waits until they pass, so a fast stream is slowed down rather than
+ * losing lines.
+ */
+@Service
+public class AdmissionService {
+
+    // Longest single pause of a streamed application waiting for the pipeline to drain before it re-checks
+    private static final long MAX_SHED_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final StagedApplyService stagedApplyService;
+    private final boolean enabled;
+    private final long latencyBudgetNanos;
+    private final StripedTokenBuckets customerBuckets;
+    private final StripedTokenBuckets apiKeyBuckets;
+    private final Counter shed;
+    private final Counter customerRejected;
+    private final Counter apiKeyRejected;
+    private final Timer throttled;
+
+    @Autowired
+    public AdmissionService(StagedApplyService stagedApplyService,
+                            MeterRegistry meterRegistry,
+                            @Value("${loan.admission.enabled:true}") boolean enabled,
+                            @Value("${loan.admission.latency-budget-ms:500}") long latencyBudgetMs,
+                            @Value("${loan.admission.customer.permits-per-second:5}") double customerRate,
+                            @Value("${loan.admission.customer.burst:10}") int customerBurst,
+                            @Value("${loan.admission.api-key.permits-per-second:200}") double apiKeyRate,
+                            @Value("${loan.admission.api-key.burst:400}") int apiKeyBurst,
+                            @Value("${loan.admission.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.stagedApplyService = stagedApplyService;
+        this.enabled = enabled;
+        this.latencyBudgetNanos = TimeUnit.MILLISECONDS.toNanos(latencyBudgetMs);
+        this.customerBuckets = new StripedTokenBuckets(customerRate, customerBurst, maxTrackedKeys);
+        this.apiKeyBuckets = new StripedTokenBuckets(apiKeyRate, apiKeyBurst, maxTrackedKeys);
+        this.shed = rejections(meterRegistry, "shed");
+        this.customerRejected = rejections(meterRegistry, "customer");
+        this.apiKeyRejected = rejections(meterRegistry, "api-key");
+        this.throttled = Timer.builder("admission.throttled").register(meterRegistry);
+        Gauge.builder("admission.expected.wait", stagedApplyService,
+                        service -> service.getExpectedWaitNanos() / 1_000_000.0)
+                .baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("admission.tracked.keys", this,
+                        service -> service.customerBuckets.size() + service.apiKeyBuckets.size())
+                .register(meterRegistry);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("admission.rejected").tag("reason", reason).register(meterRegistry);
+    }
+
+    /**
+     * Throws {@link ServiceOverloadedException} or {@link RateLimitExceededException} if the
+     * application must not be started now.
+     *
+     * @param apiKey the caller's API key, or {@code null} if none was sent
+     */
+    public void admit(String apiKey, Long customerId) {
+        if (!enabled) {
+            return;
+        }
+        long expectedWait = stagedApplyService.getExpectedWaitNanos();
+        if (expectedWait > latencyBudgetNanos) {
+            shed.increment();
+            throw new ServiceOverloadedException("Server is overloaded, please retry later",
+                    retryAfterSeconds(expectedWait - latencyBudgetNanos));
+        }
+        long now = System.nanoTime();
+        if (apiKey != null) {
+            long wait = apiKeyBuckets.tryAcquire(apiKey, now);
+            if (wait > 0) {
+                apiKeyRejected.increment();
+                throw new RateLimitExceededException("Rate limit exceeded for API key", retryAfterSeconds(wait));
+            }
+        }
+        if (customerId != null) {
+            long wait = customerBuckets.tryAcquire(customerId.toString(), now);
+            if (wait > 0) {
+                // The request is not admitted, so it must not count against the API key either
+                if (apiKey != null) {
+                    apiKeyBuckets.release(apiKey);
+                }
+                customerRejected.increment();
+                throw new RateLimitExceededException("Rate limit exceeded for customer " + customerId,
+                        retryAfterSeconds(wait));
+            }
+        }
+    }
+
+    /**
+     * Applies the checks of {@link #admit}, but waits for them to pass instead of throwing: while the
+     * pipeline is over its latency budget, and for as long as the refusing token bucket says its next
+     * permit is away. The time spent waiting is recorded as {@code admission.throttled}.
+     *
+     * @param apiKey the caller's API key, or {@code null} if none was sent
+     */
+    public void awaitAdmission(String apiKey, Long customerId) throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        boolean paused = false;
+        while (true) {
+            long excess = stagedApplyService.getExpectedWaitNanos() - latencyBudgetNanos;
+            long wait = excess > 0 ? Math.min(excess, MAX_SHED_PAUSE_NANOS) : tryAcquire(apiKey, customerId);
+            if (wait <= 0) {
+                break;
+            }
+            paused = true;
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        if (paused) {
+            throttled.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Takes a permit from both buckets or from neither; 0 if taken, else how long until the refusing one has one
+    private long tryAcquire(String apiKey, Long customerId) {
+        long now = System.nanoTime();
+        if (apiKey != null) {
+            long wait = apiKeyBuckets.tryAcquire(apiKey, now);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        if (customerId != null) {
+            long wait = customerBuckets.tryAcquire(customerId.toString(), now);
+            if (wait > 0) {
+                if (apiKey != null) {
+                    apiKeyBuckets.release(apiKey);
+                }
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
@@ -0,0 +1,62 @@
+package com.loanrisk.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token buckets by key, spread over independent stripes so that evicting idle keys only ever scans
+ * one small stripe. A stripe over its share of {@code maxKeys} drops its full buckets, which is
+ * lossless (see {@link TokenBucket#isFull}); if every bucket is busy the stripe grows anyway.
+ */
+class StripedTokenBuckets {
+
+    private static final int STRIPES = 16;
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final int maxKeysPerStripe;
+    private final ConcurrentHashMap<String, TokenBucket>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    StripedTokenBuckets(double permitsPerSecond, int burst, int maxKeys) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * @return 0 if a permit for {@code key} was granted, otherwise the nanoseconds until one will be
+     */
+    long tryAcquire(String key, long nowNanos) {
+        ConcurrentHashMap<String, TokenBucket> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        TokenBucket bucket = stripe.get(key);
+        if (bucket == null) {
+            if (stripe.size() >= maxKeysPerStripe) {
+                stripe.values().removeIf(candidate -> candidate.isFull(nowNanos));
+            }
+            bucket = stripe.computeIfAbsent(key, k -> new TokenBucket(permitsPerSecond, burst, nowNanos));
+        }
+        return bucket.tryAcquire(nowNanos);
+    }
+
+    /**
+     * Gives back a permit granted to {@code key} that ended up unused.
+     */
+    void release(String key) {
+        TokenBucket bucket = stripes[(key.hashCode() & 0x7fffffff) % STRIPES].get(key);
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+}
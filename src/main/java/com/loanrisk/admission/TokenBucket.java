@@ -0,0 +1,54 @@
+package com.loanrisk.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket kept as a single "theoretical arrival time" (the GCRA form of a token
+ * bucket): each permit pushes the time forward by one emission interval, and a permit is refused when
+ * that time would run further ahead of now than the burst allows. One CAS per attempt, no refill thread.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one permit if available.
+     *
+     * @return 0 if the permit was granted, otherwise the nanoseconds until one will be
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a permit granted by {@link #tryAcquire} that ended up unused.
+     */
+    void release() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * A full bucket behaves exactly like a new one, so it can be evicted without losing state.
+     */
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,32 @@
+package com.loanrisk.bureau;
+
+import java.time.Instant;
+
+/**
+ * Immutable credit score reported by the bureau for one customer. The score is null if the bureau
+ * has no file on the customer, in which case the stored score is used.
+ */
+public class BureauScore {
+
+    private final long customerId;
+    private final Integer creditScore;
+    private final Instant fetchedAt;
+
+    public BureauScore(long customerId, Integer creditScore, Instant fetchedAt) {
+        this.customerId = customerId;
+        this.creditScore = creditScore;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public Integer getCreditScore() {
+        return creditScore;
+    }
+
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,81 @@
+package com.loanrisk.bureau;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The last bureau score of each customer and when it was fetched, spread over independent stripes
+ * so that evicting only ever scans one small stripe. Entries outlive their TTL, up to
+ * {@code maxStaleNanos}, as a fallback for when the bureau is slow. A stripe over its share of
+ * {@code maxEntries} drops its expired entries first and its stale ones next; if every entry is
+ * fresh the stripe grows anyway.
+ */
+class BureauScoreCache {
+
+    private static final int STRIPES = 16;
+
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final int maxEntriesPerStripe;
+    private final ConcurrentHashMap<Long, Entry>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    BureauScoreCache(long ttlNanos, long maxStaleNanos, int maxEntries) {
+        this.ttlNanos = ttlNanos;
+        this.maxStaleNanos = Math.max(ttlNanos, maxStaleNanos);
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / STRIPES);
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * The customer's entry, fresh or stale, or null if there is none younger than max-stale.
+     */
+    Entry get(long customerId, long nowNanos) {
+        Entry entry = stripe(customerId).get(customerId);
+        return entry != null && entry.ageNanos(nowNanos) < maxStaleNanos ? entry : null;
+    }
+
+    void put(BureauScore score, long nowNanos) {
+        ConcurrentHashMap<Long, Entry> stripe = stripe(score.getCustomerId());
+        if (stripe.size() >= maxEntriesPerStripe && !stripe.containsKey(score.getCustomerId())) {
+            stripe.values().removeIf(candidate -> candidate.ageNanos(nowNanos) >= maxStaleNanos);
+            if (stripe.size() >= maxEntriesPerStripe) {
+                stripe.values().removeIf(candidate -> candidate.ageNanos(nowNanos) >= ttlNanos);
+            }
+        }
+        stripe.put(score.getCustomerId(), new Entry(score, nowNanos));
+    }
+
+    int size() {
+        int size = 0;
+        for (ConcurrentHashMap<Long, Entry> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<Long, Entry> stripe(long customerId) {
+        return stripes[(int) Math.floorMod(customerId, (long) STRIPES)];
+    }
+
+    static final class Entry {
+
+        private final BureauScore score;
+        private final long fetchedNanos;
+
+        private Entry(BureauScore score, long fetchedNanos) {
+            this.score = score;
+            this.fetchedNanos = fetchedNanos;
+        }
+
+        BureauScore score() {
+            return score;
+        }
+
+        long ageNanos(long nowNanos) {
+            return nowNanos - fetchedNanos;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.loanrisk.bureau;
+
+/**
+ * Stops calling the bureau while it is failing. Closed, it records the outcome of the last
+ * {@code windowSize} calls and opens once the window is full and at least
+ * {@code failureRateThreshold} of them failed. Open, it rejects every call for {@code openNanos},
+ * then lets a single trial call through (half-open): its success closes the breaker, its failure
+ * opens it again. Calls are few (one per cache miss), so a lock is cheap enough.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final boolean[] failed;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private int recorded;
+    private int next;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int windowSize, double failureRateThreshold, long openNanos) {
+        this.failed = new boolean[Math.max(1, windowSize)];
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Whether a call may be made now. A caller that was let through must report its outcome.
+     */
+    synchronized boolean tryAcquire(long nowNanos) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nowNanos - openedAt < openNanos) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialInFlight = true;
+                return true;
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    synchronized void onFailure(long nowNanos) {
+        if (state == State.HALF_OPEN) {
+            open(nowNanos);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded == failed.length && failures >= failureRateThreshold * recorded) {
+                open(nowNanos);
+            }
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failed.length) {
+            failures -= failed[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failed[next] = failure;
+        failures += failure ? 1 : 0;
+        next = (next + 1) % failed.length;
+    }
+
+    private void open(long nowNanos) {
+        state = State.OPEN;
+        openedAt = nowNanos;
+        trialInFlight = false;
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        trialInFlight = false;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,17 @@
+package com.loanrisk.bureau;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * One call to the credit bureau. Implementations must not block the calling thread, and should
+ * bound each call with their own timeout: {@link CreditBureauService} stops waiting for a slow call
+ * but lets it finish, so that its result can still be cached.
+ */
+public interface CreditBureauClient {
+
+    /**
+     * The customer's current bureau score, with a null score if the bureau has no file on the
+     * customer; completes exceptionally if the bureau fails.
+     */
+    CompletableFuture<BureauScore> fetchScore(long customerId);
+}
@@ -0,0 +1,16 @@
+package com.loanrisk.bureau;
+
+/**
+ * A bureau call that did not produce a score. Never reaches a client: the application falls back
+ * to a cached or stored score instead.
+ */
+public class CreditBureauException extends RuntimeException {
+
+    public CreditBureauException(String message) {
+        super(message);
+    }
+
+    public CreditBureauException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
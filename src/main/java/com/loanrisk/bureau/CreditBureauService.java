@@ -0,0 +1,273 @@
+package com.loanrisk.bureau;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fresh bureau scores for scoring, without letting the bureau's latency or outages into
+ * {@code /loan/apply}. A lookup is started as soon as the customer id is known and runs alongside
+ * the customer and rule-set fetches:
+ * <ul>
+ * <li>a score younger than {@code cache.ttl-ms} is answered from the cache; past
+ * {@code cache.refresh-ahead} of its TTL it is also refreshed in the background, so that a
+ * regular applicant rarely waits for the bureau;</li>
+ * <li>otherwise the bureau is called, once per customer however many lookups are waiting, and a
+ * second (hedged) call is made if the first has not answered after {@code hedge-delay-ms}; the
+ * first answer wins;</li>
+ * <li>a lookup waits at most {@code timeout-ms}; when the bureau is slow, failing or behind an open
+ * {@link CircuitBreaker}, it answers with the cached score, even past its TTL, and otherwise with
+ * null, which means the customer's stored score is used.</li>
+ * </ul>
+ * Calls that outlive a lookup are not cancelled, so their score is still cached for the next one.
+ * Calls slower than {@code timeout-ms} count as failures for the circuit breaker. Unless
+ * {@code loan.bureau.enabled=true}, every lookup answers null at once.
+ */
+@Service
+public class CreditBureauService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CreditBureauService.class);
+
+    private static final CompletableFuture<BureauScore> STORED_SCORE = CompletableFuture.completedFuture(null);
+
+    private final CreditBureauClient client;
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final long hedgeDelayMillis;
+    private final long ttlNanos;
+    private final long refreshAfterNanos;
+    private final BureauScoreCache cache;
+    private final CircuitBreaker circuitBreaker;
+    private final ConcurrentHashMap<Long, CompletableFuture<BureauScore>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timer;
+    private final MeterRegistry meterRegistry;
+    private final Counter cacheHits;
+    private final Counter cacheRefreshes;
+    private final Counter cacheMisses;
+    private final Timer successfulCalls;
+    private final Timer failedCalls;
+    private final Counter hedges;
+    private final Counter rejectedCalls;
+
+    @Autowired
+    public CreditBureauService(CreditBureauClient client,
+                               @Value("${loan.bureau.enabled:false}") boolean enabled,
+                               @Value("${loan.bureau.timeout-ms:300}") long timeoutMillis,
+                               @Value("${loan.bureau.hedge-delay-ms:100}") long hedgeDelayMillis,
+                               @Value("${loan.bureau.cache.ttl-ms:900000}") long ttlMillis,
+                               @Value("${loan.bureau.cache.refresh-ahead:0.8}") double refreshAhead,
+                               @Value("${loan.bureau.cache.max-stale-ms:86400000}") long maxStaleMillis,
+                               @Value("${loan.bureau.cache.max-entries:100000}") int maxEntries,
+                               @Value("${loan.bureau.circuit.window:20}") int circuitWindow,
+                               @Value("${loan.bureau.circuit.failure-rate:0.5}") double circuitFailureRate,
+                               @Value("${loan.bureau.circuit.open-ms:5000}") long circuitOpenMillis,
+                               MeterRegistry meterRegistry) {
+        if (refreshAhead <= 0.0 || refreshAhead > 1.0) {
+            throw new IllegalArgumentException("loan.bureau.cache.refresh-ahead must be above 0 and at most 1");
+        }
+        this.client = client;
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.refreshAfterNanos = (long) (ttlNanos * refreshAhead);
+        this.cache = new BureauScoreCache(ttlNanos, TimeUnit.MILLISECONDS.toNanos(maxStaleMillis), maxEntries);
+        this.circuitBreaker = new CircuitBreaker(circuitWindow, circuitFailureRate,
+                TimeUnit.MILLISECONDS.toNanos(circuitOpenMillis));
+        this.meterRegistry = meterRegistry;
+        this.cacheHits = Counter.builder("bureau.lookups").tag("result", "hit").register(meterRegistry);
+        this.cacheRefreshes = Counter.builder("bureau.lookups").tag("result", "refresh-ahead").register(meterRegistry);
+        this.cacheMisses = Counter.builder("bureau.lookups").tag("result", "miss").register(meterRegistry);
+        this.successfulCalls = Timer.builder("bureau.calls").tag("outcome", "success").register(meterRegistry);
+        this.failedCalls = Timer.builder("bureau.calls").tag("outcome", "failure").register(meterRegistry);
+        this.hedges = Counter.builder("bureau.hedges").register(meterRegistry);
+        this.rejectedCalls = Counter.builder("bureau.circuit.rejected").register(meterRegistry);
+        Gauge.builder("bureau.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .register(meterRegistry);
+        Gauge.builder("bureau.cache.size", cache, BureauScoreCache::size).register(meterRegistry);
+
+        if (enabled) {
+            timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "credit-bureau-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Most deadlines and hedges are cancelled because the bureau answered in time
+            timer.setRemoveOnCancelPolicy(true);
+        } else {
+            timer = null;
+        }
+    }
+
+    /**
+     * A bureau that is never called, for scoring outside the application context.
+     */
+    public static CreditBureauService disabled() {
+        return new CreditBureauService(customerId -> STORED_SCORE, false, 0, 0, 0, 1.0, 0, 1, 1, 1.0, 0,
+                new SimpleMeterRegistry());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The customer's bureau score, within {@code timeout-ms}; null if the stored score should be
+     * used instead. Never completes exceptionally.
+     */
+    public CompletableFuture<BureauScore> lookup(long customerId) {
+        if (!enabled) {
+            return STORED_SCORE;
+        }
+        long now = System.nanoTime();
+        BureauScoreCache.Entry cached = cache.get(customerId, now);
+        if (cached != null && cached.ageNanos(now) < ttlNanos) {
+            if (cached.ageNanos(now) >= refreshAfterNanos) {
+                cacheRefreshes.increment();
+                call(customerId);
+            } else {
+                cacheHits.increment();
+            }
+            return CompletableFuture.completedFuture(cached.score());
+        }
+        cacheMisses.increment();
+
+        BureauScore fallback = cached != null ? cached.score() : null;
+        CompletableFuture<BureauScore> answer = new CompletableFuture<>();
+        ScheduledFuture<?> deadline = timer.schedule(() -> fallBack(answer, fallback, "timeout"),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        call(customerId).whenComplete((score, failure) -> {
+            deadline.cancel(false);
+            if (failure == null) {
+                answer.complete(score);
+            } else {
+                fallBack(answer, fallback, failure instanceof CircuitOpenException ? "circuit-open" : "failure");
+            }
+        });
+        return answer;
+    }
+
+    private void fallBack(CompletableFuture<BureauScore> answer, BureauScore cached, String reason) {
+        if (answer.complete(cached)) {
+            meterRegistry.counter("bureau.fallbacks", "source", cached != null ? "cache" : "stored",
+                    "reason", reason).increment();
+        }
+    }
+
+    /**
+     * The customer's bureau call, joining the one in flight if there is one. Caches its score.
+     */
+    private CompletableFuture<BureauScore> call(long customerId) {
+        CompletableFuture<BureauScore> existing = inFlight.get(customerId);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<BureauScore> mine = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(customerId, mine);
+        if (existing != null) {
+            return existing;
+        }
+        long started = System.nanoTime();
+        if (!circuitBreaker.tryAcquire(started)) {
+            rejectedCalls.increment();
+            inFlight.remove(customerId, mine);
+            mine.completeExceptionally(new CircuitOpenException());
+            return mine;
+        }
+        hedged(customerId).whenComplete((score, failure) -> {
+            long finished = System.nanoTime();
+            long elapsed = finished - started;
+            if (failure == null) {
+                successfulCalls.record(elapsed, TimeUnit.NANOSECONDS);
+                cache.put(score, finished);
+                if (elapsed > TimeUnit.MILLISECONDS.toNanos(timeoutMillis)) {
+                    circuitBreaker.onFailure(finished);
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+            } else {
+                failedCalls.record(elapsed, TimeUnit.NANOSECONDS);
+                circuitBreaker.onFailure(finished);
+                logger.debug("Bureau call for customer {} failed: {}", customerId, failure.toString());
+            }
+            inFlight.remove(customerId, mine);
+            if (failure == null) {
+                mine.complete(score);
+            } else {
+                mine.completeExceptionally(failure);
+            }
+        });
+        return mine;
+    }
+
+    /**
+     * Calls the bureau, and again if it has not answered after the hedge delay. Completes with the
+     * first score, or exceptionally once every attempt has failed.
+     */
+    private CompletableFuture<BureauScore> hedged(long customerId) {
+        CompletableFuture<BureauScore> first = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        attempt(customerId, first, pending);
+        if (hedgeDelayMillis >= 0 && hedgeDelayMillis < timeoutMillis) {
+            ScheduledFuture<?> hedge = timer.schedule(() -> {
+                if (!first.isDone()) {
+                    pending.incrementAndGet();
+                    hedges.increment();
+                    attempt(customerId, first, pending);
+                }
+            }, hedgeDelayMillis, TimeUnit.MILLISECONDS);
+            first.whenComplete((score, failure) -> hedge.cancel(false));
+        }
+        return first;
+    }
+
+    private void attempt(long customerId, CompletableFuture<BureauScore> first, AtomicInteger pending) {
+        CompletableFuture<BureauScore> call;
+        try {
+            call = client.fetchScore(customerId);
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((score, failure) -> {
+            if (failure == null) {
+                first.complete(score);
+            } else if (pending.decrementAndGet() == 0) {
+                first.completeExceptionally(failure);
+            }
+        });
+    }
+
+    CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    private static final class CircuitOpenException extends CreditBureauException {
+
+        private CircuitOpenException() {
+            super("Circuit breaker is open");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.loanrisk.bureau;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Reads scores from {@code GET <loan.bureau.url>/scores/<customerId>}, which answers
+ * {@code {"customerId": 42, "creditScore": 712}}, or 404 if the bureau has no file on the customer,
+ * which is a regular answer: a {@link BureauScore} without a score.
+ * Each call is bounded by {@code loan.bureau.call-timeout-ms}. The HTTP client is only created
+ * once the first score is requested, so a disabled bureau costs no threads.
+ */
+@Component
+public class HttpCreditBureauClient implements CreditBureauClient {
+
+    private final String baseUrl;
+    private final Duration callTimeout;
+    private final ObjectMapper objectMapper;
+    private volatile HttpClient httpClient;
+
+    @Autowired
+    public HttpCreditBureauClient(@Value("${loan.bureau.url:http://localhost:8090}") String baseUrl,
+                                  @Value("${loan.bureau.call-timeout-ms:2000}") long callTimeoutMillis,
+                                  ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.callTimeout = Duration.ofMillis(callTimeoutMillis);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public CompletableFuture<BureauScore> fetchScore(long customerId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/scores/" + customerId))
+                .timeout(callTimeout)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        return httpClient().sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> parse(customerId, response));
+    }
+
+    private BureauScore parse(long customerId, HttpResponse<byte[]> response) {
+        if (response.statusCode() == 404) {
+            return new BureauScore(customerId, null, Instant.now());
+        }
+        if (response.statusCode() != 200) {
+            throw new CreditBureauException("Bureau answered HTTP " + response.statusCode()
+                    + " for customer " + customerId);
+        }
+        try {
+            JsonNode score = objectMapper.readTree(response.body()).get("creditScore");
+            if (score == null || !score.canConvertToInt()) {
+                throw new CreditBureauException("Bureau response for customer " + customerId + " has no creditScore");
+            }
+            return new BureauScore(customerId, score.intValue(), Instant.now());
+        } catch (IOException e) {
+            throw new CreditBureauException("Unreadable bureau response for customer " + customerId, e);
+        }
+    }
+
+    private HttpClient httpClient() {
+        HttpClient client = httpClient;
+        if (client == null) {
+            synchronized (this) {
+                client = httpClient;
+                if (client == null) {
+                    client = HttpClient.newBuilder()
+                            .connectTimeout(callTimeout)
+                            .version(HttpClient.Version.HTTP_1_1)
+                            .build();
+                    httpClient = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+}
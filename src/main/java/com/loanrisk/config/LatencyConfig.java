@@ -0,0 +1,24 @@
+package com.loanrisk.config;
+
+import com.loanrisk.latency.LatencyHistograms;
+import com.loanrisk.latency.LatencyInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class LatencyConfig implements WebMvcConfigurer {
+
+    private final LatencyHistograms latencyHistograms;
+
+    public LatencyConfig(LatencyHistograms latencyHistograms) {
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (latencyHistograms.isEnabled()) {
+            registry.addInterceptor(new LatencyInterceptor(latencyHistograms));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.loanrisk.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+@Configuration
+public class MessageConverterConfig {
+
+    /**
+     * Serves {@code application/cbor} alongside JSON. Built from Boot's configured builder so CBOR
+     * payloads use the same modules and date handling as the JSON ones; clients opt in with
+     * Content-Type / Accept.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,33 @@
+package com.loanrisk.config;
+
+import com.loanrisk.datasource.ReadYourWrites;
+import com.loanrisk.datasource.ReadYourWritesInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+@Configuration
+public class ReadYourWritesConfig implements WebMvcConfigurer {
+
+    // Every endpoint that creates a customer or a loan application
+    static final Set<String> WRITE_ENDPOINTS = Set.of(
+            "POST /customers",
+            "POST /customers/import",
+            "POST /loan/apply",
+            "POST /loan/apply/stream");
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesConfig(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (readYourWrites.isEnabled()) {
+            registry.addInterceptor(new ReadYourWritesInterceptor(readYourWrites, WRITE_ENDPOINTS));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.loanrisk.config;
+
+import com.loanrisk.datasource.ReplicaLagMonitor;
+import com.loanrisk.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-replica routing, active when {@code loan.replica.urls} lists one or more JDBC URLs. The
+ * primary pool is built from {@code spring.datasource.*} as usual; read-only transactions go to a
+ * replica that is within {@code loan.replica.max-lag-ms} of it, everything else to the primary.
+ * Replicas share {@code loan.replica.username}/{@code password}. Off while shards are configured
+ * ({@link ShardDataSourceConfig}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "loan.replica", name = "urls")
+@ConditionalOnExpression("'${loan.shard.urls:}'.isBlank()")
+public class ReplicaDataSourceConfig {
+
+    // PostgreSQL standby: zero when everything received is replayed, else the age of the last replayed commit
+    static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() "
+            + "THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ReplicaLagMonitor replicaLagMonitor(@Value("${loan.replica.urls}") String urls,
+                                               @Value("${loan.replica.username:${spring.datasource.username:}}") String username,
+                                               @Value("${loan.replica.password:${spring.datasource.password:}}") String password,
+                                               @Value("${loan.replica.pool-size:10}") int poolSize,
+                                               @Value("${loan.replica.lag-query:" + POSTGRES_LAG_QUERY + "}") String lagQuery,
+                                               @Value("${loan.replica.max-lag-ms:1000}") long maxLagMillis,
+                                               @Value("${loan.replica.lag-check-interval-ms:500}") long checkIntervalMillis,
+                                               MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        List<String> replicaUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaLagMonitor(replicas, lagQuery, maxLagMillis, checkIntervalMillis, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaLagMonitor, meterRegistry);
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+        for (HikariDataSource replica : replicaLagMonitor.getReplicaPools()) {
+            targets.put(replica.getPoolName(), replica);
+        }
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
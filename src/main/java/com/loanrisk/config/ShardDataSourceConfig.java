@@ -0,0 +1,82 @@
+package com.loanrisk.config;
+
+import com.loanrisk.datasource.ShardRoutingDataSource;
+import com.loanrisk.datasource.ShardSchemaInitializer;
+import com.loanrisk.datasource.Shards;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Customer-id sharding, active when {@code loan.shard.urls} lists the JDBC URLs of shards 1..N-1.
+ * Shard 0 is built from {@code spring.datasource.*} as usual; see {@link Shards} for the placement
+ * rules. Sharding replaces read-replica routing: {@code loan.replica.urls} is ignored while it is on.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "loan.shard", name = "urls")
+public class ShardDataSourceConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardDataSourceConfig.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource, Shards shards,
+                                                         @Value("${loan.shard.username:${spring.datasource.username:}}") String username,
+                                                         @Value("${loan.shard.password:${spring.datasource.password:}}") String password,
+                                                         @Value("${loan.shard.pool-size:10}") int poolSize,
+                                                         @Value("${loan.replica.urls:}") String replicaUrls,
+                                                         MeterRegistry meterRegistry) {
+        if (!replicaUrls.isBlank()) {
+            logger.warn("loan.replica.urls is ignored: read replicas are not routed while loan.shard.urls is set");
+        }
+        List<HikariDataSource> otherShards = new ArrayList<>();
+        List<String> urls = shards.getAdditionalUrls();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            shard.setPoolName("shard-" + (i + 1));
+            shard.setMaximumPoolSize(poolSize);
+            otherShards.add(shard);
+        }
+        logger.info("Customer and loan tables are sharded across {} databases", shards.count());
+        return new ShardRoutingDataSource(primaryDataSource, otherShards, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    // After Hibernate has created shard 0's tables, before anything inserts customers
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource,
+                                                         @Value("${loan.shard.initialize-schema:false}") boolean initializeSchema) {
+        return new ShardSchemaInitializer(shardRoutingDataSource, initializeSchema);
+    }
+}
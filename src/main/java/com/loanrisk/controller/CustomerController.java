@@ -2,13 +2,18 @@ package com.loanrisk.controller;
 
 import com.loanrisk.dto.CreateCustomerRequest;
 import com.loanrisk.entity.Customer;
+import com.loanrisk.service.CustomerImportService;
 import com.loanrisk.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
 import java.util.Optional;
 
 @RestController
@@ -16,10 +21,12 @@ import java.util.Optional;
 public class CustomerController {
 
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
 
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService, CustomerImportService customerImportService) {
         this.customerService = customerService;
+        this.customerImportService = customerImportService;
     }
 
     @PostMapping
@@ -41,4 +48,14 @@ public class CustomerController {
         return customer.map(ResponseEntity::ok)
                        .orElseGet(() -> ResponseEntity.notFound().build());
     }
-}
\ No newline at end of file
+
+    // Reads the body and writes the per-row NDJSON report concurrently, so neither side is buffered whole
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public void importCustomers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        boolean csv = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"));
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("application/x-ndjson");
+        customerImportService.importCustomers(request.getInputStream(), csv, response.getOutputStream());
+    }
+}
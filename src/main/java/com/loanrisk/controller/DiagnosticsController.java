@@ -0,0 +1,58 @@
+package com.loanrisk.controller;
+
+import com.loanrisk.dto.LatencyReport;
+import com.loanrisk.dto.RuleEvaluationPlan;
+import com.loanrisk.exception.InvalidPercentileException;
+import com.loanrisk.latency.LatencyHistograms;
+import com.loanrisk.service.RiskScoringEngine;
+import com.loanrisk.service.RuleSetSnapshot;
+import com.loanrisk.service.ScoringRuleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/diagnostics")
+public class DiagnosticsController {
+
+    private final LatencyHistograms latencyHistograms;
+    private final RiskScoringEngine riskScoringEngine;
+    private final ScoringRuleService scoringRuleService;
+
+    @Autowired
+    public DiagnosticsController(LatencyHistograms latencyHistograms, RiskScoringEngine riskScoringEngine,
+                                 ScoringRuleService scoringRuleService) {
+        this.latencyHistograms = latencyHistograms;
+        this.riskScoringEngine = riskScoringEngine;
+        this.scoringRuleService = scoringRuleService;
+    }
+
+    // interval=true reports what was recorded since the previous interval report and starts a new interval
+    @GetMapping("/latency")
+    public ResponseEntity<LatencyReport> getLatency(
+            @RequestParam(defaultValue = "false") boolean interval,
+            @RequestParam(defaultValue = "50,90,99,99.9,99.99") List<Double> percentiles) {
+        double[] values = new double[percentiles.size()];
+        for (int i = 0; i < values.length; i++) {
+            double percentile = percentiles.get(i);
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new InvalidPercentileException("Percentiles must be greater than 0 and at most 100: " + percentile);
+            }
+            values[i] = percentile;
+        }
+        return ResponseEntity.ok(latencyHistograms.report(interval, values));
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<RuleEvaluationPlan> getRuleEvaluationPlan() {
+        RuleSetSnapshot ruleSet = scoringRuleService.getRuleSetSnapshot();
+        RuleEvaluationPlan plan = riskScoringEngine.evaluationPlan(ruleSet.getRules());
+        plan.setRuleSetVersion(RuleSetSnapshot.formatVersion(ruleSet.getVersion()));
+        return ResponseEntity.ok(plan);
+    }
+}
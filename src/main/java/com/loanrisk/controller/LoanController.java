@@ -1,31 +1,79 @@
 package com.loanrisk.controller;
 
+import com.loanrisk.admission.AdmissionService;
 import com.loanrisk.dto.ApplyLoanRequest;
 import com.loanrisk.dto.ApplyLoanResponse;
 import com.loanrisk.dto.GetLoanResponse;
+import com.loanrisk.dto.LoanLookupRequest;
+import com.loanrisk.dto.LoanLookupResponse;
+import com.loanrisk.dto.LoanSearchRequest;
+import com.loanrisk.dto.LoanSearchResponse;
+import com.loanrisk.service.DecisionExportFormat;
+import com.loanrisk.service.DecisionExportService;
 import com.loanrisk.service.LoanApplicationService;
+import com.loanrisk.service.LoanLookupService;
+import com.loanrisk.service.LoanSearchService;
+import com.loanrisk.service.StagedApplyService;
+import com.loanrisk.service.StreamingApplyService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/loan")
 public class LoanController {
 
     private final LoanApplicationService loanApplicationService;
+    private final LoanSearchService loanSearchService;
+    private final LoanLookupService loanLookupService;
+    private final DecisionExportService decisionExportService;
+    private final StreamingApplyService streamingApplyService;
+    private final StagedApplyService stagedApplyService;
+    private final AdmissionService admissionService;
+    private final long exportTimeoutMillis;
 
     @Autowired
-    public LoanController(LoanApplicationService loanApplicationService) {
+    public LoanController(LoanApplicationService loanApplicationService, LoanSearchService loanSearchService,
+                          LoanLookupService loanLookupService, DecisionExportService decisionExportService, StreamingApplyService streamingApplyService,
+                          StagedApplyService stagedApplyService, AdmissionService admissionService,
+                          @Value("${loan.export.timeout-ms:3600000}") long exportTimeoutMillis) {
         this.loanApplicationService = loanApplicationService;
+        this.loanSearchService = loanSearchService;
+        this.loanLookupService = loanLookupService;
+        this.decisionExportService = decisionExportService;
+        this.streamingApplyService = streamingApplyService;
+        this.stagedApplyService = stagedApplyService;
+        this.admissionService = admissionService;
+        this.exportTimeoutMillis = exportTimeoutMillis;
     }
 
+    // Admission is checked before anything is queued; the pipeline then releases the servlet thread
     @PostMapping("/apply")
-    public ResponseEntity<ApplyLoanResponse> applyLoan(@Valid @RequestBody ApplyLoanRequest request) {
-        ApplyLoanResponse response = loanApplicationService.applyForLoan(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<ApplyLoanResponse>> applyLoan(
+            @Valid @RequestBody ApplyLoanRequest request,
+            @RequestHeader(value = "X-API-Key", required = false) String apiKey) {
+        admissionService.admit(apiKey, request.getCustomerId());
+        return stagedApplyService.apply(request).thenApply(ResponseEntity::ok);
+    }
+
+    // Full duplex: responses are written while the client is still sending further request lines
+    @PostMapping(value = "/apply/stream", consumes = "application/x-ndjson")
+    public void applyLoanStream(HttpServletRequest request, HttpServletResponse response,
+                                @RequestHeader(value = "X-API-Key", required = false) String apiKey) throws IOException {
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType("application/x-ndjson");
+        streamingApplyService.applyStream(apiKey, request.getInputStream(), response.getOutputStream());
     }
 
     @GetMapping("/{id}")
@@ -37,4 +85,35 @@ public class LoanController {
             return ResponseEntity.notFound().build();
         }
     }
-}
\ No newline at end of file
+
+    // Many loans in one request, in request order; ids that match no loan are marked found=false
+    @PostMapping("/lookup")
+    public ResponseEntity<LoanLookupResponse> lookupLoans(@Valid @RequestBody LoanLookupRequest request) {
+        LoanLookupResponse response = loanLookupService.lookup(request.getLoanIds());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/search")
+    public ResponseEntity<LoanSearchResponse> searchLoans(@Valid @RequestBody LoanSearchRequest request) {
+        LoanSearchResponse response = loanSearchService.search(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // Streamed on an async thread under its own timeout; other async requests keep the short default
+    @GetMapping("/export")
+    public WebAsyncTask<Void> exportDecisions(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) {
+        DecisionExportFormat exportFormat = DecisionExportFormat.fromParameter(format);
+        decisionExportService.validateWindow(from, to);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(exportFormat.getContentType());
+        return new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            decisionExportService.exportDecisions(from, to, exportFormat, response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
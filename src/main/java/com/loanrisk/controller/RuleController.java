@@ -1,29 +1,93 @@
 package com.loanrisk.controller;
 
-import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.exception.InvalidSearchCriteriaException;
+import com.loanrisk.service.RuleSetSnapshot;
 import com.loanrisk.service.ScoringRuleService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/rules")
 public class RuleController {
 
+    static final String RULE_SET_VERSION_HEADER = "X-Rule-Set-Version";
+
     private final ScoringRuleService scoringRuleService;
+    private final long longPollTimeoutMillis;
 
     @Autowired
-    public RuleController(ScoringRuleService scoringRuleService) {
+    public RuleController(ScoringRuleService scoringRuleService,
+                          @Value("${rules.long-poll.timeout-ms:30000}") long longPollTimeoutMillis) {
         this.scoringRuleService = scoringRuleService;
+        this.longPollTimeoutMillis = longPollTimeoutMillis;
     }
 
     @GetMapping
-    public ResponseEntity<List<ScoringRule>> getActiveRules() {
-        List<ScoringRule> activeRules = scoringRuleService.getActiveScoringRules();
-        return ResponseEntity.ok(activeRules);
+    public ResponseEntity<byte[]> getActiveRules(
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        return respond(scoringRuleService.getRuleSetSnapshot(), ifNoneMatch);
+    }
+
+    // Long poll: held without a servlet thread until the rule set moves off the version the client has,
+    // or the timeout expires, in which case the current rule set (or 304) is returned.
+    @GetMapping(params = "waitForChange")
+    public DeferredResult<ResponseEntity<byte[]>> waitForActiveRules(
+            @RequestParam String waitForChange,
+            @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        long version;
+        try {
+            version = RuleSetSnapshot.parseVersion(waitForChange);
+        } catch (NumberFormatException e) {
+            throw new InvalidSearchCriteriaException("waitForChange must be a rule-set version");
+        }
+        DeferredResult<ResponseEntity<byte[]>> result = new DeferredResult<>(longPollTimeoutMillis);
+        CompletableFuture<RuleSetSnapshot> update = scoringRuleService.awaitChange(version);
+        update.thenAccept(snapshot -> result.setResult(respond(snapshot, ifNoneMatch)));
+        result.onTimeout(() -> result.setResult(respond(scoringRuleService.getRuleSetSnapshot(), ifNoneMatch)));
+        result.onCompletion(() -> update.cancel(false));
+        return result;
+    }
+
+    private ResponseEntity<byte[]> respond(RuleSetSnapshot snapshot, String ifNoneMatch) {
+        if (matches(ifNoneMatch, snapshot.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .header(RULE_SET_VERSION_HEADER, RuleSetSnapshot.formatVersion(snapshot.getVersion()))
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(snapshot.getEtag())
+                .header(RULE_SET_VERSION_HEADER, RuleSetSnapshot.formatVersion(snapshot.getVersion()))
+                .body(snapshot.getJson());
+    }
+
+    private boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2); // If-None-Match uses weak comparison
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
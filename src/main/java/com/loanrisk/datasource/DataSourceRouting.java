@@ -0,0 +1,44 @@
+package com.loanrisk.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread override that sends reads to the primary even inside read-only transactions, for
+ * callers that must see their own recent writes. Without replicas configured it has no effect.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<int[]> PRIMARY_PINS = ThreadLocal.withInitial(() -> new int[1]);
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Runs {@code work} with every connection it opens taken from the primary. Nests.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        int[] pins = PRIMARY_PINS.get();
+        pins[0]++;
+        try {
+            return work.get();
+        } finally {
+            pins[0]--;
+        }
+    }
+
+    /**
+     * Pins this thread to the primary until the matching {@link #unpin()}, for a pin that spans
+     * callbacks rather than one call.
+     */
+    static void pin() {
+        PRIMARY_PINS.get()[0]++;
+    }
+
+    static void unpin() {
+        PRIMARY_PINS.get()[0]--;
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PRIMARY_PINS.get()[0] > 0;
+    }
+}
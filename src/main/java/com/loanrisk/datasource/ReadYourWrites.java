@@ -0,0 +1,105 @@
+package com.loanrisk.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which entities were written in the last {@code loan.replica.read-your-writes-ms} and
+ * reads those from the primary, so that a customer created or a loan applied for a moment ago is
+ * found even if the replicas have not caught up. Other reads may go to replicas. Inactive unless
+ * replicas are configured.
+ * <p>
+ * The remembered writes are this node's only: behind a load balancer a read that lands on another
+ * node is not covered by them. The client carries that part of the guarantee instead, as the
+ * last-write time {@link ReadYourWritesInterceptor} hands back after every write.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final boolean enabled;
+    private final long windowMillis;
+    private final long windowNanos;
+    private final int maxTrackedWrites;
+    private final Map<Key, Long> recentWrites = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReadYourWrites(@Value("${loan.replica.urls:}") String replicaUrls,
+                          @Value("${loan.replica.read-your-writes-ms:5000}") long windowMillis,
+                          @Value("${loan.replica.read-your-writes-max-keys:100000}") int maxTrackedWrites) {
+        this.enabled = !replicaUrls.isBlank();
+        this.windowMillis = windowMillis;
+        this.windowNanos = windowMillis * 1_000_000L;
+        this.maxTrackedWrites = maxTrackedWrites;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Whether a write the client made at {@code lastWriteMillis} (epoch millis, by the clock of the
+     * node that took it) is still within the window. A time further in the future than the window
+     * itself is not a clock difference between nodes and is ignored, so a client cannot keep its
+     * reads on the primary indefinitely.
+     */
+    public boolean isWithinWindow(long lastWriteMillis, long nowMillis) {
+        return enabled && lastWriteMillis >= nowMillis - windowMillis && lastWriteMillis <= nowMillis + windowMillis;
+    }
+
+    public void recordWrite(String entity, Object id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (recentWrites.size() >= maxTrackedWrites) {
+            recentWrites.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+        }
+        recentWrites.put(new Key(entity, id), now);
+    }
+
+    /**
+     * Runs {@code read} against the primary if the entity was written within the window, otherwise
+     * lets it be routed normally.
+     */
+    public <T> T read(String entity, Object id, Supplier<T> read) {
+        if (!enabled) {
+            return read.get();
+        }
+        Long writtenAt = recentWrites.get(new Key(entity, id));
+        if (writtenAt != null && System.nanoTime() - writtenAt <= windowNanos) {
+            return DataSourceRouting.onPrimary(read);
+        }
+        return read.get();
+    }
+
+    /**
+     * Runs {@code read}, which covers all of {@code ids}, against the primary if any of them was
+     * written within the window, otherwise lets it be routed normally.
+     */
+    public <T> T readAll(String entity, Collection<?> ids, Supplier<T> read) {
+        if (!enabled) {
+            return read.get();
+        }
+        long now = System.nanoTime();
+        for (Object id : ids) {
+            Long writtenAt = recentWrites.get(new Key(entity, id));
+            if (writtenAt != null && now - writtenAt <= windowNanos) {
+                return DataSourceRouting.onPrimary(read);
+            }
+        }
+        return read.get();
+    }
+
+    private record Key(String entity, Object id) {
+    }
+}
@@ -0,0 +1,118 @@
+package com.loanrisk.datasource;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Carries read-your-writes across nodes with the client. A write endpoint ("POST /customers")
+ * hands back the time it was taken, as the {@value #COOKIE} cookie and the {@value #HEADER} header;
+ * a request that sends either back within {@code loan.replica.read-your-writes-ms} has all its reads
+ * served by the primary, whichever node it reaches. The window is counted from the start of the
+ * write and by the nodes' clocks, so they should be kept in sync to well within it.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String COOKIE = "last-write";
+    public static final String HEADER = "X-Last-Write";
+
+    private static final String PINNED = ReadYourWritesInterceptor.class.getName() + ".pinned";
+
+    private final ReadYourWrites readYourWrites;
+    private final Set<String> writeEndpoints;
+
+    /**
+     * @param writeEndpoints method and path pattern of each endpoint that writes, e.g. "POST /customers"
+     */
+    public ReadYourWritesInterceptor(ReadYourWrites readYourWrites, Set<String> writeEndpoints) {
+        this.readYourWrites = readYourWrites;
+        this.writeEndpoints = writeEndpoints;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        // The first dispatch of an async request already stamped the response
+        if (request.getDispatcherType() == DispatcherType.REQUEST && isWrite(request)) {
+            stamp(response, now);
+        }
+        Long lastWrite = lastWrite(request);
+        if (lastWrite != null && readYourWrites.isWithinWindow(lastWrite, now)) {
+            DataSourceRouting.pin();
+            request.setAttribute(PINNED, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        unpin(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        unpin(request);
+    }
+
+    private boolean isWrite(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null && writeEndpoints.contains(request.getMethod() + " " + pattern);
+    }
+
+    private void stamp(HttpServletResponse response, long now) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(now))
+                .path("/")
+                .httpOnly(true)
+                .sameSite("Lax")
+                .maxAge(Duration.ofSeconds((readYourWrites.getWindowMillis() + 999) / 1000))
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        response.setHeader(HEADER, Long.toString(now));
+    }
+
+    /**
+     * The later of the header and the cookie, or null if the request carries neither (or only
+     * values that are not a time).
+     */
+    private static Long lastWrite(HttpServletRequest request) {
+        Long latest = parse(request.getHeader(HEADER));
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                Long value = COOKIE.equals(cookie.getName()) ? parse(cookie.getValue()) : null;
+                if (value != null && (latest == null || value > latest)) {
+                    latest = value;
+                }
+            }
+        }
+        return latest;
+    }
+
+    private static Long parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void unpin(HttpServletRequest request) {
+        if (request.getAttribute(PINNED) != null) {
+            request.removeAttribute(PINNED);
+            DataSourceRouting.unpin();
+        }
+    }
+}
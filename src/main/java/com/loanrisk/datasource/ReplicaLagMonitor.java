@@ -0,0 +1,135 @@
+package com.loanrisk.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls each replica's replication lag with a configurable query and picks a replica for the next
+ * read-only transaction, round robin among those within {@code maxLagMillis}. A replica whose lag
+ * query fails counts as infinitely behind, so reads fall back to the primary until it recovers.
+ * Owns the replica pools and closes them on shutdown.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final long UNAVAILABLE = Long.MAX_VALUE;
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService poller;
+
+    public ReplicaLagMonitor(List<HikariDataSource> replicaPools, String lagQuery, long maxLagMillis,
+                             long checkIntervalMillis, MeterRegistry meterRegistry) {
+        this.replicas = replicaPools.stream().map(Replica::new).toList();
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+        for (Replica replica : replicas) {
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMillis == UNAVAILABLE ? Double.NaN : r.lagMillis)
+                    .tag("replica", replica.name)
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+        refresh();
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::refresh, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The lookup key of a replica fit for reads, or null if every replica is too far behind.
+     */
+    public String pickReplica() {
+        int count = replicas.size();
+        if (count == 0) {
+            return null;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.lagMillis <= maxLagMillis) {
+                return replica.name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Re-reads every replica's lag now. Runs on the poller thread, and once at construction.
+     */
+    public void refresh() {
+        for (Replica replica : replicas) {
+            long lag = measure(replica);
+            boolean wasUsable = replica.lagMillis <= maxLagMillis;
+            replica.lagMillis = lag;
+            if (wasUsable != lag <= maxLagMillis) {
+                if (lag <= maxLagMillis) {
+                    logger.info("Replica {} is back within {} ms of the primary", replica.name, maxLagMillis);
+                } else {
+                    logger.warn("Replica {} is {}; reads fall back to other replicas or the primary", replica.name,
+                            lag == UNAVAILABLE ? "unavailable" : lag + " ms behind");
+                }
+            }
+        }
+    }
+
+    private long measure(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            try (ResultSet result = statement.executeQuery(lagQuery)) {
+                return result.next() ? Math.max(0L, result.getLong(1)) : UNAVAILABLE;
+            }
+        } catch (SQLException e) {
+            logger.debug("Lag query failed on replica {}", replica.name, e);
+            return UNAVAILABLE;
+        }
+    }
+
+    public List<HikariDataSource> getReplicaPools() {
+        return replicas.stream().map(replica -> replica.pool).toList();
+    }
+
+    public long getLagMillis(String replicaName) {
+        return replicas.stream().filter(replica -> replica.name.equals(replicaName))
+                .findFirst().map(replica -> replica.lagMillis).orElse(UNAVAILABLE);
+    }
+
+    public void shutdown() {
+        poller.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final HikariDataSource pool;
+        // Starts unusable until the first lag check succeeds
+        private volatile long lagMillis = UNAVAILABLE;
+
+        Replica(HikariDataSource pool) {
+            this.name = pool.getPoolName();
+            this.pool = pool;
+        }
+    }
+}
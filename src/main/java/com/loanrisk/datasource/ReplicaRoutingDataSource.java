@@ -0,0 +1,50 @@
+package com.loanrisk.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to a replica chosen by {@link ReplicaLagMonitor}
+ * and everything else to the primary. The decision is made when the connection is opened, so this
+ * must sit behind a {@code LazyConnectionDataSourceProxy}: a transaction's read-only flag is only
+ * visible once the transaction has begun, which is after the JPA transaction manager asks for a
+ * connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.primaryConnections = Counter.builder("db.routing.connections").tag("target", "primary")
+                .register(meterRegistry);
+        this.replicaConnections = Counter.builder("db.routing.connections").tag("target", "replica")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("db.routing.fallbacks")
+                .description("Read-only transactions sent to the primary because every replica lagged")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || DataSourceRouting.isPinnedToPrimary()) {
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        String replica = lagMonitor.pickReplica();
+        if (replica == null) {
+            fallbacks.increment();
+            primaryConnections.increment();
+            return PRIMARY;
+        }
+        replicaConnections.increment();
+        return replica;
+    }
+}
@@ -0,0 +1,39 @@
+package com.loanrisk.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread shard selection read by {@link ShardRoutingDataSource} when a connection is opened.
+ * Callers pick the shard from the customer id, email or loan id via {@link Shards}; code that
+ * selects none (scoring rules, tests) uses shard 0. Without shards configured it has no effect.
+ */
+public final class ShardRouting {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardRouting() {
+    }
+
+    /**
+     * Runs {@code work} with every connection it opens taken from {@code shard}. Must be entered
+     * before the transaction it routes begins: a transaction keeps the connection it started with.
+     */
+    public static <T> T onShard(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public static int currentShard() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+}
@@ -0,0 +1,70 @@
+package com.loanrisk.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends each connection to the shard selected by {@link ShardRouting} on the opening thread. Like
+ * {@link ReplicaRoutingDataSource} it must sit behind a {@code LazyConnectionDataSourceProxy}, so
+ * that the shard is read at the first statement rather than when the transaction manager asks for
+ * a connection. Shard 0 is the primary data source; the pools of the other shards are owned here
+ * and closed on shutdown.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+    private final List<HikariDataSource> ownedPools;
+    private final Counter[] connections;
+
+    public ShardRoutingDataSource(DataSource shardZero, List<HikariDataSource> otherShards, MeterRegistry meterRegistry) {
+        this.shards = new ArrayList<>();
+        this.shards.add(shardZero);
+        this.shards.addAll(otherShards);
+        this.ownedPools = List.copyOf(otherShards);
+        this.connections = new Counter[shards.size()];
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+            connections[i] = Counter.builder("db.shard.connections").tag("shard", Integer.toString(i))
+                    .register(meterRegistry);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shardZero);
+        // An out-of-range shard is a routing bug; fail rather than quietly use shard 0
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        int shard = ShardRouting.currentShard();
+        if (shard >= 0 && shard < connections.length) {
+            connections[shard].increment();
+        }
+        return shard;
+    }
+
+    /**
+     * The physical data source of one shard, for work that must hold connections to several shards
+     * at once (the merged export).
+     */
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public void shutdown() {
+        ownedPools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,113 @@
+package com.loanrisk.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Checks at startup that every shard allocates customer ids on its own residue: the identity
+ * column must increment by the shard count, or customers would be looked up on the wrong shard.
+ * A shard that already holds customers pins the shard count: with another count both
+ * {@code id mod N} and the email hash would send existing rows' lookups and uniqueness checks to
+ * other shards, so startup fails instead of realigning it.
+ * With {@code loan.shard.initialize-schema} (local in-memory shards) it first creates the schema on
+ * shards that lack it and aligns the identity column of every shard that holds no customers yet.
+ * Shard 0's schema comes from Hibernate or {@code spring.sql.init} as usual.
+ */
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private static final String SCHEMA = "db/schema.sql";
+
+    private final ShardRoutingDataSource shards;
+    private final boolean initializeSchema;
+
+    public ShardSchemaInitializer(ShardRoutingDataSource shards, boolean initializeSchema) {
+        this.shards = shards;
+        this.initializeSchema = initializeSchema;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        int count = shards.getShardCount();
+        for (int shard = 0; shard < count; shard++) {
+            try (Connection connection = shards.getShard(shard).getConnection()) {
+                if (initializeSchema) {
+                    initialize(connection, shard, count);
+                }
+                verifyIdentity(connection, shard, count);
+            }
+        }
+    }
+
+    private void initialize(Connection connection, int shard, int count) throws SQLException {
+        if (!hasCustomerTable(connection)) {
+            logger.info("Creating schema on shard {}", shard);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource(SCHEMA));
+        }
+        if (hasCustomers(connection)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            // Shard k hands out k, k + N, k + 2N, ...; shard 0 starts at N since ids start at 1
+            long start = shard == 0 ? count : shard;
+            statement.execute("alter table customer alter column id restart with " + start
+                    + " set increment by " + count);
+        }
+        if (!connection.getAutoCommit()) {
+            connection.commit();
+        }
+    }
+
+    private void verifyIdentity(Connection connection, int shard, int count) {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select identity_increment from information_schema.columns "
+                     + "where lower(table_name) = 'customer' and lower(column_name) = 'id'")) {
+            if (!result.next() || result.getString(1) == null) {
+                logger.warn("Shard {}: cannot read the customer id increment; not verified", shard);
+                return;
+            }
+            long increment = Long.parseLong(result.getString(1).trim());
+            if (increment != count && hasCustomers(connection)) {
+                throw new IllegalStateException("Shard " + shard + " holds customers allocated for " + increment
+                        + " shards but " + count + " are configured; the shard count cannot change once customers"
+                        + " exist without moving them to the shard their id and email hash name");
+            }
+            if (increment != count) {
+                throw new IllegalStateException("Shard " + shard + ": customer.id increments by " + increment
+                        + " but there are " + count + " shards; run 'alter table customer alter column id restart with "
+                        + (shard == 0 ? count : shard) + " set increment by " + count + "' on an empty shard");
+            }
+        } catch (SQLException | NumberFormatException e) {
+            logger.warn("Shard {}: cannot read the customer id increment; not verified: {}", shard, e.getMessage());
+        }
+    }
+
+    private static boolean hasCustomers(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet existing = statement.executeQuery("select count(*) from customer")) {
+            return existing.next() && existing.getLong(1) > 0;
+        }
+    }
+
+    private static boolean hasCustomerTable(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[]{"customer", "CUSTOMER"}) {
+            try (ResultSet tables = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.loanrisk.datasource;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a random UUID identifier that records the shard it is inserted into, see
+ * {@link ShardedUuidGenerator}.
+ */
+@IdGeneratorType(ShardedUuidGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface ShardedUuid {
+}
@@ -0,0 +1,41 @@
+package com.loanrisk.datasource;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Random (version 4) UUIDs whose low 16 bits hold the shard selected by {@link ShardRouting} when
+ * the entity is persisted, so a loan id alone says where the loan lives. That leaves 106 random
+ * bits; version and variant bits are untouched, so the ids remain valid version 4 UUIDs.
+ */
+public class ShardedUuidGenerator implements BeforeExecutionGenerator {
+
+    static final int MAX_SHARDS = 1 << 16;
+
+    private static final long SHARD_MASK = MAX_SHARDS - 1;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return randomUuid(ShardRouting.currentShard());
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID randomUuid(int shard) {
+        UUID random = UUID.randomUUID();
+        return new UUID(random.getMostSignificantBits(), (random.getLeastSignificantBits() & ~SHARD_MASK) | shard);
+    }
+
+    public static int shardOf(UUID id) {
+        return (int) (id.getLeastSignificantBits() & SHARD_MASK);
+    }
+}
@@ -0,0 +1,136 @@
+package com.loanrisk.datasource;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Shard topology of the customer and loan tables. Shard 0 is {@code spring.datasource}, which also
+ * keeps the unsharded tables (scoring rules); {@code loan.shard.urls} lists shards 1..N-1. A
+ * customer lives on shard {@code id mod N}: each shard's identity column starts at its own index
+ * and increments by N. New customers are placed by a hash of their email, so the unique email
+ * constraint of one shard is enough to keep emails unique overall. Loans live with their customer
+ * and carry the shard in their id ({@link ShardedUuidGenerator}).
+ */
+@Component
+public class Shards {
+
+    private final List<String> additionalUrls;
+    private final int count;
+    private final ExecutorService scatterExecutor;
+
+    @Autowired
+    public Shards(@Value("${loan.shard.urls:}") String shardUrls,
+                  @Value("${loan.shard.scatter-threads:8}") int scatterThreads) {
+        this.additionalUrls = Arrays.stream(shardUrls.split(",")).map(String::trim).filter(url -> !url.isEmpty())
+                .toList();
+        this.count = additionalUrls.size() + 1;
+        if (count > ShardedUuidGenerator.MAX_SHARDS) {
+            throw new IllegalArgumentException("At most " + ShardedUuidGenerator.MAX_SHARDS + " shards are supported");
+        }
+        if (count == 1) {
+            this.scatterExecutor = null;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.scatterExecutor = Executors.newFixedThreadPool(Math.max(1, scatterThreads), runnable -> {
+                Thread thread = new Thread(runnable, "shard-scatter-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * JDBC URLs of shards 1..N-1, in shard order.
+     */
+    public List<String> getAdditionalUrls() {
+        return additionalUrls;
+    }
+
+    public int ofCustomer(long customerId) {
+        return (int) Math.floorMod(customerId, (long) count);
+    }
+
+    /**
+     * The shard a new customer with this email is created on. Uniqueness is only checked on this
+     * shard, so the shard count must not change once customers exist; {@link ShardSchemaInitializer}
+     * refuses to start if it has.
+     */
+    public int ofEmail(String email) {
+        return email != null ? Math.floorMod(email.hashCode(), count) : 0;
+    }
+
+    /**
+     * The shard a loan was written to, or -1 if its id names a shard that does not exist here.
+     */
+    public int ofLoan(UUID loanId) {
+        if (count == 1) {
+            return 0;
+        }
+        int shard = ShardedUuidGenerator.shardOf(loanId);
+        return shard < count ? shard : -1;
+    }
+
+    /**
+     * Runs {@code work} once per shard, routed to that shard, and returns the results in shard
+     * order. Shards are queried in parallel; with a single shard the work runs on the caller's
+     * thread. Each call runs on its own thread, outside the caller's transaction.
+     */
+    public <T> List<T> scatter(IntFunction<T> work) {
+        if (scatterExecutor == null) {
+            return Collections.singletonList(ShardRouting.onShard(0, () -> work.apply(0)));
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int shard = i;
+            futures.add(CompletableFuture.supplyAsync(() -> ShardRouting.onShard(shard, () -> work.apply(shard)),
+                    scatterExecutor));
+        }
+        List<T> results = new ArrayList<>(count);
+        try {
+            for (CompletableFuture<T> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Orders UUIDs the way H2 and PostgreSQL do (unsigned, most significant byte first), unlike
+     * {@link UUID#compareTo}, which compares signed halves. Merged results must use this order to
+     * match each shard's {@code order by id}.
+     */
+    public static int compareUuids(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.loanrisk.dto;
+
+/**
+ * Written in place of an {@link ApplyLoanResponse} for a streamed line that could not be decided.
+ */
+public class ApplyStreamError {
+
+    private long line; // 1-based, counting non-blank request lines
+    private String error;
+
+    // Getters and Setters
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,56 @@
+package com.loanrisk.dto;
+
+public class CustomerImportResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String INVALID = "INVALID";
+    public static final String FAILED = "FAILED";
+
+    private long row; // 1-based data row, excluding any CSV header
+    private String status;
+    private Long customerId;
+    private String email;
+    private String error;
+
+    // Getters and Setters
+    public long getRow() {
+        return row;
+    }
+
+    public void setRow(long row) {
+        this.row = row;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
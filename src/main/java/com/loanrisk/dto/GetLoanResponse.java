@@ -16,6 +16,36 @@ public class GetLoanResponse {
     private String explanation;
     private LocalDateTime createdAt;
 
+    public GetLoanResponse() {
+    }
+
+    // Used as a JPQL constructor projection by the bulk lookup, mapped like GET /loan/{id}
+    public GetLoanResponse(UUID loanId, Long customerId, Double riskScore, String riskLevel, String decision,
+                           String explanation, LocalDateTime createdAt) {
+        this.loanId = loanId;
+        this.customerId = customerId;
+        this.loanAmount = riskScore != null ? BigDecimal.valueOf(riskScore) : null;
+        this.riskScore = riskScore != null ? riskScore.intValue() : null;
+        this.riskLevel = riskLevel;
+        this.decision = decision;
+        this.explanation = explanation;
+        this.createdAt = createdAt;
+    }
+
+    public GetLoanResponse copy() {
+        GetLoanResponse copy = new GetLoanResponse();
+        copy.loanId = loanId;
+        copy.customerId = customerId;
+        copy.loanAmount = loanAmount;
+        copy.loanTermMonths = loanTermMonths;
+        copy.riskScore = riskScore;
+        copy.riskLevel = riskLevel;
+        copy.decision = decision;
+        copy.explanation = explanation;
+        copy.createdAt = createdAt;
+        return copy;
+    }
+
     // Getters and Setters
     public UUID getLoanId() {
         return loanId;
@@ -0,0 +1,54 @@
+package com.loanrisk.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+public class LatencyReport {
+
+    private boolean interval; // true when only what was recorded since the previous interval report is included
+    private Instant from;
+    private Instant to;
+    private Map<String, LatencySummary> endpoints; // keyed by "METHOD /path/{pattern}"
+    private Map<String, LatencySummary> rules; // keyed by rule name
+
+    // Getters and Setters
+    public boolean isInterval() {
+        return interval;
+    }
+
+    public void setInterval(boolean interval) {
+        this.interval = interval;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public Map<String, LatencySummary> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, LatencySummary> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public Map<String, LatencySummary> getRules() {
+        return rules;
+    }
+
+    public void setRules(Map<String, LatencySummary> rules) {
+        this.rules = rules;
+    }
+}
@@ -0,0 +1,47 @@
+package com.loanrisk.dto;
+
+import java.util.Map;
+
+/**
+ * Latencies in nanoseconds.
+ */
+public class LatencySummary {
+
+    private long count;
+    private double meanNanos;
+    private long maxNanos;
+    private Map<String, Long> percentileNanos; // keyed like "p50", "p99.9"
+
+    // Getters and Setters
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+
+    public void setMeanNanos(double meanNanos) {
+        this.meanNanos = meanNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public void setMaxNanos(long maxNanos) {
+        this.maxNanos = maxNanos;
+    }
+
+    public Map<String, Long> getPercentileNanos() {
+        return percentileNanos;
+    }
+
+    public void setPercentileNanos(Map<String, Long> percentileNanos) {
+        this.percentileNanos = percentileNanos;
+    }
+}
@@ -0,0 +1,23 @@
+package com.loanrisk.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+public class LoanLookupRequest {
+
+    @NotEmpty(message = "Loan ids are required")
+    @Size(max = 1000, message = "At most 1000 loan ids can be looked up at once")
+    private List<@NotNull(message = "Loan ids must not be null") UUID> loanIds;
+
+    // Getters and Setters
+    public List<UUID> getLoanIds() {
+        return loanIds;
+    }
+
+    public void setLoanIds(List<UUID> loanIds) {
+        this.loanIds = loanIds;
+    }
+}
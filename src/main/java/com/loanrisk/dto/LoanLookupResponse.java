@@ -0,0 +1,26 @@
+package com.loanrisk.dto;
+
+import java.util.List;
+
+public class LoanLookupResponse {
+
+    private List<LoanLookupResult> results; // one per requested id, in request order
+    private int foundCount;
+
+    // Getters and Setters
+    public List<LoanLookupResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<LoanLookupResult> results) {
+        this.results = results;
+    }
+
+    public int getFoundCount() {
+        return foundCount;
+    }
+
+    public void setFoundCount(int foundCount) {
+        this.foundCount = foundCount;
+    }
+}
@@ -0,0 +1,44 @@
+package com.loanrisk.dto;
+
+import java.util.UUID;
+
+public class LoanLookupResult {
+
+    private UUID loanId;
+    private boolean found;
+    private GetLoanResponse loan; // null when not found
+
+    public LoanLookupResult() {
+    }
+
+    public LoanLookupResult(UUID loanId, GetLoanResponse loan) {
+        this.loanId = loanId;
+        this.found = loan != null;
+        this.loan = loan;
+    }
+
+    // Getters and Setters
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public void setLoanId(UUID loanId) {
+        this.loanId = loanId;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public GetLoanResponse getLoan() {
+        return loan;
+    }
+
+    public void setLoan(GetLoanResponse loan) {
+        this.loan = loan;
+    }
+}
@@ -0,0 +1,97 @@
+package com.loanrisk.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import java.time.LocalDateTime;
+
+public class LoanSearchRequest {
+
+    @Pattern(regexp = "Approved|Manual Review|Rejected", message = "Decision must be one of Approved, Manual Review, Rejected")
+    private String decision;
+
+    @Pattern(regexp = "Low|Medium|High", message = "Risk level must be one of Low, Medium, High")
+    private String riskLevel;
+
+    // Both bounds inclusive and compared with the stored score as is, fractions included
+    @DecimalMin(value = "0", message = "Minimum risk score must not be negative")
+    private Double minRiskScore;
+
+    @DecimalMin(value = "0", message = "Maximum risk score must not be negative")
+    private Double maxRiskScore;
+
+    private LocalDateTime createdFrom; // inclusive
+    private LocalDateTime createdTo; // exclusive
+
+    private String cursor; // opaque keyset cursor returned as nextCursor by the previous page
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 500, message = "Limit must be at most 500")
+    private Integer limit;
+
+    // Getters and Setters
+    public String getDecision() {
+        return decision;
+    }
+
+    public void setDecision(String decision) {
+        this.decision = decision;
+    }
+
+    public String getRiskLevel() {
+        return riskLevel;
+    }
+
+    public void setRiskLevel(String riskLevel) {
+        this.riskLevel = riskLevel;
+    }
+
+    public Double getMinRiskScore() {
+        return minRiskScore;
+    }
+
+    public void setMinRiskScore(Double minRiskScore) {
+        this.minRiskScore = minRiskScore;
+    }
+
+    public Double getMaxRiskScore() {
+        return maxRiskScore;
+    }
+
+    public void setMaxRiskScore(Double maxRiskScore) {
+        this.maxRiskScore = maxRiskScore;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,44 @@
+package com.loanrisk.dto;
+
+import java.util.List;
+
+public class LoanSearchResponse {
+
+    private List<LoanSummary> items;
+    private String nextCursor; // null when there are no further pages
+    private Long count;
+    private boolean countApproximate; // true when count is a planner estimate or a lower bound
+
+    // Getters and Setters
+    public List<LoanSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<LoanSummary> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+
+    public void setCount(Long count) {
+        this.count = count;
+    }
+
+    public boolean isCountApproximate() {
+        return countApproximate;
+    }
+
+    public void setCountApproximate(boolean countApproximate) {
+        this.countApproximate = countApproximate;
+    }
+}
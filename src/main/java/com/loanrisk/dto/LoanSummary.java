@@ -0,0 +1,77 @@
+package com.loanrisk.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class LoanSummary {
+
+    private UUID loanId;
+    private Long customerId;
+    private Integer riskScore;
+    private String riskLevel;
+    private String decision;
+    private LocalDateTime createdAt;
+
+    public LoanSummary() {
+    }
+
+    // Used as a JPQL constructor projection, so the search never materializes LoanApplication entities
+    public LoanSummary(UUID loanId, Long customerId, Double riskScore, String riskLevel, String decision,
+                       LocalDateTime createdAt) {
+        this.loanId = loanId;
+        this.customerId = customerId;
+        this.riskScore = riskScore != null ? riskScore.intValue() : null;
+        this.riskLevel = riskLevel;
+        this.decision = decision;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public void setLoanId(UUID loanId) {
+        this.loanId = loanId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public Integer getRiskScore() {
+        return riskScore;
+    }
+
+    public void setRiskScore(Integer riskScore) {
+        this.riskScore = riskScore;
+    }
+
+    public String getRiskLevel() {
+        return riskLevel;
+    }
+
+    public void setRiskLevel(String riskLevel) {
+        this.riskLevel = riskLevel;
+    }
+
+    public String getDecision() {
+        return decision;
+    }
+
+    public void setDecision(String decision) {
+        this.decision = decision;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
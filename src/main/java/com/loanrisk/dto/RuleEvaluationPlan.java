@@ -0,0 +1,58 @@
+package com.loanrisk.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The order the current rule set is evaluated in, with each rule's observed hit rate and cost since
+ * {@code from}.
+ */
+public class RuleEvaluationPlan {
+
+    private String ruleSetVersion;
+    private String order; // "priority": every rule is evaluated, in business priority order
+    private Instant from;
+    private Instant to;
+    private List<RuleEvaluationSummary> rules; // in evaluation order
+
+    // Getters and Setters
+    public String getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+
+    public void setRuleSetVersion(String ruleSetVersion) {
+        this.ruleSetVersion = ruleSetVersion;
+    }
+
+    public String getOrder() {
+        return order;
+    }
+
+    public void setOrder(String order) {
+        this.order = order;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public void setFrom(Instant from) {
+        this.from = from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public void setTo(Instant to) {
+        this.to = to;
+    }
+
+    public List<RuleEvaluationSummary> getRules() {
+        return rules;
+    }
+
+    public void setRules(List<RuleEvaluationSummary> rules) {
+        this.rules = rules;
+    }
+}
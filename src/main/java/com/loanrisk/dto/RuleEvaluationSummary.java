@@ -0,0 +1,90 @@
+package com.loanrisk.dto;
+
+/**
+ * One rule's place in the evaluation plan and what evaluating it has cost. Costs in nanoseconds.
+ */
+public class RuleEvaluationSummary {
+
+    private int position;
+    private String name;
+    private int priority;
+    private long evaluations;
+    private long hits;
+    private double hitRate; // hits / evaluations, 0 before the first evaluation
+    private double meanCostNanos;
+    private long p99CostNanos;
+    private double costPerHitNanos; // total cost / hits; 0 while the rule has never hit
+
+    // Getters and Setters
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public void setEvaluations(long evaluations) {
+        this.evaluations = evaluations;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public void setHits(long hits) {
+        this.hits = hits;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public double getMeanCostNanos() {
+        return meanCostNanos;
+    }
+
+    public void setMeanCostNanos(double meanCostNanos) {
+        this.meanCostNanos = meanCostNanos;
+    }
+
+    public long getP99CostNanos() {
+        return p99CostNanos;
+    }
+
+    public void setP99CostNanos(long p99CostNanos) {
+        this.p99CostNanos = p99CostNanos;
+    }
+
+    public double getCostPerHitNanos() {
+        return costPerHitNanos;
+    }
+
+    public void setCostPerHitNanos(double costPerHitNanos) {
+        this.costPerHitNanos = costPerHitNanos;
+    }
+}
@@ -86,6 +86,31 @@ public class Customer {
         this.email = email;
     }
 
+    /**
+     * A detached copy with the same id, for callers that must not share one instance.
+     */
+    public Customer copy() {
+        Customer copy = new Customer();
+        copy.id = id;
+        copy.firstName = firstName;
+        copy.lastName = lastName;
+        copy.dateOfBirth = dateOfBirth;
+        copy.address = address;
+        copy.email = email;
+        copy.city = city;
+        copy.country = country;
+        copy.zipCode = zipCode;
+        copy.phoneNumber = phoneNumber;
+        copy.creditScore = creditScore;
+        copy.employmentStatus = employmentStatus;
+        copy.annualIncome = annualIncome;
+        copy.existingDebt = existingDebt;
+        copy.maritalStatus = maritalStatus;
+        copy.numberOfDependents = numberOfDependents;
+        copy.createdAt = createdAt;
+        return copy;
+    }
+
     @Override
     public String toString() {
         return "Customer{" +
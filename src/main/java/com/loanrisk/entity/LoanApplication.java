@@ -1,13 +1,25 @@
 package com.loanrisk.entity;
 
+import com.loanrisk.datasource.ShardedUuid;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "loan_application", indexes = {
+        // Covering indexes for the portfolio search: each leads with one filter column, then the
+        // (created_at, id) keyset, then the remaining projected columns so queries stay index-only.
+        @Index(name = "idx_loan_application_decision_created",
+                columnList = "decision, created_at, id, risk_level, risk_score, customer_id"),
+        @Index(name = "idx_loan_application_risk_level_created",
+                columnList = "risk_level, created_at, id, decision, risk_score, customer_id"),
+        @Index(name = "idx_loan_application_created",
+                columnList = "created_at, id, decision, risk_level, risk_score, customer_id")
+})
 public class LoanApplication {
 
+    // Random, with the shard the loan is stored on in the low bits
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @ShardedUuid
     private java.util.UUID id;
 
     @ManyToOne
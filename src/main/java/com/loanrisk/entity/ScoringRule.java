@@ -1,11 +1,16 @@
 package com.loanrisk.entity;
 
+import com.loanrisk.expression.ValidRuleExpression;
+import com.loanrisk.service.ScoringRuleChangeListener;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 
 @Entity
+@EntityListeners(ScoringRuleChangeListener.class)
 public class ScoringRule {
 
     @Id
@@ -16,6 +21,10 @@ public class ScoringRule {
     private String field;
     private String operator; // e.g., >, <, ==, !=, >=, <=
     private String ruleValue; // Value to compare against (as a string, conversion needed based on field type)
+    // Optional condition such as "loanAmount / annualIncome > 0.5"; when set, field/operator/ruleValue are ignored
+    @Column(length = 1000)
+    @ValidRuleExpression
+    private String expression;
     private int riskPoints;
     private int priority; // Lower number means higher priority
     private boolean enabled;
@@ -61,6 +70,14 @@ public class ScoringRule {
         this.ruleValue = ruleValue;
     }
 
+    public String getExpression() {
+        return expression;
+    }
+
+    public void setExpression(String expression) {
+        this.expression = expression;
+    }
+
     public int getRiskPoints() {
         return riskPoints;
     }
@@ -0,0 +1,64 @@
+package com.loanrisk.events;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Immutable notification that a loan application has been decided and saved.
+ */
+public class DecisionEvent {
+
+    private final UUID loanId;
+    private final Long customerId;
+    private final double riskScore;
+    private final String riskLevel;
+    private final String decision;
+    private final long ruleSetVersion;
+    private final LocalDateTime createdAt;
+    private final Instant publishedAt;
+
+    public DecisionEvent(UUID loanId, Long customerId, double riskScore, String riskLevel, String decision,
+                         long ruleSetVersion, LocalDateTime createdAt) {
+        this.loanId = loanId;
+        this.customerId = customerId;
+        this.riskScore = riskScore;
+        this.riskLevel = riskLevel;
+        this.decision = decision;
+        this.ruleSetVersion = ruleSetVersion;
+        this.createdAt = createdAt;
+        this.publishedAt = Instant.now();
+    }
+
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public double getRiskScore() {
+        return riskScore;
+    }
+
+    public String getRiskLevel() {
+        return riskLevel;
+    }
+
+    public String getDecision() {
+        return decision;
+    }
+
+    public long getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getPublishedAt() {
+        return publishedAt;
+    }
+}
@@ -0,0 +1,150 @@
+package com.loanrisk.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stream of every decision made by {@code applyForLoan}. {@link #publish} only offers to
+ * a bounded ingress queue, so the apply request never waits for a subscriber. A single dispatcher
+ * thread moves events into each subscriber's bounded buffer according to its {@link OverflowPolicy};
+ * each subscriber is signalled from its own delivery thread as it requests more.
+ *
+ * <p>Per subscriber, {@code decision.events.buffered}, {@code decision.events.lag} (age of the oldest
+ * undelivered event), {@code decision.events.delivered} and {@code decision.events.dropped} are
+ * published as metrics tagged with the subscriber name.
+ */
+@Component
+public class DecisionEventPublisher implements Flow.Publisher<DecisionEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecisionEventPublisher.class);
+
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<DecisionEvent> ingress;
+    private final int defaultBufferCapacity;
+    private final OverflowPolicy defaultPolicy;
+    private final int sampleRate;
+    private final Counter ingressDropped;
+    private final List<DecisionSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Map<DecisionSubscription, List<Meter>> meters = new ConcurrentHashMap<>();
+    private final Thread dispatcher;
+
+    private volatile boolean running = true;
+
+    @Autowired
+    public DecisionEventPublisher(MeterRegistry meterRegistry,
+                                  @Value("${loan.events.ingress-capacity:8192}") int ingressCapacity,
+                                  @Value("${loan.events.buffer-capacity:1024}") int defaultBufferCapacity,
+                                  @Value("${loan.events.overflow-policy:DROP_OLDEST}") OverflowPolicy defaultPolicy,
+                                  @Value("${loan.events.sample-rate:10}") int sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.ingress = new ArrayBlockingQueue<>(ingressCapacity);
+        this.defaultBufferCapacity = defaultBufferCapacity;
+        this.defaultPolicy = defaultPolicy;
+        this.sampleRate = sampleRate;
+        this.ingressDropped = Counter.builder("decision.events.ingress.dropped")
+                .description("Decisions not published because the dispatcher fell behind")
+                .register(meterRegistry);
+        Gauge.builder("decision.events.ingress.buffered", ingress, BlockingQueue::size).register(meterRegistry);
+        this.dispatcher = new Thread(this::dispatchLoop, "decision-events-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Publishes a decision without blocking. Does nothing when nobody is subscribed.
+     */
+    public void publish(DecisionEvent event) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        if (!ingress.offer(event)) {
+            ingressDropped.increment();
+        }
+    }
+
+    /**
+     * Subscribes with the configured default buffer capacity and overflow policy, named after the
+     * subscriber's fully qualified class name (never empty, unlike the simple name of an anonymous
+     * class).
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super DecisionEvent> subscriber) {
+        subscribe(subscriber.getClass().getName(), subscriber, defaultPolicy, defaultBufferCapacity);
+    }
+
+    public void subscribe(String name, Flow.Subscriber<? super DecisionEvent> subscriber, OverflowPolicy policy,
+                          int bufferCapacity) {
+        DecisionSubscription subscription =
+                new DecisionSubscription(name, subscriber, policy, bufferCapacity, sampleRate);
+        meters.put(subscription, registerMeters(subscription));
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        subscription.start();
+        logger.info("Decision subscriber {} registered ({}, buffer {})", name, policy, bufferCapacity);
+    }
+
+    private List<Meter> registerMeters(DecisionSubscription subscription) {
+        Tags tags = Tags.of("subscriber", subscription.getName());
+        List<Meter> meters = new ArrayList<>();
+        meters.add(Gauge.builder("decision.events.buffered", subscription, DecisionSubscription::getBuffered)
+                .tags(tags).register(meterRegistry));
+        meters.add(Gauge.builder("decision.events.lag", subscription, DecisionSubscription::getLagMillis)
+                .tags(tags).baseUnit("milliseconds").register(meterRegistry));
+        meters.add(FunctionCounter.builder("decision.events.delivered", subscription, DecisionSubscription::getDelivered)
+                .tags(tags).register(meterRegistry));
+        meters.add(FunctionCounter.builder("decision.events.dropped", subscription, DecisionSubscription::getDropped)
+                .tags(tags).register(meterRegistry));
+        return meters;
+    }
+
+    private void remove(DecisionSubscription subscription) {
+        subscriptions.remove(subscription);
+        meters.remove(subscription).forEach(meterRegistry::remove);
+    }
+
+    // Cancelled subscriptions are dropped on the next dispatch, or within the poll timeout when idle
+    private void dispatchLoop() {
+        while (running || !ingress.isEmpty()) {
+            try {
+                DecisionEvent event = ingress.poll(100, TimeUnit.MILLISECONDS);
+                for (DecisionSubscription subscription : subscriptions) {
+                    if (subscription.isCancelled()) {
+                        remove(subscription);
+                    } else if (event != null) {
+                        subscription.offer(event);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        subscriptions.forEach(DecisionSubscription::complete);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
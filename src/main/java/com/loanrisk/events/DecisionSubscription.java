@@ -0,0 +1,210 @@
+package com.loanrisk.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One subscriber's bounded buffer and delivery thread. The dispatcher thread is the only producer
+ * ({@link #offer}); the delivery thread is the only consumer and calls the subscriber's signal
+ * methods, so they are never invoked concurrently.
+ */
+class DecisionSubscription implements Flow.Subscription {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecisionSubscription.class);
+
+    private final String name;
+    private final Flow.Subscriber<? super DecisionEvent> subscriber;
+    private final OverflowPolicy policy;
+    private final ArrayBlockingQueue<DecisionEvent> buffer;
+    private final int sampleThreshold;
+    private final int sampleRate;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition demandAvailable = lock.newCondition();
+    private long demand;
+    private Throwable pendingError;
+
+    private final AtomicLong offered = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private long sampleCounter;
+
+    private volatile boolean cancelled;
+    private volatile boolean completing;
+
+    DecisionSubscription(String name, Flow.Subscriber<? super DecisionEvent> subscriber, OverflowPolicy policy,
+                         int capacity, int sampleRate) {
+        this.name = name;
+        this.subscriber = subscriber;
+        this.policy = policy;
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+        this.sampleThreshold = Math.max(1, capacity / 2);
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    void start() {
+        Thread thread = new Thread(this::deliverLoop, "decision-events-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Buffers an event according to the overflow policy. Called from the dispatcher thread only.
+     */
+    void offer(DecisionEvent event) throws InterruptedException {
+        if (cancelled) {
+            return;
+        }
+        offered.incrementAndGet();
+        switch (policy) {
+            case BLOCK:
+                while (!buffer.offer(event, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        return;
+                    }
+                }
+                break;
+            case DROP_OLDEST:
+                while (!buffer.offer(event)) {
+                    if (buffer.poll() != null) {
+                        dropped.incrementAndGet();
+                    }
+                }
+                break;
+            case SAMPLE:
+                boolean sampledOut = buffer.size() >= sampleThreshold && sampleCounter++ % sampleRate != 0;
+                if (sampledOut || !buffer.offer(event)) {
+                    dropped.incrementAndGet();
+                }
+                break;
+        }
+    }
+
+    @Override
+    public void request(long n) {
+        lock.lock();
+        try {
+            if (n <= 0) {
+                pendingError = new IllegalArgumentException("Subscription request must be positive: " + n);
+            } else {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+            demandAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        buffer.clear();
+    }
+
+    /**
+     * Delivers what is already buffered, then signals {@code onComplete}.
+     */
+    void complete() {
+        completing = true;
+    }
+
+    private void deliverLoop() {
+        try {
+            while (!cancelled) {
+                if (completing && buffer.isEmpty()) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if (!awaitDemand()) {
+                    continue;
+                }
+                DecisionEvent event = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                consumeDemand();
+                try {
+                    subscriber.onNext(event);
+                    delivered.incrementAndGet();
+                } catch (RuntimeException e) {
+                    logger.warn("Decision subscriber {} failed; cancelling its subscription", name, e);
+                    cancel();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean awaitDemand() throws InterruptedException {
+        Throwable error;
+        lock.lock();
+        try {
+            if (pendingError == null && demand == 0) {
+                demandAvailable.await(100, TimeUnit.MILLISECONDS);
+            }
+            error = pendingError;
+            if (error == null) {
+                return demand > 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+        cancel();
+        subscriber.onError(error);
+        return false;
+    }
+
+    private void consumeDemand() {
+        lock.lock();
+        try {
+            if (demand != Long.MAX_VALUE) {
+                demand--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    int getBuffered() {
+        return buffer.size();
+    }
+
+    /**
+     * Milliseconds since the oldest undelivered decision was published; 0 when caught up.
+     */
+    double getLagMillis() {
+        DecisionEvent oldest = buffer.peek();
+        return oldest == null ? 0 : Duration.between(oldest.getPublishedAt(), Instant.now()).toMillis();
+    }
+
+    long getOffered() {
+        return offered.get();
+    }
+
+    long getDelivered() {
+        return delivered.get();
+    }
+
+    long getDropped() {
+        return dropped.get();
+    }
+}
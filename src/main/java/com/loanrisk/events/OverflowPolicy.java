@@ -0,0 +1,23 @@
+package com.loanrisk.events;
+
+/**
+ * What a subscription does with a new decision when its buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Lossless: the dispatcher waits for space. This holds back every subscriber behind the slow one
+     * (and eventually fills the ingress queue, which then drops), but never the apply request.
+     */
+    BLOCK,
+
+    /**
+     * Evicts the oldest buffered decision to make room, so the subscriber always sees the newest ones.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Once the buffer is half full only every n-th decision is kept; a full buffer drops the newest.
+     */
+    SAMPLE
+}
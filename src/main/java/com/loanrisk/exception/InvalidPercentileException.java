@@ -0,0 +1,12 @@
+package com.loanrisk.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPercentileException extends RuntimeException {
+
+    public InvalidPercentileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,58 @@
+package com.loanrisk.expression;
+
+import com.loanrisk.service.ScoringInput;
+
+import java.util.List;
+
+/**
+ * A list of conditions compiled together by {@link ExpressionCompiler}, so that derived values
+ * they have in common are computed once per application. Immutable and safe to share between
+ * threads; the per-application state lives in the {@link EvaluationContext}.
+ */
+public final class CompiledConditions {
+
+    private final ExpressionCompiler.BooleanFn[] conditions;
+    private final int sharedSlotCount;
+    private final List<DerivedField> derivedFields;
+    private final ExpressionCompiler.NumberFn[] plan;
+
+    CompiledConditions(ExpressionCompiler.BooleanFn[] conditions, int sharedSlotCount,
+                       List<DerivedField> derivedFields, ExpressionCompiler.NumberFn[] plan) {
+        this.conditions = conditions;
+        this.sharedSlotCount = sharedSlotCount;
+        this.derivedFields = derivedFields;
+        this.plan = plan;
+    }
+
+    /**
+     * A context for one application, with the planned derived fields already computed.
+     */
+    public EvaluationContext newContext(ScoringInput input) {
+        return new EvaluationContext(input, sharedSlotCount, plan);
+    }
+
+    /**
+     * Evaluates the condition at {@code index}, in the order the conditions were compiled.
+     */
+    public boolean test(int index, EvaluationContext context) {
+        return conditions[index].test(context);
+    }
+
+    public int size() {
+        return conditions.length;
+    }
+
+    /**
+     * Number of derived values shared by more than one place in the compiled conditions.
+     */
+    public int getSharedSlotCount() {
+        return sharedSlotCount;
+    }
+
+    /**
+     * The derived fields computed for every application, in the order they are computed.
+     */
+    public List<DerivedField> getDerivedFields() {
+        return derivedFields;
+    }
+}
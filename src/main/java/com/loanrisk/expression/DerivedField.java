@@ -0,0 +1,51 @@
+package com.loanrisk.expression;
+
+import java.util.List;
+
+/**
+ * A named value computed from other fields, such as {@code loanRatio = loanAmount / annualIncome}.
+ * Rules refer to it like any other field; it is only computed for applications scored against a
+ * rule set that references it. Instances come from {@link DerivedFields}.
+ */
+public final class DerivedField {
+
+    private final String name;
+    private final String definitionSource;
+    private final Expr definition;
+    private final List<DerivedField> dependencies;
+
+    DerivedField(String name, String definitionSource, Expr definition, List<DerivedField> dependencies) {
+        this.name = name;
+        this.definitionSource = definitionSource;
+        this.definition = definition;
+        this.dependencies = List.copyOf(dependencies);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDefinitionSource() {
+        return definitionSource;
+    }
+
+    public ExpressionType getType() {
+        return definition.type();
+    }
+
+    Expr getDefinition() {
+        return definition;
+    }
+
+    /**
+     * The derived fields this definition reads directly; they are always computed first.
+     */
+    public List<DerivedField> getDependencies() {
+        return dependencies;
+    }
+
+    @Override
+    public String toString() {
+        return name + " = " + definitionSource;
+    }
+}
@@ -0,0 +1,63 @@
+package com.loanrisk.expression;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the derived fields rules can reference. A definition may only use base fields and
+ * derived fields registered before it, so the dependency graph cannot have cycles.
+ */
+public final class DerivedFields {
+
+    private static final Map<String, DerivedField> BY_NAME = new LinkedHashMap<>();
+
+    static {
+        register("loanRatio", "loanAmount / annualIncome");
+        register("existingDebtRatio", "existingDebt / annualIncome");
+        register("totalDebtRatio", "(existingDebt + loanAmount) / annualIncome");
+        register("monthlyPayment", "loanAmount / loanTermMonths");
+        register("paymentToIncomeRatio", "monthlyPayment * 12 / annualIncome");
+    }
+
+    private DerivedFields() {
+    }
+
+    /**
+     * The derived field called {@code name}, or null if there is none.
+     */
+    public static DerivedField byName(String name) {
+        return BY_NAME.get(name);
+    }
+
+    public static Collection<DerivedField> all() {
+        return Collections.unmodifiableCollection(BY_NAME.values());
+    }
+
+    private static void register(String name, String definitionSource) {
+        if (RuleField.byName(name) != null || BY_NAME.containsKey(name)) {
+            throw new IllegalStateException("Derived field " + name + " is already defined");
+        }
+        Expr definition = ExpressionCompiler.fold(ExpressionParser.parseValue(definitionSource, BY_NAME::get));
+        if (definition.type() != ExpressionType.NUMBER) {
+            throw new IllegalStateException("Derived field " + name + " must be a NUMBER");
+        }
+        List<DerivedField> dependencies = new ArrayList<>();
+        collectDependencies(definition, dependencies);
+        BY_NAME.put(name, new DerivedField(name, definitionSource, definition, dependencies));
+    }
+
+    private static void collectDependencies(Expr expr, List<DerivedField> dependencies) {
+        if (expr instanceof Expr.Derived derived && !dependencies.contains(derived.field())) {
+            dependencies.add(derived.field());
+        } else if (expr instanceof Expr.Unary unary) {
+            collectDependencies(unary.operand(), dependencies);
+        } else if (expr instanceof Expr.Binary binary) {
+            collectDependencies(binary.left(), dependencies);
+            collectDependencies(binary.right(), dependencies);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.loanrisk.expression;
+
+import com.loanrisk.service.ScoringInput;
+
+import java.math.BigDecimal;
+
+/**
+ * The values one application is evaluated on, unboxed once, the derived fields of the compiled
+ * plan, and the slots in which derived values shared between rules are computed at most once. A
+ * context belongs to a single scoring call and is not thread-safe.
+ */
+public final class EvaluationContext {
+
+    private static final double[] NO_VALUES = new double[0];
+    private static final boolean[] NOT_COMPUTED = new boolean[0];
+
+    final double loanAmount;
+    final double loanTermMonths;
+    final double age;
+    final double creditScore;
+    final double annualIncome;
+    final double existingDebt;
+    final String employmentStatus;
+
+    private final double[] derived;
+    private final double[] shared;
+    private final boolean[] computed;
+
+    EvaluationContext(ScoringInput input, int sharedSlots, ExpressionCompiler.NumberFn[] plan) {
+        this.loanAmount = toDouble(input.getLoanAmount());
+        this.loanTermMonths = input.getLoanTermMonths() != null ? input.getLoanTermMonths() : Double.NaN;
+        this.age = input.getAge();
+        this.creditScore = input.getCreditScore() != null ? input.getCreditScore() : Double.NaN;
+        this.annualIncome = toDouble(input.getAnnualIncome());
+        this.existingDebt = toDouble(input.getExistingDebt());
+        this.employmentStatus = input.getEmploymentStatus();
+        this.shared = sharedSlots > 0 ? new double[sharedSlots] : NO_VALUES;
+        this.computed = sharedSlots > 0 ? new boolean[sharedSlots] : NOT_COMPUTED;
+        // The plan is in dependency order, so each field only reads fields computed before it
+        this.derived = plan.length > 0 ? new double[plan.length] : NO_VALUES;
+        for (int i = 0; i < plan.length; i++) {
+            derived[i] = plan[i].apply(this);
+        }
+    }
+
+    double derived(int index) {
+        return derived[index];
+    }
+
+    double shared(int slot, ExpressionCompiler.NumberFn value) {
+        if (!computed[slot]) {
+            shared[slot] = value.apply(this);
+            computed[slot] = true;
+        }
+        return shared[slot];
+    }
+
+    // Missing values become NaN, which makes every comparison they reach false
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
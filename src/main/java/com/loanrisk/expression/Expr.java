@@ -0,0 +1,107 @@
+package com.loanrisk.expression;
+
+import java.math.BigDecimal;
+
+/**
+ * Typed syntax tree of a rule expression. Nodes are immutable and only built by
+ * {@link ExpressionParser} and {@link ExpressionCompiler}, which check operand types, so a tree
+ * that exists is well typed. {@link #toString()} is a canonical form: two subtrees print the same
+ * exactly when they compute the same value, which is what common-subexpression sharing keys on.
+ */
+public sealed interface Expr {
+
+    ExpressionType type();
+
+    record NumberLiteral(double value) implements Expr {
+        @Override
+        public ExpressionType type() {
+            return ExpressionType.NUMBER;
+        }
+
+        @Override
+        public String toString() {
+            return Double.isFinite(value)
+                    ? BigDecimal.valueOf(value).stripTrailingZeros().toPlainString()
+                    : Double.toString(value);
+        }
+    }
+
+    record StringLiteral(String value) implements Expr {
+        @Override
+        public ExpressionType type() {
+            return ExpressionType.STRING;
+        }
+
+        @Override
+        public String toString() {
+            return "'" + value.replace("'", "''") + "'";
+        }
+    }
+
+    record BooleanLiteral(boolean value) implements Expr {
+        @Override
+        public ExpressionType type() {
+            return ExpressionType.BOOLEAN;
+        }
+
+        @Override
+        public String toString() {
+            return value ? "TRUE" : "FALSE";
+        }
+    }
+
+    record Field(RuleField field) implements Expr {
+        @Override
+        public ExpressionType type() {
+            return field.getType();
+        }
+
+        @Override
+        public String toString() {
+            return field.getFieldName();
+        }
+    }
+
+    record Derived(DerivedField field) implements Expr {
+        @Override
+        public ExpressionType type() {
+            return field.getType();
+        }
+
+        @Override
+        public String toString() {
+            return field.getName();
+        }
+    }
+
+    record Unary(Operator operator, Expr operand) implements Expr {
+        @Override
+        public ExpressionType type() {
+            return operator.resultType();
+        }
+
+        @Override
+        public String toString() {
+            return operator == Operator.NOT ? "(NOT " + operand + ")" : "(-" + operand + ")";
+        }
+    }
+
+    record Binary(Operator operator, Expr left, Expr right) implements Expr {
+        @Override
+        public ExpressionType type() {
+            return operator.resultType();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operator.getSymbol() + " " + right + ")";
+        }
+    }
+
+    /**
+     * Whether this node is a literal, i.e. has the same value for every application.
+     */
+    default boolean isConstant() {
+        return this instanceof NumberLiteral || this instanceof StringLiteral || this instanceof BooleanLiteral;
+    }
+}
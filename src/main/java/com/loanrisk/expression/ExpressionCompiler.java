@@ -0,0 +1,313 @@
+package com.loanrisk.expression;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles type-checked expressions into trees of closures. Before compiling, constant subtrees
+ * are folded into literals, and derived numeric values that occur more than once across all the
+ * conditions compiled together (e.g. {@code loanAmount / annualIncome} used by several rules) get
+ * a slot in the {@link EvaluationContext} so they are computed once per application.
+ *
+ * <p>Named {@link DerivedField}s referenced by the conditions, directly or through other derived
+ * fields, form the plan of the compiled set: they are computed in dependency order when the
+ * context is created, and derived fields nobody references are never computed.
+ *
+ * <p>Semantics: numbers are doubles and a missing value is NaN, so any comparison it reaches is
+ * false, including {@code !=}. String equality ignores case and is false when either side is
+ * missing.
+ */
+public final class ExpressionCompiler {
+
+    interface NumberFn {
+        double apply(EvaluationContext context);
+    }
+
+    interface StringFn {
+        String apply(EvaluationContext context);
+    }
+
+    interface BooleanFn {
+        boolean test(EvaluationContext context);
+    }
+
+    // Canonical form of a shared derived value -> its slot in the evaluation context
+    private final Map<String, Integer> slots;
+    // Derived field -> its index in the plan, and so in the context's derived values
+    private final Map<DerivedField, Integer> plan;
+
+    private ExpressionCompiler(Map<String, Integer> slots, Map<DerivedField, Integer> plan) {
+        this.slots = slots;
+        this.plan = plan;
+    }
+
+    /**
+     * Compiles {@code conditions}, which must all be BOOLEAN, sharing derived values between them.
+     */
+    public static CompiledConditions compile(List<Expr> conditions) {
+        Expr[] folded = new Expr[conditions.size()];
+        Map<String, Integer> occurrences = new LinkedHashMap<>();
+        Map<DerivedField, Integer> plan = new LinkedHashMap<>();
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(conditions.get(i));
+            countDerived(folded[i], occurrences);
+            addToPlan(folded[i], plan);
+        }
+        Map<String, Integer> slots = new HashMap<>();
+        occurrences.forEach((key, count) -> {
+            if (count > 1) {
+                slots.put(key, slots.size());
+            }
+        });
+
+        ExpressionCompiler compiler = new ExpressionCompiler(slots, plan);
+        NumberFn[] derived = new NumberFn[plan.size()];
+        plan.forEach((field, index) -> derived[index] = compiler.number(field.getDefinition()));
+        BooleanFn[] compiled = new BooleanFn[folded.length];
+        for (int i = 0; i < folded.length; i++) {
+            compiled[i] = compiler.condition(folded[i]);
+        }
+        return new CompiledConditions(compiled, slots.size(), List.copyOf(plan.keySet()), derived);
+    }
+
+    // Post-order walk, so that every derived field is planned after the fields it depends on
+    private static void addToPlan(Expr expr, Map<DerivedField, Integer> plan) {
+        if (expr instanceof Expr.Derived derived) {
+            addToPlan(derived.field(), plan);
+        } else if (expr instanceof Expr.Unary unary) {
+            addToPlan(unary.operand(), plan);
+        } else if (expr instanceof Expr.Binary binary) {
+            addToPlan(binary.left(), plan);
+            addToPlan(binary.right(), plan);
+        }
+    }
+
+    private static void addToPlan(DerivedField field, Map<DerivedField, Integer> plan) {
+        if (plan.containsKey(field)) {
+            return;
+        }
+        for (DerivedField dependency : field.getDependencies()) {
+            addToPlan(dependency, plan);
+        }
+        plan.put(field, plan.size());
+    }
+
+    /**
+     * Replaces every subtree whose value does not depend on the application by its value, and
+     * simplifies logical operators with a literal operand.
+     */
+    public static Expr fold(Expr expr) {
+        if (expr instanceof Expr.Unary unary) {
+            Expr operand = fold(unary.operand());
+            if (operand instanceof Expr.Unary inner && inner.operator() == unary.operator()) {
+                return inner.operand(); // NOT NOT x, - - x
+            }
+            Expr node = new Expr.Unary(unary.operator(), operand);
+            return operand.isConstant() ? evaluateConstant(node) : node;
+        }
+        if (expr instanceof Expr.Binary binary) {
+            Expr left = fold(binary.left());
+            Expr right = fold(binary.right());
+            if (binary.operator() == Operator.AND || binary.operator() == Operator.OR) {
+                // Expressions have no side effects, so the literal side decides or drops out
+                boolean absorbing = binary.operator() == Operator.OR;
+                if (left instanceof Expr.BooleanLiteral literal) {
+                    return literal.value() == absorbing ? literal : right;
+                }
+                if (right instanceof Expr.BooleanLiteral literal) {
+                    return literal.value() == absorbing ? literal : left;
+                }
+            }
+            Expr node = new Expr.Binary(binary.operator(), left, right);
+            return left.isConstant() && right.isConstant() ? evaluateConstant(node) : node;
+        }
+        return expr;
+    }
+
+    private static Expr evaluateConstant(Expr node) {
+        // Only literals are reachable, so no context is needed
+        ExpressionCompiler compiler = new ExpressionCompiler(Map.of(), Map.of());
+        switch (node.type()) {
+            case NUMBER:
+                return new Expr.NumberLiteral(compiler.number(node).apply(null));
+            case BOOLEAN:
+                return new Expr.BooleanLiteral(compiler.condition(node).test(null));
+            default:
+                return node;
+        }
+    }
+
+    private static void countDerived(Expr expr, Map<String, Integer> occurrences) {
+        if (expr instanceof Expr.Unary unary) {
+            countNumeric(expr, occurrences);
+            countDerived(unary.operand(), occurrences);
+        } else if (expr instanceof Expr.Binary binary) {
+            countNumeric(expr, occurrences);
+            countDerived(binary.left(), occurrences);
+            countDerived(binary.right(), occurrences);
+        }
+    }
+
+    private static void countNumeric(Expr expr, Map<String, Integer> occurrences) {
+        if (expr.type() == ExpressionType.NUMBER) {
+            occurrences.merge(expr.toString(), 1, Integer::sum);
+        }
+    }
+
+    private NumberFn number(Expr expr) {
+        NumberFn value = switch (expr) {
+            case Expr.NumberLiteral literal -> {
+                double constant = literal.value();
+                yield context -> constant;
+            }
+            case Expr.Field field -> numberField(field.field());
+            case Expr.Derived derived -> {
+                int index = plan.get(derived.field());
+                yield context -> context.derived(index);
+            }
+            case Expr.Unary unary -> {
+                NumberFn operand = number(unary.operand());
+                yield context -> -operand.apply(context);
+            }
+            case Expr.Binary binary -> arithmetic(binary);
+            default -> throw new IllegalArgumentException("Not a NUMBER expression: " + expr);
+        };
+        Integer slot = slots.get(expr.toString());
+        if (slot == null) {
+            return value;
+        }
+        int index = slot;
+        return context -> context.shared(index, value);
+    }
+
+    private static NumberFn numberField(RuleField field) {
+        switch (field) {
+            case LOAN_AMOUNT:
+                return context -> context.loanAmount;
+            case LOAN_TERM_MONTHS:
+                return context -> context.loanTermMonths;
+            case AGE:
+                return context -> context.age;
+            case CREDIT_SCORE:
+                return context -> context.creditScore;
+            case ANNUAL_INCOME:
+                return context -> context.annualIncome;
+            case EXISTING_DEBT:
+                return context -> context.existingDebt;
+            default:
+                throw new IllegalArgumentException("Not a NUMBER field: " + field.getFieldName());
+        }
+    }
+
+    private NumberFn arithmetic(Expr.Binary binary) {
+        NumberFn left = number(binary.left());
+        NumberFn right = number(binary.right());
+        switch (binary.operator()) {
+            case ADD:
+                return context -> left.apply(context) + right.apply(context);
+            case SUBTRACT:
+                return context -> left.apply(context) - right.apply(context);
+            case MULTIPLY:
+                return context -> left.apply(context) * right.apply(context);
+            case DIVIDE:
+                return context -> left.apply(context) / right.apply(context);
+            default:
+                throw new IllegalArgumentException("Not an arithmetic operator: " + binary.operator());
+        }
+    }
+
+    private StringFn string(Expr expr) {
+        if (expr instanceof Expr.StringLiteral literal) {
+            String constant = literal.value();
+            return context -> constant;
+        }
+        if (expr instanceof Expr.Field field && field.field() == RuleField.EMPLOYMENT_STATUS) {
+            return context -> context.employmentStatus;
+        }
+        throw new IllegalArgumentException("Not a STRING expression: " + expr);
+    }
+
+    private BooleanFn condition(Expr expr) {
+        if (expr instanceof Expr.BooleanLiteral literal) {
+            boolean constant = literal.value();
+            return context -> constant;
+        }
+        if (expr instanceof Expr.Unary unary && unary.operator() == Operator.NOT) {
+            BooleanFn operand = condition(unary.operand());
+            return context -> !operand.test(context);
+        }
+        if (expr instanceof Expr.Binary binary) {
+            switch (binary.operator().getKind()) {
+                case LOGICAL:
+                    return logical(binary);
+                case ORDERING:
+                    return ordering(binary);
+                case EQUALITY:
+                    return equality(binary);
+                default:
+                    break;
+            }
+        }
+        throw new IllegalArgumentException("Not a BOOLEAN expression: " + expr);
+    }
+
+    private BooleanFn logical(Expr.Binary binary) {
+        BooleanFn left = condition(binary.left());
+        BooleanFn right = condition(binary.right());
+        if (binary.operator() == Operator.AND) {
+            return context -> left.test(context) && right.test(context);
+        }
+        return context -> left.test(context) || right.test(context);
+    }
+
+    private BooleanFn ordering(Expr.Binary binary) {
+        NumberFn left = number(binary.left());
+        NumberFn right = number(binary.right());
+        switch (binary.operator()) {
+            case GREATER:
+                return context -> left.apply(context) > right.apply(context);
+            case GREATER_OR_EQUAL:
+                return context -> left.apply(context) >= right.apply(context);
+            case LESS:
+                return context -> left.apply(context) < right.apply(context);
+            case LESS_OR_EQUAL:
+                return context -> left.apply(context) <= right.apply(context);
+            default:
+                throw new IllegalArgumentException("Not an ordering operator: " + binary.operator());
+        }
+    }
+
+    private BooleanFn equality(Expr.Binary binary) {
+        boolean equal = binary.operator() == Operator.EQUAL;
+        switch (binary.left().type()) {
+            case NUMBER: {
+                NumberFn left = number(binary.left());
+                NumberFn right = number(binary.right());
+                if (equal) {
+                    return context -> left.apply(context) == right.apply(context);
+                }
+                return context -> {
+                    double a = left.apply(context);
+                    double b = right.apply(context);
+                    return !Double.isNaN(a) && !Double.isNaN(b) && a != b;
+                };
+            }
+            case STRING: {
+                StringFn left = string(binary.left());
+                StringFn right = string(binary.right());
+                return context -> {
+                    String a = left.apply(context);
+                    String b = right.apply(context);
+                    return a != null && b != null && a.equalsIgnoreCase(b) == equal;
+                };
+            }
+            default: {
+                BooleanFn left = condition(binary.left());
+                BooleanFn right = condition(binary.right());
+                return context -> (left.test(context) == right.test(context)) == equal;
+            }
+        }
+    }
+}
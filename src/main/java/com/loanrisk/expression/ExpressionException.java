@@ -0,0 +1,19 @@
+package com.loanrisk.expression;
+
+/**
+ * A rule expression that does not parse or does not type check. The message names the offending
+ * position so it can be shown to whoever saved the rule.
+ */
+public class ExpressionException extends IllegalArgumentException {
+
+    private final int position;
+
+    public ExpressionException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
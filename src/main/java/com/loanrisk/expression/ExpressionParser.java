@@ -0,0 +1,343 @@
+package com.loanrisk.expression;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Recursive-descent parser for rule expressions such as
+ * {@code loanAmount / annualIncome > 0.5 AND employmentStatus != 'employed'}. Operand types are
+ * checked while the tree is built, and the whole expression must be a condition (BOOLEAN).
+ *
+ * <pre>
+ * expression     := or
+ * or             := and ( ( OR | || ) and )*
+ * and            := not ( ( AND | &amp;&amp; ) not )*
+ * not            := ( NOT | ! ) not | comparison
+ * comparison     := additive ( ( &gt; | &gt;= | &lt; | &lt;= | == | = | != | &lt;&gt; ) additive )?
+ * additive       := multiplicative ( ( + | - ) multiplicative )*
+ * multiplicative := unary ( ( * | / ) unary )*
+ * unary          := - unary | primary
+ * primary        := number | 'string' | TRUE | FALSE | field | ( expression )
+ * </pre>
+ *
+ * Keywords are case-insensitive; field names are those of {@link RuleField} and
+ * {@link DerivedFields}. Positions in error messages are 1-based.
+ */
+public final class ExpressionParser {
+
+    private final String source;
+    private final Function<String, DerivedField> derivedFields;
+    private int pos;
+
+    private ExpressionParser(String source, Function<String, DerivedField> derivedFields) {
+        this.source = source;
+        this.derivedFields = derivedFields;
+    }
+
+    /**
+     * Parses and type checks a rule condition.
+     *
+     * @throws ExpressionException if the expression is malformed, names an unknown field, mixes
+     *                             operand types or is not a condition
+     */
+    public static Expr parse(String source) {
+        Expr expr = parseValue(source, DerivedFields::byName);
+        if (expr.type() != ExpressionType.BOOLEAN) {
+            throw new ExpressionException("Expression must be a condition but is " + expr.type(), 1);
+        }
+        return expr;
+    }
+
+    /**
+     * Builds the condition of a rule written as field, operator and value columns. The value is
+     * read as a number or as a string, depending on the field's type.
+     *
+     * @throws ExpressionException if the field or operator is unknown, or the value does not fit
+     *                             the field
+     */
+    public static Expr comparison(String fieldName, String operatorSymbol, String value) {
+        Expr field = resolveField(fieldName, DerivedFields::byName);
+        if (field == null) {
+            throw new ExpressionException("Unknown field '" + fieldName + "'", 1);
+        }
+        Operator operator = Operator.comparison(operatorSymbol);
+        if (operator == null) {
+            throw new ExpressionException("Unknown comparison operator '" + operatorSymbol + "'", 1);
+        }
+        if (value == null) {
+            throw new ExpressionException("Missing value", 1);
+        }
+        Expr literal;
+        if (field.type() == ExpressionType.NUMBER) {
+            try {
+                literal = new Expr.NumberLiteral(Double.parseDouble(value.trim()));
+            } catch (NumberFormatException e) {
+                throw new ExpressionException("Malformed number '" + value + "'", 1);
+            }
+        } else {
+            literal = new Expr.StringLiteral(value);
+        }
+        return binary(operator, field, literal, 1);
+    }
+
+    // Parses an expression of any type; derived fields are resolved through the given lookup
+    static Expr parseValue(String source, Function<String, DerivedField> derivedFields) {
+        if (source == null || source.isBlank()) {
+            throw new ExpressionException("Expression is empty", 1);
+        }
+        ExpressionParser parser = new ExpressionParser(source, derivedFields);
+        Expr expr = parser.parseOr();
+        parser.skipWhitespace();
+        if (parser.pos < source.length()) {
+            throw parser.error("Unexpected '" + source.charAt(parser.pos) + "'");
+        }
+        return expr;
+    }
+
+    private Expr parseOr() {
+        Expr left = parseAnd();
+        while (true) {
+            int at = position();
+            if (!acceptKeyword("OR") && !accept("||")) {
+                return left;
+            }
+            left = binary(Operator.OR, left, parseAnd(), at);
+        }
+    }
+
+    private Expr parseAnd() {
+        Expr left = parseNot();
+        while (true) {
+            int at = position();
+            if (!acceptKeyword("AND") && !accept("&&")) {
+                return left;
+            }
+            left = binary(Operator.AND, left, parseNot(), at);
+        }
+    }
+
+    private Expr parseNot() {
+        int at = position();
+        if (acceptKeyword("NOT") || (!peek("!=") && accept("!"))) {
+            return unary(Operator.NOT, parseNot(), at);
+        }
+        return parseComparison();
+    }
+
+    private Expr parseComparison() {
+        Expr left = parseAdditive();
+        int at = position();
+        Operator operator = comparisonOperator();
+        if (operator == null) {
+            return left;
+        }
+        return binary(operator, left, parseAdditive(), at);
+    }
+
+    private Operator comparisonOperator() {
+        // Two-character operators first so that ">=" is not read as ">"
+        for (String symbol : new String[]{">=", "<=", "==", "!=", "<>", ">", "<", "="}) {
+            if (accept(symbol)) {
+                return Operator.comparison(symbol);
+            }
+        }
+        return null;
+    }
+
+    private Expr parseAdditive() {
+        Expr left = parseMultiplicative();
+        while (true) {
+            int at = position();
+            if (accept("+")) {
+                left = binary(Operator.ADD, left, parseMultiplicative(), at);
+            } else if (accept("-")) {
+                left = binary(Operator.SUBTRACT, left, parseMultiplicative(), at);
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expr parseMultiplicative() {
+        Expr left = parseUnary();
+        while (true) {
+            int at = position();
+            if (accept("*")) {
+                left = binary(Operator.MULTIPLY, left, parseUnary(), at);
+            } else if (accept("/")) {
+                left = binary(Operator.DIVIDE, left, parseUnary(), at);
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private Expr parseUnary() {
+        int at = position();
+        if (accept("-")) {
+            return unary(Operator.NEGATE, parseUnary(), at);
+        }
+        return parsePrimary();
+    }
+
+    private Expr parsePrimary() {
+        skipWhitespace();
+        if (pos >= source.length()) {
+            throw error("Unexpected end of expression");
+        }
+        char c = source.charAt(pos);
+        if (accept("(")) {
+            Expr inner = parseOr();
+            if (!accept(")")) {
+                throw error("Expected ')'");
+            }
+            return inner;
+        }
+        if (Character.isDigit(c) || c == '.') {
+            return number();
+        }
+        if (c == '\'') {
+            return string();
+        }
+        if (Character.isLetter(c) || c == '_') {
+            int start = pos;
+            String word = identifier();
+            switch (word.toUpperCase(Locale.ROOT)) {
+                case "TRUE":
+                    return new Expr.BooleanLiteral(true);
+                case "FALSE":
+                    return new Expr.BooleanLiteral(false);
+                case "AND":
+                case "OR":
+                case "NOT":
+                    throw new ExpressionException("Unexpected keyword " + word, start + 1);
+                default:
+                    Expr field = resolveField(word, derivedFields);
+                    if (field == null) {
+                        throw new ExpressionException("Unknown field '" + word + "'", start + 1);
+                    }
+                    return field;
+            }
+        }
+        throw error("Unexpected '" + c + "'");
+    }
+
+    private static Expr resolveField(String name, Function<String, DerivedField> derivedFields) {
+        RuleField field = RuleField.byName(name);
+        if (field != null) {
+            return new Expr.Field(field);
+        }
+        DerivedField derived = derivedFields.apply(name);
+        return derived != null ? new Expr.Derived(derived) : null;
+    }
+
+    private Expr number() {
+        int start = pos;
+        while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+            pos++;
+        }
+        try {
+            return new Expr.NumberLiteral(Double.parseDouble(source.substring(start, pos)));
+        } catch (NumberFormatException e) {
+            throw new ExpressionException("Malformed number '" + source.substring(start, pos) + "'", start + 1);
+        }
+    }
+
+    private Expr string() {
+        int start = pos++;
+        StringBuilder value = new StringBuilder();
+        while (pos < source.length()) {
+            char c = source.charAt(pos++);
+            if (c != '\'') {
+                value.append(c);
+            } else if (pos < source.length() && source.charAt(pos) == '\'') {
+                // '' is an escaped quote
+                value.append('\'');
+                pos++;
+            } else {
+                return new Expr.StringLiteral(value.toString());
+            }
+        }
+        throw new ExpressionException("Unterminated string", start + 1);
+    }
+
+    private String identifier() {
+        int start = pos;
+        while (pos < source.length()
+                && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+            pos++;
+        }
+        return source.substring(start, pos);
+    }
+
+    private static Expr unary(Operator operator, Expr operand, int at) {
+        ExpressionType expected = operator == Operator.NOT ? ExpressionType.BOOLEAN : ExpressionType.NUMBER;
+        if (operand.type() != expected) {
+            throw new ExpressionException("Operator " + operator.getSymbol() + " expects " + expected
+                    + " but got " + operand.type(), at);
+        }
+        return new Expr.Unary(operator, operand);
+    }
+
+    private static Expr binary(Operator operator, Expr left, Expr right, int at) {
+        ExpressionType expected;
+        switch (operator.getKind()) {
+            case ARITHMETIC:
+            case ORDERING:
+                expected = ExpressionType.NUMBER;
+                break;
+            case LOGICAL:
+                expected = ExpressionType.BOOLEAN;
+                break;
+            default:
+                // Equality works on any type, as long as both sides agree
+                expected = left.type();
+        }
+        if (left.type() != expected || right.type() != expected) {
+            throw new ExpressionException("Operator " + operator.getSymbol() + " expects " + expected
+                    + " operands but got " + left.type() + " and " + right.type(), at);
+        }
+        return new Expr.Binary(operator, left, right);
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (end > source.length() || !source.regionMatches(true, pos, keyword, 0, keyword.length())) {
+            return false;
+        }
+        if (end < source.length() && (Character.isLetterOrDigit(source.charAt(end)) || source.charAt(end) == '_')) {
+            return false; // a field that merely starts with the keyword, e.g. "ordinal"
+        }
+        pos = end;
+        return true;
+    }
+
+    private boolean accept(String symbol) {
+        if (!peek(symbol)) {
+            return false;
+        }
+        pos += symbol.length();
+        return true;
+    }
+
+    private boolean peek(String symbol) {
+        skipWhitespace();
+        return source.startsWith(symbol, pos);
+    }
+
+    private int position() {
+        skipWhitespace();
+        return pos + 1;
+    }
+
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private ExpressionException error(String message) {
+        return new ExpressionException(message, pos + 1);
+    }
+}
@@ -0,0 +1,11 @@
+package com.loanrisk.expression;
+
+/**
+ * Static type of an expression node. Every node has exactly one type, checked when the expression
+ * is parsed.
+ */
+public enum ExpressionType {
+    NUMBER,
+    STRING,
+    BOOLEAN
+}
@@ -0,0 +1,76 @@
+package com.loanrisk.expression;
+
+/**
+ * Operators of the rule expression language, with the operand types each one accepts.
+ */
+public enum Operator {
+    ADD("+", Kind.ARITHMETIC),
+    SUBTRACT("-", Kind.ARITHMETIC),
+    MULTIPLY("*", Kind.ARITHMETIC),
+    DIVIDE("/", Kind.ARITHMETIC),
+    NEGATE("-", Kind.ARITHMETIC),
+    GREATER(">", Kind.ORDERING),
+    GREATER_OR_EQUAL(">=", Kind.ORDERING),
+    LESS("<", Kind.ORDERING),
+    LESS_OR_EQUAL("<=", Kind.ORDERING),
+    EQUAL("==", Kind.EQUALITY),
+    NOT_EQUAL("!=", Kind.EQUALITY),
+    AND("AND", Kind.LOGICAL),
+    OR("OR", Kind.LOGICAL),
+    NOT("NOT", Kind.LOGICAL);
+
+    enum Kind {
+        ARITHMETIC,
+        ORDERING,
+        EQUALITY,
+        LOGICAL
+    }
+
+    private final String symbol;
+    private final Kind kind;
+
+    Operator(String symbol, Kind kind) {
+        this.symbol = symbol;
+        this.kind = kind;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    public ExpressionType resultType() {
+        return kind == Kind.ARITHMETIC ? ExpressionType.NUMBER : ExpressionType.BOOLEAN;
+    }
+
+    /**
+     * The comparison operator written as {@code symbol}, as used by the rule's operator column, or
+     * null if there is none.
+     */
+    public static Operator comparison(String symbol) {
+        if (symbol == null) {
+            return null;
+        }
+        switch (symbol.trim()) {
+            case ">":
+                return GREATER;
+            case ">=":
+                return GREATER_OR_EQUAL;
+            case "<":
+                return LESS;
+            case "<=":
+                return LESS_OR_EQUAL;
+            case "==":
+            case "=":
+                return EQUAL;
+            case "!=":
+            case "<>":
+                return NOT_EQUAL;
+            default:
+                return null;
+        }
+    }
+}
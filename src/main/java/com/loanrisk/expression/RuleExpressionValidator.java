@@ -0,0 +1,27 @@
+package com.loanrisk.expression;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+
+public class RuleExpressionValidator implements ConstraintValidator<ValidRuleExpression, String> {
+
+    @Override
+    public boolean isValid(String expression, ConstraintValidatorContext context) {
+        if (expression == null) {
+            return true;
+        }
+        try {
+            ExpressionParser.parse(expression);
+            return true;
+        } catch (ExpressionException e) {
+            context.disableDefaultConstraintViolation();
+            context.buildConstraintViolationWithTemplate(escape(e.getMessage())).addConstraintViolation();
+            return false;
+        }
+    }
+
+    // The message is used as a template; keep user text such as '{' from being interpolated
+    private static String escape(String message) {
+        return message.replace("\\", "\\\\").replace("{", "\\{").replace("}", "\\}").replace("$", "\\$");
+    }
+}
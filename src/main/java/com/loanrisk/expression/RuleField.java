@@ -0,0 +1,48 @@
+package com.loanrisk.expression;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The application and customer values a rule expression can refer to by name.
+ */
+public enum RuleField {
+    LOAN_AMOUNT("loanAmount", ExpressionType.NUMBER),
+    LOAN_TERM_MONTHS("loanTermMonths", ExpressionType.NUMBER),
+    AGE("age", ExpressionType.NUMBER),
+    CREDIT_SCORE("creditScore", ExpressionType.NUMBER),
+    ANNUAL_INCOME("annualIncome", ExpressionType.NUMBER),
+    EXISTING_DEBT("existingDebt", ExpressionType.NUMBER),
+    EMPLOYMENT_STATUS("employmentStatus", ExpressionType.STRING);
+
+    private static final Map<String, RuleField> BY_NAME = new HashMap<>();
+
+    static {
+        for (RuleField field : values()) {
+            BY_NAME.put(field.fieldName, field);
+        }
+    }
+
+    private final String fieldName;
+    private final ExpressionType type;
+
+    RuleField(String fieldName, ExpressionType type) {
+        this.fieldName = fieldName;
+        this.type = type;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public ExpressionType getType() {
+        return type;
+    }
+
+    /**
+     * The field called {@code name}, or null if there is none.
+     */
+    public static RuleField byName(String name) {
+        return BY_NAME.get(name);
+    }
+}
@@ -0,0 +1,27 @@
+package com.loanrisk.expression;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The annotated string is null or a rule expression that parses and type checks. Checked by JPA
+ * before a rule is inserted or updated, so a broken expression never reaches scoring.
+ */
+@Documented
+@Constraint(validatedBy = RuleExpressionValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ValidRuleExpression {
+
+    String message() default "Invalid rule expression";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
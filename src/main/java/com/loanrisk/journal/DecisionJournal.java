@@ -0,0 +1,185 @@
+package com.loanrisk.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only journal of decisions in memory-mapped segment files. Request threads only enqueue;
+ * a single writer thread copies records into the current segment and rolls to a new file when it
+ * is full. If the queue is full the record is dropped and counted rather than slowing the request.
+ */
+@Component
+public class DecisionJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecisionJournal.class);
+
+    static final String SEGMENT_PREFIX = "decisions-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final BlockingQueue<DecisionRecord> queue;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+    private long nextSegmentIndex;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int position;
+
+    @Autowired
+    public DecisionJournal(@Value("${loan.journal.enabled:false}") boolean enabled,
+                           @Value("${loan.journal.directory:data/journal}") Path directory,
+                           @Value("${loan.journal.segment-size-bytes:67108864}") int segmentSizeBytes,
+                           @Value("${loan.journal.queue-capacity:65536}") int queueCapacity) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.recordsPerSegment = Math.max(1, segmentSizeBytes / DecisionRecord.SIZE);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (enabled) {
+            try {
+                Files.createDirectories(directory);
+                nextSegmentIndex = DecisionJournalReader.segments(directory).size();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not open decision journal directory " + directory, e);
+            }
+            writerThread = new Thread(this::writeLoop, "decision-journal");
+            writerThread.setDaemon(true);
+            writerThread.start();
+            logger.info("Decision journal writing to {}", directory);
+        } else {
+            writerThread = null;
+        }
+    }
+
+    /**
+     * Enqueues a record without blocking.
+     */
+    public void append(DecisionRecord record) {
+        if (enabled && !queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Waits until everything enqueued so far has been written to the mapped segment.
+     */
+    public void awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!queue.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private void writeLoop() {
+        List<DecisionRecord> batch = new ArrayList<>(256);
+        while (running || !queue.isEmpty()) {
+            try {
+                DecisionRecord first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 255);
+                for (DecisionRecord record : batch) {
+                    write(record);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                logger.error("Decision journal write failed; {} records lost", batch.size(), e);
+                dropped.addAndGet(batch.size());
+                batch.clear();
+            }
+        }
+        closeSegment();
+    }
+
+    private void write(DecisionRecord record) throws IOException {
+        if (segment == null || position + DecisionRecord.SIZE > recordsPerSegment * DecisionRecord.SIZE) {
+            rollSegment();
+        }
+        record.writeBody(segment, position);
+        segment.putInt(position, DecisionRecord.COMMIT_MARKER); // marker last: readers skip torn records
+        position += DecisionRecord.SIZE;
+        written.incrementAndGet();
+    }
+
+    private void rollSegment() throws IOException {
+        closeSegment();
+        Path file;
+        while (true) {
+            file = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, nextSegmentIndex++, SEGMENT_SUFFIX));
+            try {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // another process sharing the directory took this index
+            }
+        }
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * DecisionRecord.SIZE);
+        position = 0;
+        logger.debug("Decision journal rolled to {}", file);
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.force();
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Could not close decision journal segment: {}", e.getMessage());
+        }
+        segment = null;
+        channel = null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writerThread == null) {
+            return;
+        }
+        // no interrupt: it would close the file channel under the writer (ClosedByInterruptException)
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
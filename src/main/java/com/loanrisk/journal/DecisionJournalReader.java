@@ -0,0 +1,60 @@
+package com.loanrisk.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reads journal segments in write order. Within a segment, reading stops at the first slot
+ * without a commit marker (unused space, or a record torn by a crash). A committed record in a
+ * layout this version does not know, written by a newer one, fails the read rather than being
+ * decoded with the wrong offsets.
+ */
+public final class DecisionJournalReader {
+
+    private DecisionJournalReader() {
+    }
+
+    public static long forEach(Path directory, Consumer<DecisionRecord> consumer) throws IOException {
+        long count = 0;
+        for (Path file : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (int offset = 0; offset + DecisionRecord.SIZE <= buffer.capacity(); offset += DecisionRecord.SIZE) {
+                    if (buffer.getInt(offset) != DecisionRecord.COMMIT_MARKER) {
+                        break;
+                    }
+                    int layoutVersion = buffer.getInt(offset + 4);
+                    if (!DecisionRecord.isSupportedLayout(layoutVersion)) {
+                        throw new IOException("Unsupported journal layout version " + layoutVersion + " in " + file
+                                + " at offset " + offset);
+                    }
+                    consumer.accept(DecisionRecord.read(buffer, offset));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(DecisionJournal.SEGMENT_PREFIX)
+                                && name.endsWith(DecisionJournal.SEGMENT_SUFFIX);
+                    })
+                    .sorted() // zero-padded segment index
+                    .toList();
+        }
+    }
+}
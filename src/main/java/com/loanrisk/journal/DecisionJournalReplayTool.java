@@ -0,0 +1,54 @@
+package com.loanrisk.journal;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.scorecard.ScorecardEngine;
+import com.loanrisk.service.RiskScoringEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Command-line entry point for replaying a journal directory against a rule set exported from
+ * {@code GET /rules}:
+ *
+ * <pre>
+ * curl -s localhost:8080/rules &gt; candidate-rules.json
+ * java -cp target/engine-0.0.1-SNAPSHOT.jar -Dloader.main=com.loanrisk.journal.DecisionJournalReplayTool \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher data/journal candidate-rules.json
+ * </pre>
+ *
+ * An optional third argument is a scorecard model file to blend in, with the weight from
+ * {@code -Dloan.scorecard.blend-weight} (default 0.3).
+ */
+public final class DecisionJournalReplayTool {
+
+    private DecisionJournalReplayTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("usage: DecisionJournalReplayTool <journal-directory> <rules.json> [scorecard-model.json]");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        List<ScoringRule> rules = objectMapper.readValue(Path.of(args[1]).toFile(),
+                new TypeReference<List<ScoringRule>>() { });
+
+        RiskScoringEngine engine = new RiskScoringEngine();
+        if (args.length == 3) {
+            double blendWeight = Double.parseDouble(System.getProperty("loan.scorecard.blend-weight", "0.3"));
+            engine = new RiskScoringEngine(new ScorecardEngine(args[2], blendWeight, 0, new SimpleMeterRegistry()));
+        }
+        JournalReplayer.Report report = new JournalReplayer(engine).replay(Path.of(args[0]), rules);
+        System.out.println(report);
+        for (UUID loanId : report.getChangedLoanIds()) {
+            System.out.println("decision changed: " + loanId);
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.loanrisk.journal;
+
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.service.ScoringInput;
+import com.loanrisk.service.ScoringResult;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One journaled decision in a fixed {@value #SIZE}-byte layout. Decimal inputs are stored as
+ * hundredths in a long; absent values use {@link #ABSENT}, or {@link #ABSENT_INT} in int fields. Up to {@value #MAX_TRIGGERED_RULES}
+ * triggered rule ids are kept; {@code triggeredRuleCount} holds the real count. The employment
+ * status is kept as up to {@value #MAX_EMPLOYMENT_STATUS_BYTES} bytes of UTF-8. The rule set version
+ * is the content-derived version of {@code RuleSetSnapshot} (the leading 64 bits of the hash behind
+ * the {@code GET /rules} ETag), so it names the same rules on every node and after restarts.
+ *
+ * <pre>
+ *  0 int    commit marker (written last)
+ *  4 int    layout version
+ *  8 long   timestamp (epoch millis)
+ * 16 long   loan id (most significant bits)
+ * 24 long   loan id (least significant bits)
+ * 32 long   customer id
+ * 40 long   loan amount (cents)
+ * 48 int    loan term months
+ * 52 long   existing debt (cents)
+ * 60 long   rule set version (content hash)
+ * 68 int    risk score
+ * 72 byte   decision code
+ * 73 byte   risk level code
+ * 74 short  triggered rule count
+ * 76 int    age
+ * 80 int    credit score
+ * 84 long   annual income (cents)
+ * 92 long[16] triggered rule ids, up to byte 220
+ * 220 short  employment status length in bytes plus one, 0 if absent
+ * 222 byte[32] employment status; the rest of the slot is padding
+ * </pre>
+ */
+public class DecisionRecord {
+
+    public static final int SIZE = 256;
+    public static final int MAX_TRIGGERED_RULES = 16;
+    public static final long ABSENT = Long.MIN_VALUE;
+    public static final int ABSENT_INT = Integer.MIN_VALUE;
+    public static final int MAX_EMPLOYMENT_STATUS_BYTES = 32;
+
+    static final int COMMIT_MARKER = 0x4C524A31; // "LRJ1"
+    // 1: rule set version was a per-process counter; employment status was later added in the padding
+    // 2: rule set version is the rule set's content hash
+    static final int LAYOUT_VERSION = 2;
+    static final int OLDEST_LAYOUT_VERSION = 1;
+
+    private static final String[] DECISIONS = {"Approved", "Manual Review", "Rejected"};
+    private static final String[] RISK_LEVELS = {"Low", "Medium", "High"};
+
+    private int layoutVersion = LAYOUT_VERSION;
+    private long timestamp;
+    private UUID loanId;
+    private long customerId;
+    private long loanAmountCents = ABSENT;
+    private int loanTermMonths = ABSENT_INT;
+    private int age;
+    private int creditScore = ABSENT_INT;
+    private long annualIncomeCents = ABSENT;
+    private long existingDebtCents = ABSENT;
+    private String employmentStatus;
+    private long ruleSetVersion;
+    private int riskScore;
+    private String decision;
+    private String riskLevel;
+    private long[] triggeredRuleIds = new long[0];
+    private int triggeredRuleCount;
+
+    public static DecisionRecord of(UUID loanId, long timestamp, long ruleSetVersion, ScoringInput input,
+                                    ScoringResult result) {
+        DecisionRecord record = new DecisionRecord();
+        record.timestamp = timestamp;
+        record.loanId = loanId;
+        record.customerId = input.getCustomerId();
+        record.loanAmountCents = toCents(input.getLoanAmount());
+        record.loanTermMonths = input.getLoanTermMonths() != null ? input.getLoanTermMonths() : ABSENT_INT;
+        record.age = input.getAge();
+        record.creditScore = input.getCreditScore() != null ? input.getCreditScore() : ABSENT_INT;
+        record.annualIncomeCents = toCents(input.getAnnualIncome());
+        record.existingDebtCents = toCents(input.getExistingDebt());
+        record.employmentStatus = input.getEmploymentStatus();
+        record.ruleSetVersion = ruleSetVersion;
+        record.riskScore = (int) result.getRiskScore();
+        record.decision = result.getDecision();
+        record.riskLevel = result.getRiskLevel();
+        List<ScoringRule> triggered = result.getTriggeredRules();
+        record.triggeredRuleIds = new long[Math.min(triggered.size(), MAX_TRIGGERED_RULES)];
+        for (int i = 0; i < record.triggeredRuleIds.length; i++) {
+            Long id = triggered.get(i).getId();
+            record.triggeredRuleIds[i] = id != null ? id : 0L;
+        }
+        record.triggeredRuleCount = triggered.size();
+        return record;
+    }
+
+    /**
+     * Rebuilds the input the decision was scored on.
+     */
+    public ScoringInput toScoringInput() {
+        ScoringInput input = new ScoringInput();
+        input.setCustomerId(customerId);
+        input.setLoanAmount(fromCents(loanAmountCents));
+        input.setLoanTermMonths(fromInt(loanTermMonths));
+        input.setAge(age);
+        input.setCreditScore(fromInt(creditScore));
+        input.setAnnualIncome(fromCents(annualIncomeCents));
+        input.setExistingDebt(fromCents(existingDebtCents));
+        input.setEmploymentStatus(employmentStatus);
+        return input;
+    }
+
+    private static Integer fromInt(int value) {
+        return value != ABSENT_INT ? value : null;
+    }
+
+    private static long toCents(BigDecimal value) {
+        return value != null ? value.movePointRight(2).longValue() : ABSENT;
+    }
+
+    private static BigDecimal fromCents(long cents) {
+        return cents != ABSENT ? BigDecimal.valueOf(cents, 2) : null;
+    }
+
+    /**
+     * Writes everything except the commit marker at the buffer's absolute {@code offset}.
+     */
+    void writeBody(ByteBuffer buffer, int offset) {
+        buffer.putInt(offset + 4, LAYOUT_VERSION);
+        buffer.putLong(offset + 8, timestamp);
+        buffer.putLong(offset + 16, loanId.getMostSignificantBits());
+        buffer.putLong(offset + 24, loanId.getLeastSignificantBits());
+        buffer.putLong(offset + 32, customerId);
+        buffer.putLong(offset + 40, loanAmountCents);
+        buffer.putInt(offset + 48, loanTermMonths);
+        buffer.putLong(offset + 52, existingDebtCents);
+        buffer.putLong(offset + 60, ruleSetVersion);
+        buffer.putInt(offset + 68, riskScore);
+        buffer.put(offset + 72, code(DECISIONS, decision));
+        buffer.put(offset + 73, code(RISK_LEVELS, riskLevel));
+        buffer.putShort(offset + 74, (short) triggeredRuleCount);
+        buffer.putInt(offset + 76, age);
+        buffer.putInt(offset + 80, creditScore);
+        buffer.putLong(offset + 84, annualIncomeCents);
+        int stored = Math.min(triggeredRuleIds.length, MAX_TRIGGERED_RULES);
+        for (int i = 0; i < MAX_TRIGGERED_RULES; i++) {
+            buffer.putLong(offset + 92 + i * 8, i < stored ? triggeredRuleIds[i] : 0L);
+        }
+        writeEmploymentStatus(buffer, offset + 220);
+    }
+
+    static DecisionRecord read(ByteBuffer buffer, int offset) {
+        DecisionRecord record = new DecisionRecord();
+        record.layoutVersion = buffer.getInt(offset + 4);
+        record.timestamp = buffer.getLong(offset + 8);
+        record.loanId = new UUID(buffer.getLong(offset + 16), buffer.getLong(offset + 24));
+        record.customerId = buffer.getLong(offset + 32);
+        record.loanAmountCents = buffer.getLong(offset + 40);
+        record.loanTermMonths = buffer.getInt(offset + 48);
+        record.existingDebtCents = buffer.getLong(offset + 52);
+        record.ruleSetVersion = buffer.getLong(offset + 60);
+        record.riskScore = buffer.getInt(offset + 68);
+        record.decision = name(DECISIONS, buffer.get(offset + 72));
+        record.riskLevel = name(RISK_LEVELS, buffer.get(offset + 73));
+        record.triggeredRuleCount = buffer.getShort(offset + 74);
+        record.age = buffer.getInt(offset + 76);
+        record.creditScore = buffer.getInt(offset + 80);
+        record.annualIncomeCents = buffer.getLong(offset + 84);
+        int stored = Math.min(record.triggeredRuleCount, MAX_TRIGGERED_RULES);
+        record.triggeredRuleIds = new long[stored];
+        for (int i = 0; i < stored; i++) {
+            record.triggeredRuleIds[i] = buffer.getLong(offset + 92 + i * 8);
+        }
+        record.employmentStatus = readEmploymentStatus(buffer, offset + 220);
+        return record;
+    }
+
+    private void writeEmploymentStatus(ByteBuffer buffer, int offset) {
+        if (employmentStatus == null) {
+            buffer.putShort(offset, (short) 0);
+            return;
+        }
+        byte[] bytes = employmentStatus.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, MAX_EMPLOYMENT_STATUS_BYTES);
+        buffer.putShort(offset, (short) (length + 1));
+        buffer.put(offset + 2, bytes, 0, length);
+    }
+
+    // Records from before the field existed have zeroed padding here, which reads as absent
+    private static String readEmploymentStatus(ByteBuffer buffer, int offset) {
+        int length = buffer.getShort(offset) - 1;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[Math.min(length, MAX_EMPLOYMENT_STATUS_BYTES)];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte code(String[] names, String value) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(value)) {
+                return (byte) i;
+            }
+        }
+        return -1;
+    }
+
+    private static String name(String[] names, byte code) {
+        return code >= 0 && code < names.length ? names[code] : null;
+    }
+
+    static boolean isSupportedLayout(int layoutVersion) {
+        return layoutVersion >= OLDEST_LAYOUT_VERSION && layoutVersion <= LAYOUT_VERSION;
+    }
+
+    // Getters and Setters
+    public int getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public UUID getLoanId() {
+        return loanId;
+    }
+
+    public void setLoanId(UUID loanId) {
+        this.loanId = loanId;
+    }
+
+    public long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(long customerId) {
+        this.customerId = customerId;
+    }
+
+    public long getLoanAmountCents() {
+        return loanAmountCents;
+    }
+
+    public void setLoanAmountCents(long loanAmountCents) {
+        this.loanAmountCents = loanAmountCents;
+    }
+
+    public int getLoanTermMonths() {
+        return loanTermMonths;
+    }
+
+    public void setLoanTermMonths(int loanTermMonths) {
+        this.loanTermMonths = loanTermMonths;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public int getCreditScore() {
+        return creditScore;
+    }
+
+    public void setCreditScore(int creditScore) {
+        this.creditScore = creditScore;
+    }
+
+    public long getAnnualIncomeCents() {
+        return annualIncomeCents;
+    }
+
+    public void setAnnualIncomeCents(long annualIncomeCents) {
+        this.annualIncomeCents = annualIncomeCents;
+    }
+
+    public long getExistingDebtCents() {
+        return existingDebtCents;
+    }
+
+    public void setExistingDebtCents(long existingDebtCents) {
+        this.existingDebtCents = existingDebtCents;
+    }
+
+    public String getEmploymentStatus() {
+        return employmentStatus;
+    }
+
+    public void setEmploymentStatus(String employmentStatus) {
+        this.employmentStatus = employmentStatus;
+    }
+
+    public long getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+
+    public void setRuleSetVersion(long ruleSetVersion) {
+        this.ruleSetVersion = ruleSetVersion;
+    }
+
+    public int getRiskScore() {
+        return riskScore;
+    }
+
+    public void setRiskScore(int riskScore) {
+        this.riskScore = riskScore;
+    }
+
+    public String getDecision() {
+        return decision;
+    }
+
+    public void setDecision(String decision) {
+        this.decision = decision;
+    }
+
+    public String getRiskLevel() {
+        return riskLevel;
+    }
+
+    public void setRiskLevel(String riskLevel) {
+        this.riskLevel = riskLevel;
+    }
+
+    public long[] getTriggeredRuleIds() {
+        return triggeredRuleIds;
+    }
+
+    public void setTriggeredRuleIds(long[] triggeredRuleIds) {
+        this.triggeredRuleIds = triggeredRuleIds;
+        this.triggeredRuleCount = triggeredRuleIds.length;
+    }
+
+    public int getTriggeredRuleCount() {
+        return triggeredRuleCount;
+    }
+}
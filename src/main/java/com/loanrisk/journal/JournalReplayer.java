@@ -0,0 +1,96 @@
+package com.loanrisk.journal;
+
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.service.RiskScoringEngine;
+import com.loanrisk.service.ScoringResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Re-scores every journaled decision against a rule list and reports how many outcomes would change.
+ * Needs neither a database nor the application context.
+ */
+public class JournalReplayer {
+
+    private static final int MAX_SAMPLES = 100;
+
+    private final RiskScoringEngine engine;
+
+    public JournalReplayer(RiskScoringEngine engine) {
+        this.engine = engine;
+    }
+
+    public Report replay(Path directory, List<ScoringRule> rules) throws IOException {
+        Report report = new Report();
+        long start = System.nanoTime();
+        DecisionJournalReader.forEach(directory, record -> {
+            ScoringResult result = engine.score(record.toScoringInput(), rules);
+            report.records++;
+            boolean decisionChanged = !result.getDecision().equals(record.getDecision());
+            boolean scoreChanged = (int) result.getRiskScore() != record.getRiskScore();
+            if (decisionChanged) {
+                report.changedDecisions++;
+                if (report.changedLoanIds.size() < MAX_SAMPLES) {
+                    report.changedLoanIds.add(record.getLoanId());
+                }
+            }
+            if (scoreChanged) {
+                report.changedScores++;
+            }
+            if (!decisionChanged && !scoreChanged) {
+                report.unchanged++;
+            }
+        });
+        report.elapsedNanos = System.nanoTime() - start;
+        return report;
+    }
+
+    public static class Report {
+
+        private long records;
+        private long unchanged;
+        private long changedDecisions;
+        private long changedScores;
+        private long elapsedNanos;
+        private final List<UUID> changedLoanIds = new ArrayList<>();
+
+        public long getRecords() {
+            return records;
+        }
+
+        public long getUnchanged() {
+            return unchanged;
+        }
+
+        public long getChangedDecisions() {
+            return changedDecisions;
+        }
+
+        public long getChangedScores() {
+            return changedScores;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Up to the first 100 loans whose decision would change.
+         */
+        public List<UUID> getChangedLoanIds() {
+            return changedLoanIds;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format("records=%d unchanged=%d changedDecisions=%d changedScores=%d elapsed=%.3fs (%.0f records/s)",
+                    records, unchanged, changedDecisions, changedScores, seconds,
+                    seconds > 0 ? records / seconds : 0.0);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.loanrisk.latency;
+
+/**
+ * Merged counts of a {@link LatencyHistogram} at one point in time, or over one interval.
+ * Percentiles and the maximum are reported as the largest value of the bucket they fall in.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long totalCount;
+    private final long totalNanos;
+
+    HistogramSnapshot(long[] counts, long totalNanos) {
+        this.counts = counts;
+        this.totalNanos = totalNanos;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.totalCount = total;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMeanNanos() {
+        return totalCount == 0 ? 0.0 : (double) totalNanos / totalCount;
+    }
+
+    public long getMaxNanos() {
+        for (int bucket = counts.length - 1; bucket >= 0; bucket--) {
+            if (counts[bucket] > 0) {
+                return LatencyHistogram.highestValueIn(bucket);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The smallest recorded value that {@code percentile} percent of all values are at or below;
+     * 0 when nothing was recorded.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return LatencyHistogram.highestValueIn(bucket);
+            }
+        }
+        return getMaxNanos();
+    }
+}
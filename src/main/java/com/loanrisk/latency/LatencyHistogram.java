@@ -0,0 +1,174 @@
+package com.loanrisk.latency;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Latency histogram in the style of HdrHistogram: values below 128 ns are counted exactly, larger
+ * ones in 64 linear buckets per power of two (within 1.6% of the recorded value), up to about 18
+ * minutes. Larger values are counted in the top bucket.
+ * <p>
+ * Every thread records into its own counters, so {@link #record} takes no lock and performs no
+ * atomic read-modify-write: it looks up the thread's counters and does a plain increment with a
+ * release store. Readers merge all threads' counters. A thread's counters are allocated in chunks
+ * of one power of two, on first use, so a thread only pays memory for the ranges it has recorded.
+ * Counters of threads that have died are folded into a shared total when the histogram is next read.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HIGHEST_EXPONENT = 39;
+    static final int BUCKETS = (HIGHEST_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+    private static final int CHUNKS = BUCKETS / SUB_BUCKETS;
+    private static final long HIGHEST_TRACKABLE = (1L << (HIGHEST_EXPONENT + 1)) - 1;
+
+    private final String name;
+    private final List<ThreadCounters> threads = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadCounters> current = ThreadLocal.withInitial(this::register);
+
+    // Guarded by this; only touched by readers
+    private final long[] retiredCounts = new long[BUCKETS];
+    private long retiredTotalNanos;
+    private long[] resetCounts = new long[BUCKETS];
+    private long resetTotalNanos;
+    private long[] lastIntervalCounts = new long[BUCKETS];
+    private long lastIntervalTotalNanos;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        current.get().record(nanos < 0 ? 0 : Math.min(nanos, HIGHEST_TRACKABLE));
+    }
+
+    /**
+     * Everything recorded since the histogram was created or last {@link #reset}.
+     */
+    public synchronized HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long totalNanos = merge(counts);
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] -= resetCounts[i];
+        }
+        return new HistogramSnapshot(counts, totalNanos - resetTotalNanos);
+    }
+
+    /**
+     * Discards everything recorded so far from both kinds of snapshot. Recording threads are not
+     * stopped: the current counts become the baseline that later snapshots are taken against.
+     */
+    public synchronized void reset() {
+        long[] counts = new long[BUCKETS];
+        long totalNanos = merge(counts);
+        resetCounts = counts;
+        resetTotalNanos = totalNanos;
+        lastIntervalCounts = counts;
+        lastIntervalTotalNanos = totalNanos;
+    }
+
+    /**
+     * Everything recorded since the previous interval snapshot (or since creation); starts the next
+     * interval.
+     */
+    public synchronized HistogramSnapshot intervalSnapshot() {
+        long[] counts = new long[BUCKETS];
+        long totalNanos = merge(counts);
+        long[] interval = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            interval[i] = counts[i] - lastIntervalCounts[i];
+        }
+        HistogramSnapshot snapshot = new HistogramSnapshot(interval, totalNanos - lastIntervalTotalNanos);
+        lastIntervalCounts = counts;
+        lastIntervalTotalNanos = totalNanos;
+        return snapshot;
+    }
+
+    private long merge(long[] counts) {
+        for (ThreadCounters counters : threads) {
+            if (!counters.owner.isAlive()) {
+                // No more writes can come from a dead thread, so its counters are final
+                retiredTotalNanos += counters.addTo(retiredCounts);
+                threads.remove(counters);
+            }
+        }
+        System.arraycopy(retiredCounts, 0, counts, 0, BUCKETS);
+        long totalNanos = retiredTotalNanos;
+        for (ThreadCounters counters : threads) {
+            totalNanos += counters.addTo(counts);
+        }
+        return totalNanos;
+    }
+
+    private ThreadCounters register() {
+        ThreadCounters counters = new ThreadCounters(Thread.currentThread());
+        threads.add(counters);
+        return counters;
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < 2 * SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) (nanos >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * The largest value counted in the bucket, reported for percentiles as HdrHistogram does.
+     */
+    static long highestValueIn(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    private static final class ThreadCounters {
+
+        private final Thread owner;
+        private final AtomicReferenceArray<AtomicLongArray> chunks = new AtomicReferenceArray<>(CHUNKS);
+        private final AtomicLong totalNanos = new AtomicLong();
+
+        private ThreadCounters(Thread owner) {
+            this.owner = owner;
+        }
+
+        // Only ever called by the owner thread: plain reads of its own writes, release stores for readers
+        private void record(long nanos) {
+            int bucket = bucketOf(nanos);
+            int chunk = bucket >>> SUB_BUCKET_BITS;
+            AtomicLongArray counts = chunks.getPlain(chunk);
+            if (counts == null) {
+                counts = new AtomicLongArray(SUB_BUCKETS);
+                chunks.setRelease(chunk, counts);
+            }
+            int offset = bucket & (SUB_BUCKETS - 1);
+            counts.setRelease(offset, counts.getPlain(offset) + 1);
+            totalNanos.setRelease(totalNanos.getPlain() + nanos);
+        }
+
+        private long addTo(long[] target) {
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                AtomicLongArray counts = chunks.getAcquire(chunk);
+                if (counts != null) {
+                    int base = chunk << SUB_BUCKET_BITS;
+                    for (int offset = 0; offset < SUB_BUCKETS; offset++) {
+                        target[base + offset] += counts.getAcquire(offset);
+                    }
+                }
+            }
+            return totalNanos.getAcquire();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.loanrisk.latency;
+
+import com.loanrisk.dto.LatencyReport;
+import com.loanrisk.dto.LatencySummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The latency histograms of every controller endpoint (recorded by {@link LatencyInterceptor}) and
+ * of every scoring rule (recorded by {@code RiskScoringEngine}), created on first use, along with how
+ * often each rule triggered. With {@code loan.latency.enabled=false} nothing is recorded.
+ */
+@Component
+public class LatencyHistograms {
+
+    private final boolean enabled;
+    private final Map<String, LatencyHistogram> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> rules = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> ruleHits = new ConcurrentHashMap<>();
+    private Instant started = Instant.now(); // guarded by this
+    private Instant intervalStarted = started; // guarded by this
+
+    @Autowired
+    public LatencyHistograms(@Value("${loan.latency.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Histograms that record nothing, for scoring outside the application context.
+     */
+    public static LatencyHistograms disabled() {
+        return new LatencyHistograms(false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LatencyHistogram endpoint(String name) {
+        return endpoints.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    public LatencyHistogram rule(String name) {
+        return rules.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Counts the evaluations of the rule that triggered; its histogram counts them all.
+     */
+    public LongAdder ruleHits(String name) {
+        return ruleHits.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    public synchronized Instant getStarted() {
+        return started;
+    }
+
+    /**
+     * Discards everything recorded so far, e.g. by the synthetic applications of the warm-up; reports
+     * then start from now.
+     */
+    public synchronized void reset() {
+        endpoints.values().forEach(LatencyHistogram::reset);
+        rules.values().forEach(LatencyHistogram::reset);
+        ruleHits.values().forEach(LongAdder::reset);
+        started = Instant.now();
+        intervalStarted = started;
+    }
+
+    /**
+     * Percentiles of everything recorded since startup or, for an interval report, since the previous
+     * interval report. Interval reports reset on read for all callers alike.
+     */
+    public synchronized LatencyReport report(boolean interval, double[] percentiles) {
+        LatencyReport report = new LatencyReport();
+        report.setInterval(interval);
+        report.setFrom(interval ? intervalStarted : started);
+        report.setEndpoints(summarize(endpoints, interval, percentiles));
+        report.setRules(summarize(rules, interval, percentiles));
+        report.setTo(Instant.now());
+        if (interval) {
+            intervalStarted = report.getTo();
+        }
+        return report;
+    }
+
+    private static Map<String, LatencySummary> summarize(Map<String, LatencyHistogram> histograms, boolean interval,
+                                                         double[] percentiles) {
+        Map<String, LatencySummary> summaries = new TreeMap<>();
+        histograms.forEach((name, histogram) -> {
+            HistogramSnapshot snapshot = interval ? histogram.intervalSnapshot() : histogram.snapshot();
+            LatencySummary summary = new LatencySummary();
+            summary.setCount(snapshot.getTotalCount());
+            summary.setMeanNanos(snapshot.getMeanNanos());
+            summary.setMaxNanos(snapshot.getMaxNanos());
+            Map<String, Long> values = new LinkedHashMap<>();
+            for (double percentile : percentiles) {
+                values.put("p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+                        snapshot.getValueAtPercentile(percentile));
+            }
+            summary.setPercentileNanos(values);
+            summaries.put(name, summary);
+        });
+        return summaries;
+    }
+}
@@ -0,0 +1,43 @@
+package com.loanrisk.latency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Records each handled request in the histogram of its endpoint, keyed by method and path pattern
+ * ("GET /loan/{id}"). Asynchronous requests are timed from the first dispatch until the response is
+ * complete, not just until the servlet thread is released.
+ */
+public class LatencyInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED = LatencyInterceptor.class.getName() + ".started";
+
+    private final LatencyHistograms histograms;
+
+    public LatencyInterceptor(LatencyHistograms histograms) {
+        this.histograms = histograms;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // An async dispatch of the same request keeps the start of the first one
+        if (request.getAttribute(STARTED) == null) {
+            request.setAttribute(STARTED, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object started = request.getAttribute(STARTED);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        request.removeAttribute(STARTED);
+        if (started instanceof Long startNanos && pattern != null && handler instanceof HandlerMethod) {
+            histograms.endpoint(request.getMethod() + " " + pattern).record(System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.loanrisk.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit adjusted from observed latency (additive increase, multiplicative decrease).
+ * The baseline is the fastest call seen in the previous window of {@code windowSize} samples. A call
+ * slower than {@code baseline * tolerance} cuts the limit by {@code backoffRatio}; a
+ * fast call made while the limit is in real use raises it by {@code 1 / limit}, i.e. by roughly
+ * one per round of {@code limit} calls. Callers over the limit wait up to {@code maxWait} for a slot.
+ */
+public class AimdLimiter {
+
+    // Sub-millisecond calls are never treated as congested, however fast the baseline
+    private static final long MIN_SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final int windowSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotReleased = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long baselineNanos = Long.MAX_VALUE;
+    private long windowMinNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public AimdLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio,
+                       int windowSize) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Waits for a slot.
+     *
+     * @return {@code false} if none became free within {@code maxWaitNanos}
+     */
+    public boolean acquire(long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (inFlight >= (int) limit) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = slotReleased.awaitNanos(remaining);
+            }
+            inFlight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases a slot acquired with {@link #acquire}. Only successful calls adjust the limit: a failed
+     * query (a constraint violation, say) says nothing about how loaded the database is.
+     */
+    public void release(long latencyNanos, boolean succeeded) {
+        lock.lock();
+        try {
+            boolean saturated = inFlight * 2 >= limit;
+            inFlight--;
+            slotReleased.signalAll();
+            if (!succeeded) {
+                return;
+            }
+            windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+            if (++windowSamples >= windowSize) {
+                baselineNanos = windowMinNanos;
+                windowMinNanos = Long.MAX_VALUE;
+                windowSamples = 0;
+            }
+            if (baselineNanos != Long.MAX_VALUE && latencyNanos > MIN_SLOW_NANOS
+                    && latencyNanos > baselineNanos * tolerance) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Read by the metrics gauges from other threads, so the getters take the lock like the writers
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The latency regarded as "fast" in the current window, or -1 before the first window completes.
+     */
+    public long getBaseline(TimeUnit unit) {
+        long baseline;
+        lock.lock();
+        try {
+            baseline = baselineNanos;
+        } finally {
+            lock.unlock();
+        }
+        return baseline == Long.MAX_VALUE ? -1 : unit.convert(baseline, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,94 @@
+package com.loanrisk.limiter;
+
+import com.loanrisk.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Separate adaptive concurrency limits for repository reads and writes, so a burst of lookups cannot
+ * take every connection away from applications being saved. The two {@code max-limit}s partition the
+ * connection pool; within its share each bulkhead adapts to observed latency. A call that cannot get
+ * a slot within {@code db.limiter.max-wait-ms} fails with 503. Current limits and in-flight counts are
+ * the {@code db.limiter.limit} and {@code db.limiter.inflight} metrics.
+ */
+@Component
+public class RepositoryBulkheads {
+
+    private final Bulkhead reads;
+    private final Bulkhead writes;
+    private final long maxWaitNanos;
+
+    @Autowired
+    public RepositoryBulkheads(MeterRegistry meterRegistry,
+                               @Value("${db.limiter.read.max-limit:6}") int readMaxLimit,
+                               @Value("${db.limiter.write.max-limit:4}") int writeMaxLimit,
+                               @Value("${db.limiter.latency-tolerance:2.0}") double tolerance,
+                               @Value("${db.limiter.max-wait-ms:1000}") long maxWaitMs) {
+        this.reads = new Bulkhead("read", new AimdLimiter(readMaxLimit, 1, readMaxLimit, tolerance, 0.9, 100),
+                meterRegistry);
+        this.writes = new Bulkhead("write", new AimdLimiter(writeMaxLimit, 1, writeMaxLimit, tolerance, 0.9, 100),
+                meterRegistry);
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    }
+
+    public <T> T read(Supplier<T> call) {
+        return reads.call(call, maxWaitNanos);
+    }
+
+    public <T> T write(Supplier<T> call) {
+        return writes.call(call, maxWaitNanos);
+    }
+
+    public AimdLimiter getReadLimiter() {
+        return reads.limiter;
+    }
+
+    public AimdLimiter getWriteLimiter() {
+        return writes.limiter;
+    }
+
+    private static final class Bulkhead {
+
+        private final String name;
+        private final AimdLimiter limiter;
+        private final Counter rejected;
+
+        private Bulkhead(String name, AimdLimiter limiter, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.limiter = limiter;
+            Gauge.builder("db.limiter.limit", limiter, AimdLimiter::getLimit)
+                    .tag("bulkhead", name).register(meterRegistry);
+            Gauge.builder("db.limiter.inflight", limiter, AimdLimiter::getInFlight)
+                    .tag("bulkhead", name).register(meterRegistry);
+            this.rejected = Counter.builder("db.limiter.rejected").tag("bulkhead", name).register(meterRegistry);
+        }
+
+        private <T> T call(Supplier<T> call, long maxWaitNanos) {
+            try {
+                if (!limiter.acquire(maxWaitNanos)) {
+                    rejected.increment();
+                    throw new ServiceOverloadedException("Database " + name + " capacity exhausted", 1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServiceOverloadedException("Interrupted waiting for database " + name + " capacity", 1);
+            }
+            long start = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                T result = call.get();
+                succeeded = true;
+                return result;
+            } finally {
+                limiter.release(System.nanoTime() - start, succeeded);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.loanrisk.limiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader, callers
+ * arriving while it is in flight wait for its result (or exception). A mutable result is handed to
+ * each waiting caller as its own copy, so no two callers share one instance. Nothing is cached
+ * once the load completes. Counts {@code singleflight.calls} and {@code singleflight.coalesced},
+ * tagged with the flight's name.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final UnaryOperator<V> copy;
+    private final Counter calls;
+    private final Counter coalesced;
+
+    /**
+     * A flight of immutable values, shared as they are.
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this(name, meterRegistry, UnaryOperator.identity());
+    }
+
+    /**
+     * A flight of mutable values: the loading caller keeps the loaded value, every waiting caller
+     * gets {@code copy} of it.
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry, UnaryOperator<V> copy) {
+        this.copy = copy;
+        this.calls = Counter.builder("singleflight.calls").tag("name", name).register(meterRegistry);
+        this.coalesced = Counter.builder("singleflight.coalesced").tag("name", name).register(meterRegistry);
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        calls.increment();
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.increment();
+            return copy.apply(await(existing));
+        }
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
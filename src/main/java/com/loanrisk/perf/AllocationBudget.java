@@ -0,0 +1,23 @@
+package com.loanrisk.perf;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The most heap a call of the annotated method may allocate on the calling thread once the JIT has
+ * warmed it up. Enforced by {@code AllocationBudgetTest}, which measures each annotated method; a
+ * change that needs more should raise the budget here, in the same diff, so the cost is reviewed.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface AllocationBudget {
+
+    /**
+     * Bytes per call.
+     */
+    long bytes();
+}
@@ -2,8 +2,16 @@ package com.loanrisk.repository;
 
 import com.loanrisk.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
-}
\ No newline at end of file
+
+    @Query("select c.email from Customer c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+}
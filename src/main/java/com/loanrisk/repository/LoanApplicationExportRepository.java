@@ -0,0 +1,23 @@
+package com.loanrisk.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+public interface LoanApplicationExportRepository {
+
+    /**
+     * Streams every decision created in [from, to) in (createdAt, id) order through a forward-only
+     * cursor. The handler reads the current row straight off the result set; nothing is buffered.
+     */
+    void streamDecisions(LocalDateTime from, LocalDateTime to, int fetchSize, DecisionRowHandler handler);
+
+    @FunctionalInterface
+    interface DecisionRowHandler {
+
+        /**
+         * Columns: 1 id, 2 customer_id, 3 risk_score, 4 risk_level, 5 decision, 6 explanation, 7 created_at.
+         */
+        void processRow(ResultSet resultSet) throws SQLException;
+    }
+}
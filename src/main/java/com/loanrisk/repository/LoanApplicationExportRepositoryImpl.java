@@ -0,0 +1,166 @@
+package com.loanrisk.repository;
+
+import com.loanrisk.datasource.ShardRoutingDataSource;
+import com.loanrisk.datasource.Shards;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Runs the export on the JDBC connection of the current transaction so that PostgreSQL honours the
+ * fetch size (it only streams with a server-side cursor when auto-commit is off) and no entity,
+ * persistence-context entry or result list is created per row. With several shards it opens one
+ * such cursor per shard and merges them on the calling thread, handing over whichever cursor holds
+ * the next row in (createdAt, id) order; memory stays bounded by the fetch size times the shards.
+ */
+public class LoanApplicationExportRepositoryImpl implements LoanApplicationExportRepository {
+
+    private static final String EXPORT_SQL = "select id, customer_id, risk_score, risk_level, decision, explanation, "
+            + "created_at from loan_application where created_at >= ? and created_at < ? order by created_at, id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ShardRoutingDataSource shards;
+
+    public LoanApplicationExportRepositoryImpl(ObjectProvider<ShardRoutingDataSource> shards) {
+        this.shards = shards.getIfAvailable();
+    }
+
+    @Override
+    public void streamDecisions(LocalDateTime from, LocalDateTime to, int fetchSize, DecisionRowHandler handler) {
+        if (shards != null && shards.getShardCount() > 1) {
+            try {
+                streamMerged(from, to, fetchSize, handler);
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("Sharded decision export", EXPORT_SQL, e);
+            }
+            return;
+        }
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = prepare(connection, from, to, fetchSize);
+                 ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    handler.processRow(resultSet);
+                }
+            }
+        });
+    }
+
+    private void streamMerged(LocalDateTime from, LocalDateTime to, int fetchSize, DecisionRowHandler handler)
+            throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        PriorityQueue<ShardCursor> next = new PriorityQueue<>();
+        Throwable failure = null;
+        try {
+            for (int shard = 0; shard < shards.getShardCount(); shard++) {
+                Connection connection = shards.getShard(shard).getConnection();
+                connections.add(connection);
+                connection.setReadOnly(true);
+                connection.setAutoCommit(false);
+                ShardCursor cursor = new ShardCursor(prepare(connection, from, to, fetchSize).executeQuery());
+                if (cursor.advance()) {
+                    next.add(cursor);
+                }
+            }
+            ShardCursor cursor;
+            while ((cursor = next.poll()) != null) {
+                handler.processRow(cursor.resultSet);
+                if (cursor.advance()) {
+                    next.add(cursor);
+                }
+            }
+        } catch (SQLException | RuntimeException | Error e) {
+            failure = e;
+            throw e;
+        } finally {
+            SQLException releaseFailure = release(connections);
+            if (releaseFailure != null) {
+                if (failure != null) {
+                    failure.addSuppressed(releaseFailure);
+                } else {
+                    throw releaseFailure;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rolls back and closes every connection, even after one of them failed, so that none is left
+     * out of the pool. Closing a connection closes its statement and result set; the transactions
+     * only read. Returns the first failure with any later ones suppressed, or null.
+     */
+    private static SQLException release(List<Connection> connections) {
+        SQLException failure = null;
+        for (Connection connection : connections) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                failure = collect(failure, e);
+            }
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                failure = collect(failure, e);
+            }
+        }
+        return failure;
+    }
+
+    private static SQLException collect(SQLException first, SQLException next) {
+        if (first == null) {
+            return next;
+        }
+        first.addSuppressed(next);
+        return first;
+    }
+
+    private static PreparedStatement prepare(Connection connection, LocalDateTime from, LocalDateTime to,
+                                             int fetchSize) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(EXPORT_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        statement.setTimestamp(1, Timestamp.valueOf(from));
+        statement.setTimestamp(2, Timestamp.valueOf(to));
+        return statement;
+    }
+
+    private static final class ShardCursor implements Comparable<ShardCursor> {
+
+        private final ResultSet resultSet;
+        private Timestamp createdAt;
+        private UUID id;
+
+        private ShardCursor(ResultSet resultSet) {
+            this.resultSet = resultSet;
+        }
+
+        private boolean advance() throws SQLException {
+            if (!resultSet.next()) {
+                return false;
+            }
+            createdAt = resultSet.getTimestamp(7);
+            id = resultSet.getObject(1, UUID.class);
+            return true;
+        }
+
+        @Override
+        public int compareTo(ShardCursor other) {
+            int byTime = createdAt.compareTo(other.createdAt);
+            return byTime != 0 ? byTime : Shards.compareUuids(id, other.id);
+        }
+    }
+}
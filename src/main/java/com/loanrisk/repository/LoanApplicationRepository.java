@@ -1,9 +1,24 @@
 package com.loanrisk.repository;
 
+import com.loanrisk.dto.GetLoanResponse;
 import com.loanrisk.entity.LoanApplication;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface LoanApplicationRepository extends JpaRepository<LoanApplication, java.util.UUID> {
-}
\ No newline at end of file
+public interface LoanApplicationRepository extends JpaRepository<LoanApplication, UUID>,
+        LoanApplicationSearchRepository, LoanApplicationExportRepository {
+
+    // A projection: the customer id is read from the foreign key, so neither entity is materialized
+    @Transactional(readOnly = true)
+    @Query("select new com.loanrisk.dto.GetLoanResponse(l.id, l.customer.id, l.riskScore, l.riskLevel, l.decision, "
+            + "l.explanation, l.createdAt) from LoanApplication l where l.id in :ids")
+    List<GetLoanResponse> findResponsesByIdIn(@Param("ids") Collection<UUID> ids);
+}
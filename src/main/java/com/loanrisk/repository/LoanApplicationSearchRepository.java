@@ -0,0 +1,25 @@
+package com.loanrisk.repository;
+
+import com.loanrisk.dto.LoanSummary;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+public interface LoanApplicationSearchRepository {
+
+    /**
+     * Returns up to {@code limit} matches ordered by createdAt descending, id descending, starting
+     * after the criteria's keyset position.
+     */
+    List<LoanSummary> search(LoanSearchCriteria criteria, int limit);
+
+    /**
+     * Counts matches ignoring the keyset position, but stops once {@code cap} rows have been seen.
+     */
+    long countUpTo(LoanSearchCriteria criteria, long cap);
+
+    /**
+     * Asks the database planner for a row estimate, if the database exposes one.
+     */
+    OptionalLong estimateCount(LoanSearchCriteria criteria);
+}
@@ -0,0 +1,230 @@
+package com.loanrisk.repository;
+
+import com.loanrisk.datasource.Shards;
+import com.loanrisk.dto.LoanSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Translates {@link LoanSearchCriteria} into queries that only reference the columns covered by the
+ * search indexes declared on {@link com.loanrisk.entity.LoanApplication}. Absent filters produce no
+ * predicate at all (rather than "param is null or ..."), so the planner can always pick an index.
+ * With several shards each query runs on every shard in parallel, in a read-only transaction of its
+ * own, and the results are merged: pages by keyset order, counts and estimates by summing.
+ */
+public class LoanApplicationSearchRepositoryImpl implements LoanApplicationSearchRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanApplicationSearchRepositoryImpl.class);
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    // The order every shard returns rows in: createdAt descending, then id descending
+    private static final Comparator<LoanSummary> NEWEST_FIRST = Comparator.comparing(LoanSummary::getCreatedAt)
+            .thenComparing(LoanSummary::getLoanId, Shards::compareUuids)
+            .reversed();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final Shards shards;
+    private final TransactionTemplate shardTransaction;
+
+    private volatile String databaseProductName;
+
+    public LoanApplicationSearchRepositoryImpl(ObjectProvider<Shards> shards, PlatformTransactionManager transactionManager) {
+        this.shards = shards.getIfAvailable();
+        this.shardTransaction = new TransactionTemplate(transactionManager);
+        this.shardTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public List<LoanSummary> search(LoanSearchCriteria criteria, int limit) {
+        if (!sharded()) {
+            return searchShard(criteria, limit);
+        }
+        // Each shard's first rows after the keyset position include its share of the global page
+        List<LoanSummary> merged = new ArrayList<>();
+        onEveryShard(() -> searchShard(criteria, limit)).forEach(merged::addAll);
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    @Override
+    public long countUpTo(LoanSearchCriteria criteria, long cap) {
+        if (!sharded()) {
+            return countShardUpTo(criteria, cap);
+        }
+        long total = 0;
+        for (long count : onEveryShard(() -> countShardUpTo(criteria, cap))) {
+            total += count;
+        }
+        return Math.min(total, cap);
+    }
+
+    @Override
+    public OptionalLong estimateCount(LoanSearchCriteria criteria) {
+        if (!sharded()) {
+            return estimateShardCount(criteria);
+        }
+        long total = 0;
+        for (OptionalLong estimate : onEveryShard(() -> estimateShardCount(criteria))) {
+            if (estimate.isEmpty()) {
+                return OptionalLong.empty();
+            }
+            total += estimate.getAsLong();
+        }
+        return OptionalLong.of(total);
+    }
+
+    private boolean sharded() {
+        return shards != null && shards.count() > 1;
+    }
+
+    private <T> List<T> onEveryShard(Supplier<T> query) {
+        return shards.scatter(shard -> shardTransaction.execute(status -> query.get()));
+    }
+
+    private List<LoanSummary> searchShard(LoanSearchCriteria criteria, int limit) {
+        List<Condition> conditions = conditions(criteria, true);
+        StringBuilder jpql = new StringBuilder("select new com.loanrisk.dto.LoanSummary(")
+                .append("l.id, l.customer.id, l.riskScore, l.riskLevel, l.decision, l.createdAt) ")
+                .append("from LoanApplication l");
+        appendWhere(jpql, conditions, true);
+        jpql.append(" order by l.createdAt desc, l.id desc");
+
+        TypedQuery<LoanSummary> query = entityManager.createQuery(jpql.toString(), LoanSummary.class);
+        bind(query, conditions);
+        query.setMaxResults(limit);
+        return query.getResultList();
+    }
+
+    private long countShardUpTo(LoanSearchCriteria criteria, long cap) {
+        List<Condition> conditions = conditions(criteria, false);
+        StringBuilder sql = new StringBuilder("select count(*) from (select 1 from loan_application");
+        appendWhere(sql, conditions, false);
+        sql.append(" fetch first ").append(cap).append(" rows only) capped");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        bind(query, conditions);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    private OptionalLong estimateShardCount(LoanSearchCriteria criteria) {
+        if (!"PostgreSQL".equals(databaseProductName())) {
+            return OptionalLong.empty();
+        }
+        List<Condition> conditions = conditions(criteria, false);
+        StringBuilder sql = new StringBuilder("explain select 1 from loan_application");
+        appendWhere(sql, conditions, false);
+
+        try {
+            Query query = entityManager.createNativeQuery(sql.toString());
+            bind(query, conditions);
+            List<?> plan = query.getResultList();
+            if (!plan.isEmpty()) {
+                Matcher matcher = PLAN_ROWS.matcher(String.valueOf(plan.get(0)));
+                if (matcher.find()) {
+                    return OptionalLong.of(Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Could not obtain planner row estimate for loan search: {}", e.getMessage());
+        }
+        return OptionalLong.empty();
+    }
+
+    private String databaseProductName() {
+        String name = databaseProductName;
+        if (name == null) {
+            name = entityManager.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            databaseProductName = name;
+        }
+        return name;
+    }
+
+    private List<Condition> conditions(LoanSearchCriteria criteria, boolean includeKeyset) {
+        List<Condition> conditions = new ArrayList<>();
+        if (criteria.getDecision() != null) {
+            conditions.add(new Condition("l.decision = ?", "decision = ?", criteria.getDecision()));
+        }
+        if (criteria.getRiskLevel() != null) {
+            conditions.add(new Condition("l.riskLevel = ?", "risk_level = ?", criteria.getRiskLevel()));
+        }
+        if (criteria.getMinRiskScore() != null) {
+            conditions.add(new Condition("l.riskScore >= ?", "risk_score >= ?", criteria.getMinRiskScore()));
+        }
+        if (criteria.getMaxRiskScore() != null) {
+            conditions.add(new Condition("l.riskScore <= ?", "risk_score <= ?", criteria.getMaxRiskScore()));
+        }
+        if (criteria.getCreatedFrom() != null) {
+            conditions.add(new Condition("l.createdAt >= ?", "created_at >= ?", criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            conditions.add(new Condition("l.createdAt < ?", "created_at < ?", criteria.getCreatedTo()));
+        }
+        if (includeKeyset && criteria.getAfterCreatedAt() != null) {
+            // The redundant "createdAt <= after" bound gives the planner an index range to seek to;
+            // the disjunction alone is only usable as a filter on some databases.
+            conditions.add(new Condition("l.createdAt <= ? and (l.createdAt < ? or (l.createdAt = ? and l.id < ?))",
+                    "created_at <= ? and (created_at < ? or (created_at = ? and id < ?))",
+                    criteria.getAfterCreatedAt(), criteria.getAfterCreatedAt(), criteria.getAfterCreatedAt(),
+                    criteria.getAfterId()));
+        }
+        return conditions;
+    }
+
+    private void appendWhere(StringBuilder query, List<Condition> conditions, boolean jpql) {
+        int position = 1;
+        for (int i = 0; i < conditions.size(); i++) {
+            query.append(i == 0 ? " where " : " and ");
+            String fragment = jpql ? conditions.get(i).jpql : conditions.get(i).sql;
+            // Number the positional parameters so JPQL (?1) and native SQL (?1) share one binding pass
+            StringBuilder numbered = new StringBuilder();
+            for (char c : fragment.toCharArray()) {
+                numbered.append(c);
+                if (c == '?') {
+                    numbered.append(position++);
+                }
+            }
+            query.append(numbered);
+        }
+    }
+
+    private void bind(Query query, List<Condition> conditions) {
+        int position = 1;
+        for (Condition condition : conditions) {
+            for (Object value : condition.values) {
+                query.setParameter(position++, value);
+            }
+        }
+    }
+
+    private static final class Condition {
+        private final String jpql;
+        private final String sql;
+        private final Object[] values;
+
+        private Condition(String jpql, String sql, Object... values) {
+            this.jpql = jpql;
+            this.sql = sql;
+            this.values = values;
+        }
+    }
+}
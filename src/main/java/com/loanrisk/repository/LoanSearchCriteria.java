@@ -0,0 +1,82 @@
+package com.loanrisk.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Normalized portfolio search filter. Every non-null field becomes one sargable predicate, and the
+ * optional (afterCreatedAt, afterId) pair is the keyset position of the last row already returned.
+ */
+public class LoanSearchCriteria {
+
+    private String decision;
+    private String riskLevel;
+    private Double minRiskScore;
+    private Double maxRiskScore;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private LocalDateTime afterCreatedAt;
+    private UUID afterId;
+
+    // Getters and Setters
+    public String getDecision() {
+        return decision;
+    }
+
+    public void setDecision(String decision) {
+        this.decision = decision;
+    }
+
+    public String getRiskLevel() {
+        return riskLevel;
+    }
+
+    public void setRiskLevel(String riskLevel) {
+        this.riskLevel = riskLevel;
+    }
+
+    public Double getMinRiskScore() {
+        return minRiskScore;
+    }
+
+    public void setMinRiskScore(Double minRiskScore) {
+        this.minRiskScore = minRiskScore;
+    }
+
+    public Double getMaxRiskScore() {
+        return maxRiskScore;
+    }
+
+    public void setMaxRiskScore(Double maxRiskScore) {
+        this.maxRiskScore = maxRiskScore;
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(LocalDateTime createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(LocalDateTime createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    public LocalDateTime getAfterCreatedAt() {
+        return afterCreatedAt;
+    }
+
+    public UUID getAfterId() {
+        return afterId;
+    }
+
+    public void setAfter(LocalDateTime afterCreatedAt, UUID afterId) {
+        this.afterCreatedAt = afterCreatedAt;
+        this.afterId = afterId;
+    }
+}
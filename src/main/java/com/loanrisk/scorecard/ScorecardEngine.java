@@ -0,0 +1,153 @@
+package com.loanrisk.scorecard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.service.ScoringInput;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the current {@link ScorecardModel}, loaded from {@code loan.scorecard.model-file}, and
+ * blends its probability of default into the rule-based risk score. The file is polled for changes;
+ * a new model replaces the old one with a single volatile write, so a scoring call sees one model
+ * or the other, never a mix. A model file that fails to load leaves the current model in place.
+ * Without a model file the scorecard is off and scores are the rule points alone.
+ */
+@Component
+public class ScorecardEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScorecardEngine.class);
+
+    private final Path modelFile;
+    private final double blendWeight;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Counter reloads;
+    private final Counter reloadFailures;
+    private final ScheduledExecutorService poller;
+
+    private volatile ScorecardModel model;
+    private FileTime loadedModifiedTime;
+
+    @Autowired
+    public ScorecardEngine(@Value("${loan.scorecard.model-file:}") String modelFile,
+                           @Value("${loan.scorecard.blend-weight:0.3}") double blendWeight,
+                           @Value("${loan.scorecard.reload-interval-ms:5000}") long reloadIntervalMillis,
+                           MeterRegistry meterRegistry) {
+        if (blendWeight < 0.0 || blendWeight > 1.0) {
+            throw new IllegalArgumentException("loan.scorecard.blend-weight must be between 0 and 1");
+        }
+        this.modelFile = modelFile == null || modelFile.isBlank() ? null : Path.of(modelFile);
+        this.blendWeight = blendWeight;
+        this.reloads = Counter.builder("scorecard.reloads").tag("outcome", "success").register(meterRegistry);
+        this.reloadFailures = Counter.builder("scorecard.reloads").tag("outcome", "failure").register(meterRegistry);
+        Gauge.builder("scorecard.enabled", this, engine -> engine.model != null ? 1 : 0).register(meterRegistry);
+
+        if (this.modelFile == null) {
+            poller = null;
+            return;
+        }
+        checkForUpdate();
+        if (reloadIntervalMillis > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "scorecard-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::checkForUpdate, reloadIntervalMillis, reloadIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            poller = null;
+        }
+    }
+
+    /**
+     * A scorecard without a model, for scoring outside the application context.
+     */
+    public static ScorecardEngine disabled() {
+        return new ScorecardEngine("", 0.0, 0, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Probability of default under the current model, or NaN if there is none. Allocation-free.
+     */
+    public double probability(ScoringInput input) {
+        ScorecardModel current = model;
+        return current != null ? current.probability(input) : Double.NaN;
+    }
+
+    /**
+     * The risk score after blending the rule points with a scorecard probability on the same
+     * 0-100 scale; a NaN probability leaves the points unchanged.
+     */
+    public double blend(double rulePoints, double probability) {
+        if (Double.isNaN(probability)) {
+            return rulePoints;
+        }
+        return (1.0 - blendWeight) * rulePoints + blendWeight * 100.0 * probability;
+    }
+
+    public double getBlendWeight() {
+        return blendWeight;
+    }
+
+    public ScorecardModel getModel() {
+        return model;
+    }
+
+    /**
+     * Loads the model file if it changed since the last load. Runs on the poller thread, and once
+     * at construction.
+     */
+    synchronized void checkForUpdate() {
+        try {
+            if (!Files.exists(modelFile)) {
+                if (loadedModifiedTime == null) {
+                    logger.warn("Scorecard model file {} does not exist; scorecard is off until it does", modelFile);
+                    loadedModifiedTime = FileTime.fromMillis(0);
+                }
+                return;
+            }
+            FileTime modified = Files.getLastModifiedTime(modelFile);
+            if (modified.equals(loadedModifiedTime)) {
+                return;
+            }
+            ScorecardModel loaded = ScorecardModel.fromJson(objectMapper.readTree(modelFile.toFile()));
+            model = loaded;
+            loadedModifiedTime = modified;
+            reloads.increment();
+            logger.info("Loaded scorecard model {} ({} features) from {}",
+                    loaded.getVersion(), loaded.getFeatureCount(), modelFile);
+        } catch (IOException | IllegalArgumentException e) {
+            reloadFailures.increment();
+            try {
+                // Do not retry the same broken file on every poll
+                loadedModifiedTime = Files.getLastModifiedTime(modelFile);
+            } catch (IOException ignored) {
+                // retried on the next poll
+            }
+            logger.error("Could not load scorecard model from {}; keeping the current model", modelFile, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+}
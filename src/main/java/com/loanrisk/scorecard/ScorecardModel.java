@@ -0,0 +1,168 @@
+package com.loanrisk.scorecard;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.loanrisk.expression.ExpressionType;
+import com.loanrisk.expression.RuleField;
+import com.loanrisk.service.ScoringInput;
+
+import java.math.BigDecimal;
+
+/**
+ * A logistic-regression scorecard over binned features, laid out in flat primitive arrays so that
+ * evaluating it allocates nothing. Feature {@code f} reads {@code numerators[f]}, optionally divided
+ * by {@code denominators[f]}; its bin boundaries are
+ * {@code boundaries[boundaryOffsets[f] .. boundaryOffsets[f + 1])} and the weight of bin {@code b}
+ * is {@code weights[boundaryOffsets[f] + f + b]} (one more bin than boundaries). A missing value,
+ * or a division by zero, uses {@code missingWeights[f]}.
+ *
+ * <p>Immutable, so a model can be swapped for another with a single reference write.
+ */
+public final class ScorecardModel {
+
+    private final String version;
+    private final double intercept;
+    private final RuleField[] numerators;
+    private final RuleField[] denominators;
+    private final int[] boundaryOffsets;
+    private final double[] boundaries;
+    private final double[] weights;
+    private final double[] missingWeights;
+
+    private ScorecardModel(String version, double intercept, RuleField[] numerators, RuleField[] denominators,
+                           int[] boundaryOffsets, double[] boundaries, double[] weights, double[] missingWeights) {
+        this.version = version;
+        this.intercept = intercept;
+        this.numerators = numerators;
+        this.denominators = denominators;
+        this.boundaryOffsets = boundaryOffsets;
+        this.boundaries = boundaries;
+        this.weights = weights;
+        this.missingWeights = missingWeights;
+    }
+
+    /**
+     * Reads a model file of the form
+     *
+     * <pre>
+     * {"version": "2026-10", "intercept": -1.2, "features": [
+     *   {"field": "creditScore", "boundaries": [580, 640, 700], "weights": [1.1, 0.5, 0, -0.8], "missingWeight": 0.7},
+     *   {"field": "loanAmount", "divideBy": "annualIncome", "boundaries": [0.3, 0.5], "weights": [-0.4, 0.2, 1.0]}
+     * ]}
+     * </pre>
+     *
+     * Boundaries are strictly increasing; a value equal to a boundary falls in the bin above it.
+     *
+     * @throws IllegalArgumentException if the model is malformed
+     */
+    public static ScorecardModel fromJson(JsonNode root) {
+        JsonNode features = root.path("features");
+        if (!features.isArray() || features.isEmpty()) {
+            throw new IllegalArgumentException("Scorecard model has no features");
+        }
+        int count = features.size();
+        RuleField[] numerators = new RuleField[count];
+        RuleField[] denominators = new RuleField[count];
+        int[] boundaryOffsets = new int[count + 1];
+        double[] missingWeights = new double[count];
+        for (int f = 0; f < count; f++) {
+            boundaryOffsets[f + 1] = boundaryOffsets[f] + features.get(f).path("boundaries").size();
+        }
+        double[] boundaries = new double[boundaryOffsets[count]];
+        double[] weights = new double[boundaryOffsets[count] + count];
+
+        for (int f = 0; f < count; f++) {
+            JsonNode feature = features.get(f);
+            numerators[f] = numericField(feature.path("field").asText(null), f);
+            denominators[f] = feature.hasNonNull("divideBy") ? numericField(feature.get("divideBy").asText(), f) : null;
+            JsonNode featureBoundaries = feature.path("boundaries");
+            JsonNode featureWeights = feature.path("weights");
+            if (featureWeights.size() != featureBoundaries.size() + 1) {
+                throw new IllegalArgumentException("Feature " + f + " needs " + (featureBoundaries.size() + 1)
+                        + " weights for " + featureBoundaries.size() + " boundaries");
+            }
+            int offset = boundaryOffsets[f];
+            for (int b = 0; b < featureBoundaries.size(); b++) {
+                boundaries[offset + b] = featureBoundaries.get(b).asDouble();
+                if (b > 0 && boundaries[offset + b] <= boundaries[offset + b - 1]) {
+                    throw new IllegalArgumentException("Feature " + f + " boundaries must be strictly increasing");
+                }
+            }
+            for (int b = 0; b < featureWeights.size(); b++) {
+                weights[offset + f + b] = featureWeights.get(b).asDouble();
+            }
+            missingWeights[f] = feature.path("missingWeight").asDouble(0.0);
+        }
+        return new ScorecardModel(root.path("version").asText("unversioned"), root.path("intercept").asDouble(0.0),
+                numerators, denominators, boundaryOffsets, boundaries, weights, missingWeights);
+    }
+
+    private static RuleField numericField(String name, int feature) {
+        RuleField field = name != null ? RuleField.byName(name) : null;
+        if (field == null || field.getType() != ExpressionType.NUMBER) {
+            throw new IllegalArgumentException("Feature " + feature + " needs a numeric field but has '" + name + "'");
+        }
+        return field;
+    }
+
+    /**
+     * Probability of default in [0, 1].
+     */
+    public double probability(ScoringInput input) {
+        return 1.0 / (1.0 + Math.exp(-logit(input)));
+    }
+
+    public double logit(ScoringInput input) {
+        double logit = intercept;
+        for (int f = 0; f < numerators.length; f++) {
+            double value = value(input, numerators[f]);
+            if (denominators[f] != null) {
+                value /= value(input, denominators[f]);
+            }
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                logit += missingWeights[f];
+                continue;
+            }
+            int start = boundaryOffsets[f];
+            int end = boundaryOffsets[f + 1];
+            int bin = start;
+            // Scorecards have a handful of bins per feature, where a linear scan beats binary search
+            while (bin < end && value >= boundaries[bin]) {
+                bin++;
+            }
+            logit += weights[bin + f];
+        }
+        return logit;
+    }
+
+    private static double value(ScoringInput input, RuleField field) {
+        switch (field) {
+            case LOAN_AMOUNT:
+                return toDouble(input.getLoanAmount());
+            case LOAN_TERM_MONTHS:
+                return input.getLoanTermMonths() != null ? input.getLoanTermMonths() : Double.NaN;
+            case AGE:
+                return input.getAge();
+            case CREDIT_SCORE:
+                return input.getCreditScore() != null ? input.getCreditScore() : Double.NaN;
+            case ANNUAL_INCOME:
+                return toDouble(input.getAnnualIncome());
+            case EXISTING_DEBT:
+                return toDouble(input.getExistingDebt());
+            default:
+                return Double.NaN;
+        }
+    }
+
+    // Allocation-free for amounts with a small unscaled value and scale, i.e. any realistic money amount
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public int getFeatureCount() {
+        return numerators.length;
+    }
+}
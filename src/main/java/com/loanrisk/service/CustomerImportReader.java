@@ -0,0 +1,127 @@
+package com.loanrisk.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.loanrisk.dto.CreateCustomerRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls one customer row at a time from a CSV (with header) or NDJSON body. A malformed row is
+ * reported as a parse error for that row only; reading continues with the next line.
+ */
+class CustomerImportReader {
+
+    private static final String[] CSV_COLUMNS = {"firstName", "lastName", "dateOfBirth", "address", "email"};
+
+    private final BufferedReader reader;
+    private final ObjectReader jsonReader;
+    private final boolean csv;
+    private int[] csvColumnIndexes;
+
+    CustomerImportReader(BufferedReader reader, ObjectReader jsonReader, boolean csv) {
+        this.reader = reader;
+        this.jsonReader = jsonReader;
+        this.csv = csv;
+    }
+
+    /**
+     * Returns the next non-blank row, or null at end of input.
+     */
+    Row next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        if (!csv) {
+            try {
+                return new Row(jsonReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new Row(null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+        if (csvColumnIndexes == null) {
+            readCsvHeader(line);
+            return next();
+        }
+        return parseCsvRow(line);
+    }
+
+    private void readCsvHeader(String line) {
+        List<String> header = splitCsv(line);
+        csvColumnIndexes = new int[CSV_COLUMNS.length];
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            csvColumnIndexes[i] = header.indexOf(CSV_COLUMNS[i]);
+        }
+    }
+
+    private Row parseCsvRow(String line) {
+        List<String> values = splitCsv(line);
+        CreateCustomerRequest request = new CreateCustomerRequest();
+        request.setFirstName(column(values, 0));
+        request.setLastName(column(values, 1));
+        request.setAddress(column(values, 3));
+        request.setEmail(column(values, 4));
+        String dateOfBirth = column(values, 2);
+        if (dateOfBirth != null && !dateOfBirth.isEmpty()) {
+            try {
+                request.setDateOfBirth(LocalDate.parse(dateOfBirth));
+            } catch (DateTimeParseException e) {
+                return new Row(null, "dateOfBirth: Invalid date " + dateOfBirth);
+            }
+        }
+        return new Row(request, null);
+    }
+
+    private String column(List<String> values, int column) {
+        int index = csvColumnIndexes[column];
+        return index >= 0 && index < values.size() ? values.get(index) : null;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    static final class Row {
+        final CreateCustomerRequest request;
+        final String parseError;
+
+        Row(CreateCustomerRequest request, String parseError) {
+            this.request = request;
+            this.parseError = parseError;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.loanrisk.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.datasource.DataSourceRouting;
+import com.loanrisk.datasource.ReadYourWrites;
+import com.loanrisk.datasource.ShardRouting;
+import com.loanrisk.datasource.Shards;
+import com.loanrisk.dto.CreateCustomerRequest;
+import com.loanrisk.dto.CustomerImportResult;
+import com.loanrisk.entity.Customer;
+import com.loanrisk.exception.ServiceOverloadedException;
+import com.loanrisk.limiter.RepositoryBulkheads;
+import com.loanrisk.repository.CustomerRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Imports customers from a streamed body in fixed-size batches. Only the current batch is held in
+ * memory: emails are de-duplicated within the batch and against the database (which already holds
+ * every earlier batch), and each batch's per-row results are written and flushed before the next
+ * batch is read. With several shards a batch is split by shard, and each part is checked and
+ * inserted on its own shard, with the same id alignment check as a single create. Batches share the
+ * repository bulkheads with other requests; when those are full the import waits for room rather than
+ * failing rows.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerImportService.class);
+
+    private final CustomerRepository customerRepository;
+    private final CustomerService customerService;
+    private final RepositoryBulkheads repositoryBulkheads;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadYourWrites readYourWrites;
+    private final Shards shards;
+    private final int batchSize;
+
+    @Autowired
+    public CustomerImportService(CustomerRepository customerRepository,
+                                 CustomerService customerService,
+                                 RepositoryBulkheads repositoryBulkheads,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 PlatformTransactionManager transactionManager,
+                                 ReadYourWrites readYourWrites,
+                                 Shards shards,
+                                 @Value("${customer.import.batch-size:500}") int batchSize) {
+        this.customerRepository = customerRepository;
+        this.customerService = customerService;
+        this.repositoryBulkheads = repositoryBulkheads;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readYourWrites = readYourWrites;
+        this.shards = shards;
+        this.batchSize = batchSize;
+    }
+
+    public void importCustomers(InputStream body, boolean csv, OutputStream reportStream) throws IOException {
+        BufferedReader bodyReader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        CustomerImportReader rows = new CustomerImportReader(bodyReader,
+                objectMapper.readerFor(CreateCustomerRequest.class), csv);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(reportStream, StandardCharsets.UTF_8));
+        JsonGenerator report = objectMapper.getFactory().createGenerator(writer);
+        report.setRootValueSeparator(null);
+
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        Set<String> batchEmails = new HashSet<>();
+        long rowNumber = 0;
+        int[] totals = new int[4];
+
+        CustomerImportReader.Row row;
+        while ((row = rows.next()) != null) {
+            PendingRow pending = new PendingRow(++rowNumber, row.request);
+            if (row.parseError != null) {
+                pending.reject(CustomerImportResult.INVALID, row.parseError);
+            } else {
+                String violations = validate(row.request);
+                if (violations != null) {
+                    pending.reject(CustomerImportResult.INVALID, violations);
+                } else if (!batchEmails.add(row.request.getEmail())) {
+                    pending.reject(CustomerImportResult.DUPLICATE, "Email appears earlier in the import");
+                }
+            }
+            batch.add(pending);
+            if (batch.size() >= batchSize) {
+                flushBatch(batch, batchEmails, report, writer, totals);
+            }
+        }
+        flushBatch(batch, batchEmails, report, writer, totals);
+        logger.info("Customer import finished: {} rows, {} created, {} duplicate, {} invalid, {} failed",
+                rowNumber, totals[0], totals[1], totals[2], totals[3]);
+    }
+
+    private String validate(CreateCustomerRequest request) {
+        Set<ConstraintViolation<CreateCustomerRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void flushBatch(List<PendingRow> batch, Set<String> batchEmails, JsonGenerator report, Writer writer,
+                            int[] totals) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Emails committed by earlier batches, earlier imports or concurrent requests; read from the
+        // primary, since a replica may not have the previous batch yet
+        Map<Integer, List<String>> emailsByShard = new TreeMap<>();
+        for (String email : batchEmails) {
+            emailsByShard.computeIfAbsent(shards.ofEmail(email), shard -> new ArrayList<>()).add(email);
+        }
+        Set<String> existing = new HashSet<>();
+        emailsByShard.forEach((shard, emails) -> existing.addAll(whenFree(() -> repositoryBulkheads.read(
+                () -> ShardRouting.onShard(shard,
+                        () -> DataSourceRouting.onPrimary(() -> customerRepository.findExistingEmails(emails)))))));
+        Map<Integer, List<PendingRow>> toInsertByShard = new TreeMap<>();
+        for (PendingRow pending : batch) {
+            if (pending.result.getStatus() == null && existing.contains(pending.request.getEmail())) {
+                pending.reject(CustomerImportResult.DUPLICATE, "Email address already exists.");
+            } else if (pending.result.getStatus() == null) {
+                toInsertByShard.computeIfAbsent(shards.ofEmail(pending.request.getEmail()), shard -> new ArrayList<>())
+                        .add(pending);
+            }
+        }
+        toInsertByShard.forEach((shard, toInsert) -> ShardRouting.onShard(shard, () -> {
+            insertAll(toInsert, shard);
+            return null;
+        }));
+
+        for (PendingRow pending : batch) {
+            if (CustomerImportResult.CREATED.equals(pending.result.getStatus())) {
+                readYourWrites.recordWrite(CustomerService.CUSTOMER, pending.result.getCustomerId());
+            }
+            report.writeObject(pending.result);
+            report.writeRaw('\n');
+            switch (pending.result.getStatus()) {
+                case CustomerImportResult.CREATED -> totals[0]++;
+                case CustomerImportResult.DUPLICATE -> totals[1]++;
+                case CustomerImportResult.INVALID -> totals[2]++;
+                default -> totals[3]++;
+            }
+        }
+        report.flush();
+        writer.flush();
+
+        batch.clear();
+        batchEmails.clear();
+    }
+
+    private void insertAll(List<PendingRow> toInsert, int shard) {
+        try {
+            whenFree(() -> repositoryBulkheads.write(() -> transactionTemplate.execute(status -> {
+                for (PendingRow pending : toInsert) {
+                    pending.result.setCustomerId(customerService.saveOnShard(toCustomer(pending.request), shard).getId());
+                }
+                return null;
+            })));
+            toInsert.forEach(pending -> pending.result.setStatus(CustomerImportResult.CREATED));
+        } catch (ServiceOverloadedException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // One row broke the batch (e.g. an email inserted concurrently); isolate it row by row
+            logger.warn("Customer import batch failed, retrying rows individually: {}", e.getMessage());
+            toInsert.forEach(pending -> insertSingle(pending, shard));
+        }
+    }
+
+    private void insertSingle(PendingRow pending, int shard) {
+        pending.result.setCustomerId(null);
+        try {
+            pending.result.setCustomerId(whenFree(() -> repositoryBulkheads.write(() -> transactionTemplate.execute(
+                    status -> customerService.saveOnShard(toCustomer(pending.request), shard).getId()))));
+            pending.result.setStatus(CustomerImportResult.CREATED);
+        } catch (ServiceOverloadedException e) {
+            throw e;
+        } catch (DataIntegrityViolationException e) {
+            pending.result.setCustomerId(null);
+            pending.reject(CustomerImportResult.DUPLICATE, "Email address already exists.");
+        } catch (RuntimeException e) {
+            logger.error("Error importing customer row {}: {}", pending.result.getRow(), e.getMessage());
+            pending.result.setCustomerId(null);
+            pending.reject(CustomerImportResult.FAILED, "An error occurred while creating the customer.");
+        }
+    }
+
+    /**
+     * Runs a bulkhead call, trying again while the bulkhead is full: an import is paced by the
+     * database's free capacity instead of failing its rows. Only an interrupt ends the wait.
+     */
+    private static <T> T whenFree(Supplier<T> call) {
+        while (true) {
+            try {
+                return call.get();
+            } catch (ServiceOverloadedException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                logger.debug("Customer import waiting for database capacity: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Customer toCustomer(CreateCustomerRequest request) {
+        Customer customer = new Customer();
+        customer.setFirstName(request.getFirstName());
+        customer.setLastName(request.getLastName());
+        customer.setDateOfBirth(request.getDateOfBirth());
+        customer.setAddress(request.getAddress());
+        customer.setEmail(request.getEmail());
+        return customer;
+    }
+
+    private static final class PendingRow {
+        private final CreateCustomerRequest request;
+        private final CustomerImportResult result = new CustomerImportResult();
+
+        private PendingRow(long row, CreateCustomerRequest request) {
+            this.request = request;
+            result.setRow(row);
+            result.setEmail(request != null ? request.getEmail() : null);
+        }
+
+        private void reject(String status, String error) {
+            result.setStatus(status);
+            result.setError(error);
+        }
+    }
+}
@@ -1,12 +1,21 @@
 package com.loanrisk.service;
 
+import com.loanrisk.datasource.ReadYourWrites;
+import com.loanrisk.datasource.ShardRouting;
+import com.loanrisk.datasource.Shards;
 import com.loanrisk.entity.Customer;
+import com.loanrisk.exception.ServiceOverloadedException;
+import com.loanrisk.limiter.RepositoryBulkheads;
+import com.loanrisk.limiter.SingleFlight;
 import com.loanrisk.repository.CustomerRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Optional;
 
@@ -15,19 +24,42 @@ public class CustomerService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
 
+    // Read-your-writes key for customers, shared with the apply path and the bulk import
+    public static final String CUSTOMER = "customer";
+
     private final CustomerRepository customerRepository;
+    private final RepositoryBulkheads repositoryBulkheads;
+    private final ReadYourWrites readYourWrites;
+    private final Shards shards;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<Long, Optional<Customer>> customerLookups;
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, RepositoryBulkheads repositoryBulkheads,
+                           ReadYourWrites readYourWrites, Shards shards,
+                           PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
         this.customerRepository = customerRepository;
+        this.repositoryBulkheads = repositoryBulkheads;
+        this.readYourWrites = readYourWrites;
+        this.shards = shards;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.customerLookups = new SingleFlight<>("customer", meterRegistry,
+                customer -> customer.map(Customer::copy));
     }
 
     public Customer createCustomer(Customer customer) {
         logger.info("Creating customer with email: {}", customer.getEmail());
         try {
-            Customer savedCustomer = customerRepository.save(customer);
+            int shard = shards.ofEmail(customer.getEmail());
+            // The id is checked inside the shard's transaction, so a misaligned one rolls the insert back
+            // instead of leaving a row that ofCustomer(id) would look for on another shard
+            Customer savedCustomer = repositoryBulkheads.write(() -> ShardRouting.onShard(shard,
+                    () -> transactionTemplate.execute(status -> saveOnShard(customer, shard))));
+            readYourWrites.recordWrite(CUSTOMER, savedCustomer.getId());
             logger.info("Customer created successfully with ID: {}", savedCustomer.getId());
             return savedCustomer;
+        } catch (ServiceOverloadedException e) {
+            throw e;
         } catch (DataIntegrityViolationException e) {
             logger.error("Error creating customer due to data integrity violation: {}", e.getMessage());
             // Depending on requirements, you might throw a custom exception here
@@ -38,9 +70,24 @@ public class CustomerService {
         }
     }
 
+    /**
+     * Saves {@code customer} and checks that the id it was given belongs to {@code shard}. Runs inside
+     * the caller's transaction on that shard, which a misaligned id rolls back.
+     */
+    Customer saveOnShard(Customer customer, int shard) {
+        Customer saved = customerRepository.save(customer);
+        if (shards.ofCustomer(saved.getId()) != shard) {
+            throw new IllegalStateException("Customer " + saved.getId() + " was given an id of another"
+                    + " shard by shard " + shard + "; its customer.id identity is misaligned");
+        }
+        return saved;
+    }
+
     public Optional<Customer> getCustomerById(Long id) {
         logger.info("Fetching customer with ID: {}", id);
-        Optional<Customer> customer = customerRepository.findById(id);
+        Optional<Customer> customer = customerLookups.load(id, () -> repositoryBulkheads.read(
+                () -> readYourWrites.read(CUSTOMER, id,
+                        () -> ShardRouting.onShard(shards.ofCustomer(id), () -> customerRepository.findById(id)))));
         if (customer.isPresent()) {
             logger.info("Customer found with ID: {}", id);
         } else {
@@ -0,0 +1,28 @@
+package com.loanrisk.service;
+
+import com.loanrisk.exception.InvalidSearchCriteriaException;
+
+public enum DecisionExportFormat {
+
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    DecisionExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static DecisionExportFormat fromParameter(String format) {
+        for (DecisionExportFormat candidate : values()) {
+            if (candidate.name().equalsIgnoreCase(format)) {
+                return candidate;
+            }
+        }
+        throw new InvalidSearchCriteriaException("Unsupported export format: " + format + " (expected ndjson or csv)");
+    }
+}
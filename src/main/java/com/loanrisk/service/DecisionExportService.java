@@ -0,0 +1,156 @@
+package com.loanrisk.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.exception.InvalidSearchCriteriaException;
+import com.loanrisk.repository.LoanApplicationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Writes decisions straight from the database cursor to the response stream. Each row is encoded
+ * field by field as it is read, so heap use is bounded by the fetch size and the writer buffer, not
+ * by the number of rows exported.
+ */
+@Service
+public class DecisionExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DecisionExportService.class);
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+    private static final String CSV_HEADER = "loanId,customerId,riskScore,riskLevel,decision,explanation,createdAt\n";
+
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    @Autowired
+    public DecisionExportService(LoanApplicationRepository loanApplicationRepository,
+                                 ObjectMapper objectMapper,
+                                 @Value("${loan.export.fetch-size:1000}") int fetchSize) {
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    public void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidSearchCriteriaException("from must be before to");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportDecisions(LocalDateTime from, LocalDateTime to, DecisionExportFormat format,
+                                OutputStream outputStream) throws IOException {
+        logger.info("Exporting decisions from {} to {} as {}", from, to, format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8),
+                WRITE_BUFFER_CHARS);
+        long[] rows = new long[1];
+        try {
+            if (format == DecisionExportFormat.NDJSON) {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+                generator.setRootValueSeparator(null);
+                loanApplicationRepository.streamDecisions(from, to, fetchSize, resultSet -> {
+                    writeJsonRow(resultSet, generator);
+                    rows[0]++;
+                });
+                generator.flush();
+            } else {
+                writer.write(CSV_HEADER);
+                loanApplicationRepository.streamDecisions(from, to, fetchSize, resultSet -> {
+                    writeCsvRow(resultSet, writer);
+                    rows[0]++;
+                });
+            }
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            // Typically the client went away mid-stream; the cursor is already closed at this point
+            logger.warn("Decision export aborted after {} rows: {}", rows[0], e.getMessage());
+            throw e.getCause();
+        }
+        logger.info("Exported {} decisions", rows[0]);
+        return rows[0];
+    }
+
+    private void writeJsonRow(ResultSet resultSet, JsonGenerator generator) throws SQLException {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("loanId", resultSet.getString(1));
+            generator.writeNumberField("customerId", resultSet.getLong(2));
+            generator.writeNumberField("riskScore", (int) resultSet.getDouble(3));
+            generator.writeStringField("riskLevel", resultSet.getString(4));
+            generator.writeStringField("decision", resultSet.getString(5));
+            generator.writeStringField("explanation", resultSet.getString(6));
+            generator.writeStringField("createdAt", formatTimestamp(resultSet.getTimestamp(7)));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsvRow(ResultSet resultSet, Writer writer) throws SQLException {
+        try {
+            writer.write(resultSet.getString(1));
+            writer.write(',');
+            writer.write(Long.toString(resultSet.getLong(2)));
+            writer.write(',');
+            writer.write(Integer.toString((int) resultSet.getDouble(3)));
+            writer.write(',');
+            writeCsvField(writer, resultSet.getString(4));
+            writer.write(',');
+            writeCsvField(writer, resultSet.getString(5));
+            writer.write(',');
+            writeCsvField(writer, resultSet.getString(6));
+            writer.write(',');
+            writeCsvField(writer, formatTimestamp(resultSet.getTimestamp(7)));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private String formatTimestamp(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+}
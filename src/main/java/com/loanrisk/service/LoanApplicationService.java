@@ -1,15 +1,27 @@
 package com.loanrisk.service;
 
+import com.loanrisk.bureau.BureauScore;
+import com.loanrisk.bureau.CreditBureauService;
+import com.loanrisk.datasource.ReadYourWrites;
+import com.loanrisk.datasource.ShardRouting;
+import com.loanrisk.datasource.Shards;
 import com.loanrisk.dto.ApplyLoanRequest;
 import com.loanrisk.dto.ApplyLoanResponse;
 import com.loanrisk.dto.GetLoanResponse;
 import com.loanrisk.entity.Customer;
 import com.loanrisk.entity.LoanApplication;
-import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.events.DecisionEvent;
+import com.loanrisk.events.DecisionEventPublisher;
 import com.loanrisk.exception.CustomerNotFoundException;
 import com.loanrisk.exception.LoanApplicationNotFoundException;
+import com.loanrisk.journal.DecisionJournal;
+import com.loanrisk.journal.DecisionRecord;
+import com.loanrisk.limiter.RepositoryBulkheads;
+import com.loanrisk.limiter.SingleFlight;
+import com.loanrisk.perf.AllocationBudget;
 import com.loanrisk.repository.CustomerRepository;
 import com.loanrisk.repository.LoanApplicationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,81 +29,171 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.Period;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.temporal.ChronoUnit;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class LoanApplicationService {
 
     private static final Logger logger = LoggerFactory.getLogger(LoanApplicationService.class);
 
+    private static final String LOAN = "loan";
+
     private final LoanApplicationRepository loanApplicationRepository;
     private final CustomerRepository customerRepository;
     private final ScoringRuleService scoringRuleService;
+    private final RiskScoringEngine riskScoringEngine;
+    private final DecisionJournal decisionJournal;
+    private final DecisionEventPublisher decisionEventPublisher;
+    private final RepositoryBulkheads repositoryBulkheads;
+    private final ReadYourWrites readYourWrites;
+    private final Shards shards;
+    private final CreditBureauService creditBureauService;
+    private final SingleFlight<Long, Optional<Customer>> customerLookups;
+    private final SingleFlight<UUID, GetLoanResponse> loanLookups;
 
     @Autowired
     public LoanApplicationService(LoanApplicationRepository loanApplicationRepository,
                                   CustomerRepository customerRepository,
-                                  ScoringRuleService scoringRuleService) {
+                                  ScoringRuleService scoringRuleService,
+                                  RiskScoringEngine riskScoringEngine,
+                                  DecisionJournal decisionJournal,
+                                  DecisionEventPublisher decisionEventPublisher,
+                                  RepositoryBulkheads repositoryBulkheads,
+                                  ReadYourWrites readYourWrites,
+                                  Shards shards,
+                                  CreditBureauService creditBureauService,
+                                  MeterRegistry meterRegistry) {
         this.loanApplicationRepository = loanApplicationRepository;
         this.customerRepository = customerRepository;
         this.scoringRuleService = scoringRuleService;
+        this.riskScoringEngine = riskScoringEngine;
+        this.decisionJournal = decisionJournal;
+        this.decisionEventPublisher = decisionEventPublisher;
+        this.repositoryBulkheads = repositoryBulkheads;
+        this.readYourWrites = readYourWrites;
+        this.shards = shards;
+        this.creditBureauService = creditBureauService;
+        this.customerLookups = new SingleFlight<>("apply.customer", meterRegistry,
+                customer -> customer.map(Customer::copy));
+        this.loanLookups = new SingleFlight<>("loan", meterRegistry,
+                loan -> loan != null ? loan.copy() : null);
     }
 
     public ApplyLoanResponse applyForLoan(ApplyLoanRequest request) {
-        logger.info("Received loan application request for customer ID: {}", request.getCustomerId());
+        logger.debug("Received loan application request for customer ID: {}", request.getCustomerId());
 
-        Customer customer = customerRepository.findById(request.getCustomerId())
-                .orElseThrow(() -> new CustomerNotFoundException(request.getCustomerId()));
+        CompletableFuture<BureauScore> bureauScore = creditBureauService.lookup(request.getCustomerId());
+        Customer customer = loadCustomer(request.getCustomerId());
+        ScoredApplication scored =
+                score(request, customer, scoringRuleService.getRuleSetSnapshot(), bureauScore.join());
+        return persist(scored);
+    }
 
+    /**
+     * Apply step 1 (I/O): loads the applicant. The steps are public so that {@link StagedApplyService}
+     * can run each one on its own stage; {@link #applyForLoan} runs them serially.
+     */
+    public Customer loadCustomer(Long customerId) {
+        return customerLookups.load(customerId, () -> repositoryBulkheads.read(() -> readYourWrites.read(
+                        CustomerService.CUSTOMER, customerId, () -> ShardRouting.onShard(shards.ofCustomer(customerId),
+                                () -> customerRepository.findById(customerId)))))
+                .orElseThrow(() -> new CustomerNotFoundException(customerId));
+    }
+
+    /**
+     * Apply step 2 (CPU) with the customer's stored credit score.
+     */
+    public ScoredApplication score(ApplyLoanRequest request, Customer customer, RuleSetSnapshot ruleSet) {
+        return score(request, customer, ruleSet, null);
+    }
+
+    /**
+     * Apply step 2 (CPU): scores the application against a rule set, with the bureau's credit score
+     * if there is one, else the stored one. Touches no repository.
+     */
+    @AllocationBudget(bytes = 1280)
+    public ScoredApplication score(ApplyLoanRequest request, Customer customer, RuleSetSnapshot ruleSet,
+                                   BureauScore bureauScore) {
         LoanApplication loanApplication = new LoanApplication();
         loanApplication.setCustomer(customer);
         // Assuming loanAmount and loanTermMonths will be added to LoanApplication entity later
         // For now, we will proceed with scoring based on available customer data and rules
         loanApplication.setCreatedAt(LocalDateTime.now());
 
-        // Process scoring rules (existing logic)
-        List<ScoringRule> activeRules = scoringRuleService.getActiveScoringRules();
-        double totalRiskScore = 0.0;
-        List<String> triggeredRulesExplanation = new ArrayList<>();
-
-        // Computed fields (example: age)
-        int age = Period.between(customer.getDateOfBirth(), LocalDate.now()).getYears();
-        // Add other computed fields as needed (e.g., loanRatio, existingDebtRatio)
-
-        for (ScoringRule rule : activeRules) {
-            boolean ruleTriggered = evaluateRule(rule, loanApplication, customer, age); // Pass computed fields
-
-            if (ruleTriggered) {
-                totalRiskScore += rule.getRiskPoints();
-                triggeredRulesExplanation.add(rule.getName() + " (+" + rule.getRiskPoints() + " points)");
-            }
-        }
+        ScoringInput input = toScoringInput(request, customer, bureauScore);
+        ScoringResult result = riskScoringEngine.score(input, ruleSet.getRules());
 
-        loanApplication.setRiskScore(totalRiskScore);
-        loanApplication.setRiskLevel(determineRiskLevel(totalRiskScore));
-        loanApplication.setDecision(determineDecision(totalRiskScore));
-        loanApplication.setExplanation(String.join(", ", triggeredRulesExplanation));
+        loanApplication.setRiskScore(result.getRiskScore());
+        loanApplication.setRiskLevel(result.getRiskLevel());
+        loanApplication.setDecision(result.getDecision());
+        loanApplication.setExplanation(result.getExplanation());
+        return new ScoredApplication(loanApplication, input, result, ruleSet.getVersion());
+    }
 
-        LoanApplication savedLoanApplication = loanApplicationRepository.save(loanApplication);
-        logger.info("Loan application saved with ID: {}", savedLoanApplication.getId());
+    /**
+     * Apply step 3 (I/O): saves the decision on its customer's shard, then journals and publishes it.
+     */
+    public ApplyLoanResponse persist(ScoredApplication scored) {
+        ScoringResult result = scored.getResult();
+        int shard = shards.ofCustomer(scored.getLoanApplication().getCustomer().getId());
+        LoanApplication savedLoanApplication = repositoryBulkheads.write(
+                () -> ShardRouting.onShard(shard, () -> loanApplicationRepository.save(scored.getLoanApplication())));
+        logger.debug("Loan application saved with ID: {}", savedLoanApplication.getId());
+        readYourWrites.recordWrite(LOAN, savedLoanApplication.getId());
+        decisionJournal.append(DecisionRecord.of(savedLoanApplication.getId(), System.currentTimeMillis(),
+                scored.getRuleSetVersion(), scored.getInput(), result));
+        decisionEventPublisher.publish(new DecisionEvent(savedLoanApplication.getId(),
+                savedLoanApplication.getCustomer().getId(), result.getRiskScore(), result.getRiskLevel(),
+                result.getDecision(), scored.getRuleSetVersion(), savedLoanApplication.getCreatedAt()));
+
+        return toApplyLoanResponse(savedLoanApplication);
+    }
 
+    @AllocationBudget(bytes = 64)
+    public ApplyLoanResponse toApplyLoanResponse(LoanApplication loanApplication) {
         ApplyLoanResponse response = new ApplyLoanResponse();
-        response.setLoanId(savedLoanApplication.getId());
-        response.setRiskScore(savedLoanApplication.getRiskScore().intValue());
-        response.setRiskLevel(savedLoanApplication.getRiskLevel());
-        response.setDecision(savedLoanApplication.getDecision());
-        response.setExplanation(savedLoanApplication.getExplanation());
+        response.setLoanId(loanApplication.getId());
+        response.setRiskScore(loanApplication.getRiskScore().intValue());
+        response.setRiskLevel(loanApplication.getRiskLevel());
+        response.setDecision(loanApplication.getDecision());
+        response.setExplanation(loanApplication.getExplanation());
 
         return response;
     }
 
+    private ScoringInput toScoringInput(ApplyLoanRequest request, Customer customer, BureauScore bureauScore) {
+        ScoringInput input = new ScoringInput();
+        input.setCustomerId(customer.getId());
+        input.setLoanAmount(request.getLoanAmount());
+        input.setLoanTermMonths(request.getLoanTermMonths());
+        // Computed fields (example: age); ChronoUnit avoids building a Period per application
+        input.setAge((int) ChronoUnit.YEARS.between(customer.getDateOfBirth(), LocalDate.now()));
+        // The stored score is left as entered; the bureau's only feeds this decision and its journal record
+        input.setCreditScore(bureauScore != null && bureauScore.getCreditScore() != null
+                ? bureauScore.getCreditScore() : customer.getCreditScore());
+        input.setAnnualIncome(customer.getAnnualIncome());
+        input.setExistingDebt(customer.getExistingDebt());
+        input.setEmploymentStatus(customer.getEmploymentStatus());
+        return input;
+    }
+
     public GetLoanResponse getLoanApplicationById(UUID id) {
         logger.info("Fetching loan application with ID: {}", id);
-        LoanApplication loanApplication = loanApplicationRepository.findById(id)
+        // Concurrent lookups of the same loan share one query and one mapped response
+        return loanLookups.load(id, () -> loadLoanApplication(id));
+    }
+
+    private GetLoanResponse loadLoanApplication(UUID id) {
+        // The shard is part of the id, so no lookup is needed to find it
+        int shard = shards.ofLoan(id);
+        if (shard < 0) {
+            throw new LoanApplicationNotFoundException(id);
+        }
+        LoanApplication loanApplication = repositoryBulkheads.read(() -> readYourWrites.read(LOAN, id,
+                        () -> ShardRouting.onShard(shard, () -> loanApplicationRepository.findById(id))))
                 .orElseThrow(() -> new LoanApplicationNotFoundException(id));
 
         GetLoanResponse response = new GetLoanResponse();
@@ -110,75 +212,4 @@ public class LoanApplicationService {
         logger.info("Successfully fetched loan application with ID: {}", id);
         return response;
     }
-
-    private boolean evaluateRule(ScoringRule rule, LoanApplication loanApplication, Customer customer, int age) {
-        // Basic rule evaluation logic - needs to be expanded based on actual fields and operators
-        // This is a simplified example
-        String field = rule.getField();
-        String operator = rule.getOperator();
-        String ruleValue = rule.getRuleValue();
-
-        try {
-            switch (field) {
-                case "customer.age":
-                    int ruleAge = Integer.parseInt(ruleValue);
-                    return compare(age, operator, ruleAge);
-                // Add cases for other fields (e.g., loanApplication.amount, customer.creditScore, computed fields)
-                default:
-                    logger.warn("Unknown rule field: {}", field);
-                    return false;
-            }
-        } catch (NumberFormatException e) {
-            logger.error("Invalid rule value for numeric comparison: {}", ruleValue, e);
-            return false;
-        } catch (Exception e) {
-            logger.error("Error evaluating rule: {}", rule.getName(), e);
-            return false;
-        }
-    }
-
-    private <T extends Comparable<T>> boolean compare(T value1, String operator, T value2) {
-        // Basic comparison logic - needs to handle different data types
-        if (value1 == null || value2 == null) {
-            logger.warn("Attempted to compare null values: value1={}, value2={}", value1, value2);
-            return false; // Cannot compare nulls
-        }
-        switch (operator) {
-            case ">":
-                return value1.compareTo(value2) > 0;
-            case "<":
-                return value1.compareTo(value2) < 0;
-            case "==":
-                return value1.compareTo(value2) == 0;
-            case "!=":
-                return value1.compareTo(value2) != 0;
-            case ">=":
-                return value1.compareTo(value2) >= 0;
-            case "<=":
-                return value1.compareTo(value2) <= 0;
-            default:
-                logger.warn("Unknown comparison operator: {}", operator);
-                return false;
-        }
-    }
-
-    private String determineRiskLevel(double riskScore) {
-        if (riskScore < 30) {
-            return "Low";
-        } else if (riskScore < 60) {
-            return "Medium";
-        } else {
-            return "High";
-        }
-    }
-
-    private String determineDecision(double riskScore) {
-        if (riskScore < 30) {
-            return "Approved";
-        } else if (riskScore < 60) {
-            return "Manual Review";
-        } else {
-            return "Rejected";
-        }
-    }
-}
\ No newline at end of file
+}
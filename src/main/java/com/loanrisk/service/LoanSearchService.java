@@ -0,0 +1,111 @@
+package com.loanrisk.service;
+
+import com.loanrisk.dto.LoanSearchRequest;
+import com.loanrisk.dto.LoanSearchResponse;
+import com.loanrisk.dto.LoanSummary;
+import com.loanrisk.exception.InvalidSearchCriteriaException;
+import com.loanrisk.repository.LoanApplicationRepository;
+import com.loanrisk.repository.LoanSearchCriteria;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+@Service
+public class LoanSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanSearchService.class);
+
+    private static final int DEFAULT_LIMIT = 50;
+
+    private final LoanApplicationRepository loanApplicationRepository;
+    private final long exactCountLimit;
+
+    @Autowired
+    public LoanSearchService(LoanApplicationRepository loanApplicationRepository,
+                             @Value("${loan.search.exact-count-limit:10000}") long exactCountLimit) {
+        this.loanApplicationRepository = loanApplicationRepository;
+        this.exactCountLimit = exactCountLimit;
+    }
+
+    @Transactional(readOnly = true)
+    public LoanSearchResponse search(LoanSearchRequest request) {
+        LoanSearchCriteria criteria = toCriteria(request);
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_LIMIT;
+        logger.info("Searching loan applications: decision={}, riskLevel={}, limit={}",
+                request.getDecision(), request.getRiskLevel(), limit);
+
+        // Fetch one extra row to learn whether another page exists without a separate query
+        List<LoanSummary> rows = loanApplicationRepository.search(criteria, limit + 1);
+        LoanSearchResponse response = new LoanSearchResponse();
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            LoanSummary last = rows.get(limit - 1);
+            response.setNextCursor(encodeCursor(last.getCreatedAt(), last.getLoanId()));
+        }
+        response.setItems(rows);
+
+        // Only the first page carries a count; exact counting is capped so a broad filter never scans
+        // the whole table, and past the cap the planner's estimate is reported instead.
+        if (request.getCursor() == null) {
+            long count = loanApplicationRepository.countUpTo(criteria, exactCountLimit + 1);
+            if (count <= exactCountLimit) {
+                response.setCount(count);
+            } else {
+                OptionalLong estimate = loanApplicationRepository.estimateCount(criteria);
+                response.setCount(Math.max(estimate.orElse(exactCountLimit), exactCountLimit));
+                response.setCountApproximate(true);
+            }
+        }
+        return response;
+    }
+
+    private LoanSearchCriteria toCriteria(LoanSearchRequest request) {
+        if (request.getMinRiskScore() != null && request.getMaxRiskScore() != null
+                && request.getMinRiskScore() > request.getMaxRiskScore()) {
+            throw new InvalidSearchCriteriaException("minRiskScore must not be greater than maxRiskScore");
+        }
+        if (request.getCreatedFrom() != null && request.getCreatedTo() != null
+                && !request.getCreatedFrom().isBefore(request.getCreatedTo())) {
+            throw new InvalidSearchCriteriaException("createdFrom must be before createdTo");
+        }
+
+        LoanSearchCriteria criteria = new LoanSearchCriteria();
+        criteria.setDecision(request.getDecision());
+        criteria.setRiskLevel(request.getRiskLevel());
+        criteria.setMinRiskScore(request.getMinRiskScore());
+        criteria.setMaxRiskScore(request.getMaxRiskScore());
+        criteria.setCreatedFrom(request.getCreatedFrom());
+        criteria.setCreatedTo(request.getCreatedTo());
+        if (request.getCursor() != null) {
+            decodeCursor(request.getCursor(), criteria);
+        }
+        return criteria;
+    }
+
+    private String encodeCursor(LocalDateTime createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decodeCursor(String cursor, LoanSearchCriteria criteria) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            criteria.setAfter(LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new InvalidSearchCriteriaException("Invalid search cursor");
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.loanrisk.service;
+
+import com.loanrisk.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * One stage of the staged apply pipeline: a fixed pool fed by a bounded queue. Work offered to a
+ * full queue is rejected immediately rather than queued without limit, unless it is submitted with
+ * {@link #submitWhenFree}, which offers it again until there is room. Records
+ * {@code apply.pipeline.queue.depth}, {@code apply.pipeline.queue.wait}, {@code apply.pipeline.service.time},
+ * {@code apply.pipeline.rejected} and {@code apply.pipeline.deferred}, tagged with the stage name.
+ */
+public class PipelineStage {
+
+    // How long work waiting for room in a full queue waits before it is offered again
+    private static final long RETRY_DELAY_MILLIS = 10;
+
+    private final String name;
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+    private final Timer queueWait;
+    private final Timer serviceTime;
+    private final Counter rejected;
+    private final Counter deferred;
+    private final AtomicInteger running = new AtomicInteger();
+    // Exponentially weighted service time, updated by every worker thread
+    private final AtomicLong averageServiceNanos = new AtomicLong();
+
+    public PipelineStage(String name, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.threads = threads;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "apply-" + name + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("apply.pipeline.queue.depth", executor, pool -> pool.getQueue().size())
+                .tag("stage", name).register(meterRegistry);
+        Gauge.builder("apply.pipeline.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("stage", name).register(meterRegistry);
+        this.queueWait = Timer.builder("apply.pipeline.queue.wait").tag("stage", name).register(meterRegistry);
+        this.serviceTime = Timer.builder("apply.pipeline.service.time").tag("stage", name).register(meterRegistry);
+        this.rejected = Counter.builder("apply.pipeline.rejected").tag("stage", name).register(meterRegistry);
+        this.deferred = Counter.builder("apply.pipeline.deferred").tag("stage", name).register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} on this stage. The returned future fails with {@link ServiceOverloadedException}
+     * if the stage's queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!tryExecute(work, future)) {
+            rejected.increment();
+            future.completeExceptionally(
+                    new ServiceOverloadedException("Apply pipeline stage '" + name + "' is saturated", 1));
+        }
+        return future;
+    }
+
+    /**
+     * Runs {@code work} on this stage, waiting for room if the queue is full instead of failing. No
+     * thread is held while waiting: the work is offered again every {@value #RETRY_DELAY_MILLIS} ms.
+     * For callers that bound their own work in flight and can slow their producer down.
+     */
+    public <T> CompletableFuture<T> submitWhenFree(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        offer(work, future);
+        return future;
+    }
+
+    private <T> void offer(Supplier<T> work, CompletableFuture<T> future) {
+        if (tryExecute(work, future)) {
+            return;
+        }
+        if (executor.isShutdown()) {
+            future.completeExceptionally(
+                    new RejectedExecutionException("Apply pipeline stage '" + name + "' is shut down"));
+            return;
+        }
+        deferred.increment();
+        CompletableFuture.delayedExecutor(RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS).execute(() -> offer(work, future));
+    }
+
+    /**
+     * Queues {@code work}, completing {@code future} with its outcome.
+     *
+     * @return {@code false}, leaving the future alone, if the queue is full
+     */
+    private <T> boolean tryExecute(Supplier<T> work, CompletableFuture<T> future) {
+        long enqueued = System.nanoTime();
+        try {
+            executor.execute(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - enqueued, TimeUnit.NANOSECONDS);
+                running.incrementAndGet();
+                T result = null;
+                Throwable failure = null;
+                try {
+                    result = work.get();
+                } catch (Throwable e) {
+                    failure = e;
+                }
+                // Accounted before completing, as completion may run the next stage's submit on this thread
+                running.decrementAndGet();
+                long elapsed = System.nanoTime() - started;
+                serviceTime.record(elapsed, TimeUnit.NANOSECONDS);
+                averageServiceNanos.accumulateAndGet(elapsed, (average, sample) -> average + ((sample - average) >> 3));
+                if (failure == null) {
+                    future.complete(result);
+                } else {
+                    future.completeExceptionally(failure);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * How long newly submitted work would wait before a thread picks it up, estimated from the work
+     * ahead of it (queued and running) and the recent average service time. Zero while a thread is
+     * free.
+     */
+    public long getExpectedWaitNanos() {
+        long ahead = getQueueDepth() + running.get() - threads + 1L;
+        return ahead > 0 ? ahead * averageServiceNanos.get() / threads : 0;
+    }
+
+    void shutdown() {
+        executor.shutdown();
+    }
+}
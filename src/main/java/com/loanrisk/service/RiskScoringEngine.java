@@ -0,0 +1,269 @@
+package com.loanrisk.service;
+
+import com.loanrisk.dto.RuleEvaluationPlan;
+import com.loanrisk.dto.RuleEvaluationSummary;
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.expression.CompiledConditions;
+import com.loanrisk.expression.EvaluationContext;
+import com.loanrisk.expression.Expr;
+import com.loanrisk.expression.ExpressionCompiler;
+import com.loanrisk.expression.ExpressionException;
+import com.loanrisk.expression.ExpressionParser;
+import com.loanrisk.latency.HistogramSnapshot;
+import com.loanrisk.latency.LatencyHistogram;
+import com.loanrisk.latency.LatencyHistograms;
+import com.loanrisk.perf.AllocationBudget;
+import com.loanrisk.scorecard.ScorecardEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scores a {@link ScoringInput} against a list of rules. Free of persistence, so it is shared by
+ * the apply path and by offline journal replay. Rules are compiled into closures once per rule list
+ * (see {@link ExpressionCompiler}); the lists handed out by a rule set snapshot are stable, so in
+ * practice that is once per rule set version. Each rule's evaluation time is recorded in its
+ * {@link LatencyHistograms} histogram, from one clock read per rule, and its hits in a counter beside
+ * it; {@link #evaluationPlan} reports both.
+ */
+@Component
+public class RiskScoringEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskScoringEngine.class);
+
+    private final Set<String> reportedProblems = ConcurrentHashMap.newKeySet();
+
+    private final ScorecardEngine scorecard;
+    private final LatencyHistograms latencyHistograms;
+
+    private volatile CompiledRules compiledRules;
+
+    @Autowired
+    public RiskScoringEngine(ScorecardEngine scorecard, LatencyHistograms latencyHistograms) {
+        this.scorecard = scorecard;
+        this.latencyHistograms = latencyHistograms;
+    }
+
+    /**
+     * An engine for use outside the application context, recording no latencies.
+     */
+    public RiskScoringEngine(ScorecardEngine scorecard) {
+        this(scorecard, LatencyHistograms.disabled());
+    }
+
+    /**
+     * An engine scoring on rule points alone, for use outside the application context.
+     */
+    public RiskScoringEngine() {
+        this(ScorecardEngine.disabled());
+    }
+
+    @AllocationBudget(bytes = 640)
+    public ScoringResult score(ScoringInput input, List<ScoringRule> rules) {
+        CompiledRules compiled = compile(rules);
+        CompiledConditions conditions = compiled.conditions;
+        LatencyHistogram[] ruleLatencies = compiled.ruleLatencies;
+        LongAdder[] ruleHits = compiled.ruleHits;
+        EvaluationContext context = conditions.newContext(input);
+        double totalRiskScore = 0.0;
+        List<ScoringRule> triggeredRules = new ArrayList<>();
+
+        // Timed back to back: each rule is charged from the previous clock read to its own
+        long clock = ruleLatencies != null ? System.nanoTime() : 0L;
+        for (int i = 0; i < rules.size(); i++) {
+            ScoringRule rule = rules.get(i);
+            boolean ruleTriggered = conditions.test(i, context);
+            if (ruleLatencies != null) {
+                long now = System.nanoTime();
+                ruleLatencies[i].record(now - clock);
+                clock = now;
+                if (ruleTriggered) {
+                    ruleHits[i].increment();
+                }
+            }
+
+            if (ruleTriggered) {
+                totalRiskScore += rule.getRiskPoints();
+                triggeredRules.add(rule);
+            }
+        }
+
+        double probability = scorecard.probability(input);
+        totalRiskScore = scorecard.blend(totalRiskScore, probability);
+
+        return new ScoringResult(totalRiskScore, determineRiskLevel(totalRiskScore), determineDecision(totalRiskScore),
+                triggeredRules, renderExplanation(triggeredRules, probability));
+    }
+
+    /**
+     * "Rule A (+20 points), Rule B (+10 points)", followed by the scorecard's contribution if one
+     * was blended in. Rendered into one builder rather than one string per rule.
+     */
+    @AllocationBudget(bytes = 384)
+    public String renderExplanation(List<ScoringRule> triggeredRules, double scorecardProbability) {
+        // Sized up front so the builder never grows: " (+NNN points), " is at most 20 characters
+        int capacity = Double.isNaN(scorecardProbability) ? 0 : 64;
+        for (int i = 0; i < triggeredRules.size(); i++) {
+            capacity += String.valueOf(triggeredRules.get(i).getName()).length() + 20;
+        }
+        StringBuilder explanation = new StringBuilder(capacity);
+        for (int i = 0; i < triggeredRules.size(); i++) {
+            ScoringRule rule = triggeredRules.get(i);
+            if (i > 0) {
+                explanation.append(", ");
+            }
+            explanation.append(rule.getName()).append(" (+").append(rule.getRiskPoints()).append(" points)");
+        }
+        if (!Double.isNaN(scorecardProbability)) {
+            if (!triggeredRules.isEmpty()) {
+                explanation.append(", ");
+            }
+            explanation.append("Scorecard (default probability ");
+            appendHundredths(explanation, scorecardProbability);
+            explanation.append(", weight ");
+            appendHundredths(explanation, scorecard.getBlendWeight());
+            explanation.append(')');
+        }
+        return explanation.toString();
+    }
+
+    // Same output as String.format("%.2f") for values in [0, 1], without the formatter's garbage
+    private static void appendHundredths(StringBuilder target, double value) {
+        long hundredths = Math.round(value * 100);
+        target.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            target.append('0');
+        }
+        target.append(fraction);
+    }
+
+    /**
+     * The order {@code rules} are evaluated in, with each rule's hit rate and cost since startup or the
+     * last reset of the latency histograms. The order is business priority and every rule is evaluated:
+     * the score is the sum of all triggered rules' points and the explanation lists each of them, so no
+     * rule can be skipped, and evaluating cheap, high-yield rules first would save no work.
+     */
+    public RuleEvaluationPlan evaluationPlan(List<ScoringRule> rules) {
+        RuleEvaluationPlan plan = new RuleEvaluationPlan();
+        plan.setOrder("priority");
+        plan.setFrom(latencyHistograms.getStarted());
+        List<RuleEvaluationSummary> summaries = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            ScoringRule rule = rules.get(i);
+            RuleEvaluationSummary summary = new RuleEvaluationSummary();
+            summary.setPosition(i + 1);
+            summary.setName(rule.getName());
+            summary.setPriority(rule.getPriority());
+            if (latencyHistograms.isEnabled()) {
+                HistogramSnapshot cost = latencyHistograms.rule(rule.getName()).snapshot();
+                long hits = latencyHistograms.ruleHits(rule.getName()).sum();
+                summary.setEvaluations(cost.getTotalCount());
+                summary.setHits(hits);
+                summary.setHitRate(cost.getTotalCount() == 0 ? 0.0 : (double) hits / cost.getTotalCount());
+                summary.setMeanCostNanos(cost.getMeanNanos());
+                summary.setP99CostNanos(cost.getValueAtPercentile(99));
+                summary.setCostPerHitNanos(hits == 0 ? 0.0 : cost.getMeanNanos() * cost.getTotalCount() / hits);
+            }
+            summaries.add(summary);
+        }
+        plan.setRules(summaries);
+        plan.setTo(Instant.now());
+        return plan;
+    }
+
+    private CompiledRules compile(List<ScoringRule> rules) {
+        CompiledRules compiled = compiledRules;
+        if (compiled != null && compiled.rules == rules && compiled.conditions.size() == rules.size()) {
+            return compiled;
+        }
+        // Racing threads may both compile a new list; either result is correct
+        List<Expr> conditions = new ArrayList<>(rules.size());
+        for (ScoringRule rule : rules) {
+            conditions.add(toCondition(rule));
+        }
+        LatencyHistogram[] ruleLatencies = null;
+        LongAdder[] ruleHits = null;
+        if (latencyHistograms.isEnabled()) {
+            ruleLatencies = new LatencyHistogram[rules.size()];
+            ruleHits = new LongAdder[rules.size()];
+            for (int i = 0; i < rules.size(); i++) {
+                ruleLatencies[i] = latencyHistograms.rule(rules.get(i).getName());
+                ruleHits[i] = latencyHistograms.ruleHits(rules.get(i).getName());
+            }
+        }
+        compiled = new CompiledRules(rules, ExpressionCompiler.compile(conditions), ruleLatencies, ruleHits);
+        compiledRules = compiled;
+        logger.debug("Compiled {} rules; derived fields computed per application: {}",
+                rules.size(), compiled.conditions.getDerivedFields());
+        return compiled;
+    }
+
+    private Expr toCondition(ScoringRule rule) {
+        if (rule.getExpression() != null) {
+            try {
+                return ExpressionParser.parse(rule.getExpression());
+            } catch (ExpressionException e) {
+                // Rejected when saved, so only rules inserted around JPA get here
+                logger.error("Invalid expression in rule {}: {}", rule.getName(), e.getMessage());
+                return new Expr.BooleanLiteral(false);
+            }
+        }
+
+        // Field/operator/value rules name a base or derived field; "customer.age" predates the field names
+        String field = "customer.age".equals(rule.getField()) ? "age" : rule.getField();
+        try {
+            return ExpressionParser.comparison(field, rule.getOperator(), rule.getRuleValue());
+        } catch (ExpressionException e) {
+            // Once per problem, not once per compiled rule set
+            if (reportedProblems.add(rule.getName() + ": " + e.getMessage())) {
+                logger.warn("Rule {} cannot be evaluated and never triggers: {}", rule.getName(), e.getMessage());
+            }
+            return new Expr.BooleanLiteral(false);
+        }
+    }
+
+    public String determineRiskLevel(double riskScore) {
+        if (riskScore < 30) {
+            return "Low";
+        } else if (riskScore < 60) {
+            return "Medium";
+        } else {
+            return "High";
+        }
+    }
+
+    public String determineDecision(double riskScore) {
+        if (riskScore < 30) {
+            return "Approved";
+        } else if (riskScore < 60) {
+            return "Manual Review";
+        } else {
+            return "Rejected";
+        }
+    }
+
+    private static final class CompiledRules {
+
+        private final List<ScoringRule> rules;
+        private final CompiledConditions conditions;
+        private final LatencyHistogram[] ruleLatencies; // by rule index; null when latencies are not recorded
+        private final LongAdder[] ruleHits; // likewise
+
+        CompiledRules(List<ScoringRule> rules, CompiledConditions conditions, LatencyHistogram[] ruleLatencies,
+                      LongAdder[] ruleHits) {
+            this.rules = rules;
+            this.conditions = conditions;
+            this.ruleLatencies = ruleLatencies;
+            this.ruleHits = ruleHits;
+        }
+    }
+}
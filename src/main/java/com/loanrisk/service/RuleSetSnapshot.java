@@ -0,0 +1,57 @@
+package com.loanrisk.service;
+
+import com.loanrisk.entity.ScoringRule;
+
+import java.util.List;
+
+/**
+ * An immutable view of the active rules at one rule-set version, together with its pre-serialized
+ * JSON body and a strong ETag derived from that body. Both come from a SHA-256 digest of the body:
+ * the version is its first 64 bits and the ETag its first 128, so they stay the same across restarts
+ * and instances for the same rules. Versions are identifiers, not a sequence: they are compared for
+ * equality only.
+ */
+public final class RuleSetSnapshot {
+
+    private final long version;
+    private final List<ScoringRule> rules;
+    private final byte[] json;
+    private final String etag;
+
+    RuleSetSnapshot(long version, List<ScoringRule> rules, byte[] json, String etag) {
+        this.version = version;
+        this.rules = List.copyOf(rules);
+        this.json = json;
+        this.etag = etag;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * The version as it appears in the {@code X-Rule-Set-Version} header: 16 hex digits.
+     */
+    public static String formatVersion(long version) {
+        return String.format("%016x", version);
+    }
+
+    public static long parseVersion(String version) {
+        return Long.parseUnsignedLong(version, 16);
+    }
+
+    public List<ScoringRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Shared buffer; callers must not modify it.
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,38 @@
+package com.loanrisk.service;
+
+import com.loanrisk.entity.LoanApplication;
+
+/**
+ * A scored, not yet saved application handed from the scoring step to the persistence step.
+ */
+public class ScoredApplication {
+
+    private final LoanApplication loanApplication;
+    private final ScoringInput input;
+    private final ScoringResult result;
+    private final long ruleSetVersion;
+
+    public ScoredApplication(LoanApplication loanApplication, ScoringInput input, ScoringResult result,
+                             long ruleSetVersion) {
+        this.loanApplication = loanApplication;
+        this.input = input;
+        this.result = result;
+        this.ruleSetVersion = ruleSetVersion;
+    }
+
+    public LoanApplication getLoanApplication() {
+        return loanApplication;
+    }
+
+    public ScoringInput getInput() {
+        return input;
+    }
+
+    public ScoringResult getResult() {
+        return result;
+    }
+
+    public long getRuleSetVersion() {
+        return ruleSetVersion;
+    }
+}
@@ -0,0 +1,84 @@
+package com.loanrisk.service;
+
+import java.math.BigDecimal;
+
+/**
+ * The feature values one application is scored on, independent of entities so that the same input
+ * can be rebuilt from the decision journal and re-scored.
+ */
+public class ScoringInput {
+
+    private Long customerId;
+    private BigDecimal loanAmount;
+    private Integer loanTermMonths;
+    private int age;
+    private Integer creditScore;
+    private BigDecimal annualIncome;
+    private BigDecimal existingDebt;
+    private String employmentStatus;
+
+    // Getters and Setters
+    public Long getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(Long customerId) {
+        this.customerId = customerId;
+    }
+
+    public BigDecimal getLoanAmount() {
+        return loanAmount;
+    }
+
+    public void setLoanAmount(BigDecimal loanAmount) {
+        this.loanAmount = loanAmount;
+    }
+
+    public Integer getLoanTermMonths() {
+        return loanTermMonths;
+    }
+
+    public void setLoanTermMonths(Integer loanTermMonths) {
+        this.loanTermMonths = loanTermMonths;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public Integer getCreditScore() {
+        return creditScore;
+    }
+
+    public void setCreditScore(Integer creditScore) {
+        this.creditScore = creditScore;
+    }
+
+    public BigDecimal getAnnualIncome() {
+        return annualIncome;
+    }
+
+    public void setAnnualIncome(BigDecimal annualIncome) {
+        this.annualIncome = annualIncome;
+    }
+
+    public BigDecimal getExistingDebt() {
+        return existingDebt;
+    }
+
+    public void setExistingDebt(BigDecimal existingDebt) {
+        this.existingDebt = existingDebt;
+    }
+
+    public String getEmploymentStatus() {
+        return employmentStatus;
+    }
+
+    public void setEmploymentStatus(String employmentStatus) {
+        this.employmentStatus = employmentStatus;
+    }
+}
@@ -0,0 +1,43 @@
+package com.loanrisk.service;
+
+import com.loanrisk.entity.ScoringRule;
+
+import java.util.List;
+
+public class ScoringResult {
+
+    private final double riskScore;
+    private final String riskLevel;
+    private final String decision;
+    private final List<ScoringRule> triggeredRules;
+    private final String explanation;
+
+    public ScoringResult(double riskScore, String riskLevel, String decision, List<ScoringRule> triggeredRules,
+                         String explanation) {
+        this.riskScore = riskScore;
+        this.riskLevel = riskLevel;
+        this.decision = decision;
+        this.triggeredRules = triggeredRules;
+        this.explanation = explanation;
+    }
+
+    public double getRiskScore() {
+        return riskScore;
+    }
+
+    public String getRiskLevel() {
+        return riskLevel;
+    }
+
+    public String getDecision() {
+        return decision;
+    }
+
+    public List<ScoringRule> getTriggeredRules() {
+        return triggeredRules;
+    }
+
+    public String getExplanation() {
+        return explanation;
+    }
+}
@@ -0,0 +1,42 @@
+package com.loanrisk.service;
+
+import com.loanrisk.entity.ScoringRule;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that tells {@link ScoringRuleService} the rule set changed once the change is
+ * visible to other transactions, so this node serves it on the next read. Changes made outside JPA
+ * or on another node are left to the service's periodic refresh.
+ */
+@Component
+public class ScoringRuleChangeListener {
+
+    // Looked up lazily: Hibernate creates this listener while the service's own dependencies are built
+    private final ObjectProvider<ScoringRuleService> scoringRuleService;
+
+    public ScoringRuleChangeListener(ObjectProvider<ScoringRuleService> scoringRuleService) {
+        this.scoringRuleService = scoringRuleService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onRuleChanged(ScoringRule rule) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    scoringRuleService.ifAvailable(ScoringRuleService::ruleSetChanged);
+                }
+            });
+        } else {
+            scoringRuleService.ifAvailable(ScoringRuleService::ruleSetChanged);
+        }
+    }
+}
@@ -1,23 +1,190 @@
 package com.loanrisk.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.datasource.DataSourceRouting;
 import com.loanrisk.entity.ScoringRule;
 import com.loanrisk.repository.ScoringRuleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Serves the active scoring rules from an immutable {@link RuleSetSnapshot}. A rule saved through JPA
+ * on this node marks the snapshot stale at once; changes made anywhere else (SQL, migrations, another
+ * node) are picked up by a reload every {@code rules.refresh-interval-ms}, which swaps the snapshot
+ * only when the serialized rules differ. The version is derived from that content, so every node
+ * holding the same rules reports the same version.
+ */
 @Service
 public class ScoringRuleService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ScoringRuleService.class);
+
     private final ScoringRuleRepository scoringRuleRepository;
+    private final ObjectMapper objectMapper;
+
+    private final Object rebuildLock = new Object();
+    private final List<VersionWaiter> waiters = new CopyOnWriteArrayList<>();
+    private volatile RuleSetSnapshot snapshot;
+    // Rule changes seen vs. changes the current snapshot was loaded after; the snapshot is stale while they differ
+    private final AtomicLong changes = new AtomicLong(1);
+    private volatile long loadedChanges;
+    private final ScheduledExecutorService poller;
 
     @Autowired
-    public ScoringRuleService(ScoringRuleRepository scoringRuleRepository) {
+    public ScoringRuleService(ScoringRuleRepository scoringRuleRepository, ObjectMapper objectMapper,
+                              @Value("${rules.refresh-interval-ms:5000}") long refreshIntervalMillis) {
         this.scoringRuleRepository = scoringRuleRepository;
+        this.objectMapper = objectMapper;
+        if (refreshIntervalMillis > 0) {
+            poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "rule-set-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            poller.scheduleWithFixedDelay(this::refresh, refreshIntervalMillis, refreshIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            poller = null;
+        }
     }
 
     public List<ScoringRule> getActiveScoringRules() {
-        return scoringRuleRepository.findByEnabledOrderByPriorityAsc(true);
+        return getRuleSetSnapshot().getRules();
+    }
+
+    /**
+     * Returns the current rule set, reloading it from the database only after a rule has changed.
+     */
+    public RuleSetSnapshot getRuleSetSnapshot() {
+        RuleSetSnapshot current = snapshot;
+        if (current != null && loadedChanges == changes.get()) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            if (snapshot == null || loadedChanges != changes.get()) {
+                rebuild();
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * Completes with the first snapshot whose version differs from {@code version}; immediately if
+     * the current one already does.
+     */
+    public CompletableFuture<RuleSetSnapshot> awaitChange(long version) {
+        RuleSetSnapshot current = getRuleSetSnapshot();
+        if (current.getVersion() != version) {
+            return CompletableFuture.completedFuture(current);
+        }
+        VersionWaiter waiter = new VersionWaiter(version);
+        waiters.add(waiter);
+        waiter.future.whenComplete((result, e) -> waiters.remove(waiter));
+        // Re-check: a rebuild may have happened between the read above and the registration
+        notifyWaiters(getRuleSetSnapshot());
+        return waiter.future;
+    }
+
+    /**
+     * Called after a rule change has committed. Long-poll waiters get the new version right away;
+     * otherwise the reload happens on the next read.
+     */
+    public void ruleSetChanged() {
+        changes.incrementAndGet();
+        if (!waiters.isEmpty()) {
+            CompletableFuture.runAsync(this::getRuleSetSnapshot);
+        }
+    }
+
+    /**
+     * Reloads the rules and replaces the snapshot if they changed. Runs on the poller thread; readers
+     * keep the current snapshot meanwhile.
+     */
+    void refresh() {
+        try {
+            synchronized (rebuildLock) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not refresh the rule set; keeping the current snapshot", e);
+        }
+    }
+
+    private void rebuild() {
+        // Read before loading, so a change racing with the reload leaves the new snapshot stale. Readers keep
+        // seeing the snapshot as stale until it is replaced, and wait for the reload instead of getting the old one.
+        long loading = changes.get();
+        // Reloads follow a committed rule change, which a lagging replica may not have yet
+        List<ScoringRule> rules =
+                DataSourceRouting.onPrimary(() -> scoringRuleRepository.findByEnabledOrderByPriorityAsc(true));
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(rules);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize active scoring rules", e);
+        }
+
+        RuleSetSnapshot previous = snapshot;
+        if (previous != null && Arrays.equals(previous.getJson(), json)) {
+            loadedChanges = loading;
+            return; // content unchanged: keep version and ETag
+        }
+        byte[] digest = digest(json);
+        long version = ByteBuffer.wrap(digest).getLong();
+        snapshot = new RuleSetSnapshot(version, rules, json, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        loadedChanges = loading;
+        logger.info("Loaded rule set version {} with {} active rules", RuleSetSnapshot.formatVersion(version),
+                rules.size());
+        notifyWaiters(snapshot);
+    }
+
+    private void notifyWaiters(RuleSetSnapshot current) {
+        for (VersionWaiter waiter : waiters) {
+            if (current.getVersion() != waiter.version) {
+                waiter.future.complete(current);
+            }
+        }
+    }
+
+    private static byte[] digest(byte[] json) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(json);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    private static final class VersionWaiter {
+        private final long version;
+        private final CompletableFuture<RuleSetSnapshot> future = new CompletableFuture<>();
+
+        private VersionWaiter(long version) {
+            this.version = version;
+        }
     }
-}
\ No newline at end of file
+}
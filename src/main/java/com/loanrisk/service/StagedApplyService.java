@@ -0,0 +1,120 @@
+package com.loanrisk.service;
+
+import com.loanrisk.bureau.BureauScore;
+import com.loanrisk.bureau.CreditBureauService;
+import com.loanrisk.datasource.DataSourceRouting;
+import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.dto.ApplyLoanResponse;
+import com.loanrisk.entity.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@code /loan/apply} as a staged pipeline instead of serially on the request thread:
+ *
+ * <pre>
+ * customer (I/O) --+
+ *                  +--&gt; scoring (CPU) --&gt; persist (I/O)
+ * bureau (async) --+
+ * </pre>
+ *
+ * The customer and bureau-score fetches run concurrently; the bureau lookup needs no stage thread,
+ * and is bounded by its own timeout (see {@link CreditBureauService}). The rule set is an in-memory
+ * snapshot that is only reloaded after a rule changes, so it is taken on the caller's thread rather
+ * than paying a stage hop. Every stage has its own pool and bounded queue, sized with
+ * {@code loan.apply.pipeline.<stage>.threads} and {@code .queue-capacity}, so a slow database
+ * saturates the I/O stages without taking the scoring threads with it, and the stage metrics show
+ * which stage is the bottleneck.
+ */
+@Service
+public class StagedApplyService {
+
+    private final LoanApplicationService loanApplicationService;
+    private final ScoringRuleService scoringRuleService;
+    private final CreditBureauService creditBureauService;
+    private final PipelineStage customerStage;
+    private final PipelineStage scoringStage;
+    private final PipelineStage persistStage;
+
+    @Autowired
+    public StagedApplyService(LoanApplicationService loanApplicationService,
+                              ScoringRuleService scoringRuleService,
+                              CreditBureauService creditBureauService,
+                              MeterRegistry meterRegistry,
+                              Environment environment) {
+        this.loanApplicationService = loanApplicationService;
+        this.scoringRuleService = scoringRuleService;
+        this.creditBureauService = creditBureauService;
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.customerStage = stage("customer", 10, environment, meterRegistry);
+        this.scoringStage = stage("scoring", processors, environment, meterRegistry);
+        this.persistStage = stage("persist", 10, environment, meterRegistry);
+    }
+
+    private static PipelineStage stage(String name, int defaultThreads, Environment environment,
+                                       MeterRegistry meterRegistry) {
+        String prefix = "loan.apply.pipeline." + name;
+        return new PipelineStage(name,
+                environment.getProperty(prefix + ".threads", Integer.class, defaultThreads),
+                environment.getProperty(prefix + ".queue-capacity", Integer.class, 256),
+                meterRegistry);
+    }
+
+    /**
+     * Decides one application. Fails with {@link com.loanrisk.exception.ServiceOverloadedException} if
+     * a stage's queue is full.
+     */
+    public CompletableFuture<ApplyLoanResponse> apply(ApplyLoanRequest request) {
+        return apply(request, false);
+    }
+
+    /**
+     * Decides one application, waiting at any stage whose queue is full rather than failing. For the
+     * streaming endpoint, whose bounded window then stops it reading until the pipeline catches up.
+     */
+    public CompletableFuture<ApplyLoanResponse> applyWhenFree(ApplyLoanRequest request) {
+        return apply(request, true);
+    }
+
+    private CompletableFuture<ApplyLoanResponse> apply(ApplyLoanRequest request, boolean waitForRoom) {
+        CompletableFuture<BureauScore> bureauScore = creditBureauService.lookup(request.getCustomerId());
+        // A caller pinned to the primary (a client reading its own recent writes) stays pinned on the stage thread
+        Supplier<Customer> load = () -> loanApplicationService.loadCustomer(request.getCustomerId());
+        CompletableFuture<Customer> customer = submit(customerStage, waitForRoom,
+                DataSourceRouting.isPinnedToPrimary() ? () -> DataSourceRouting.onPrimary(load) : load);
+        RuleSetSnapshot ruleSet = scoringRuleService.getRuleSetSnapshot();
+        return customer.thenCombine(bureauScore, (loaded, bureau) -> (Supplier<ScoredApplication>)
+                        () -> loanApplicationService.score(request, loaded, ruleSet, bureau))
+                .thenCompose(score -> submit(scoringStage, waitForRoom, score))
+                .thenCompose(scored -> submit(persistStage, waitForRoom, () -> loanApplicationService.persist(scored)));
+    }
+
+    private static <T> CompletableFuture<T> submit(PipelineStage stage, boolean waitForRoom, Supplier<T> work) {
+        return waitForRoom ? stage.submitWhenFree(work) : stage.submit(work);
+    }
+
+    /**
+     * Expected queueing delay for an application submitted now, across all stages.
+     */
+    public long getExpectedWaitNanos() {
+        return customerStage.getExpectedWaitNanos()
+                + scoringStage.getExpectedWaitNanos()
+                + persistStage.getExpectedWaitNanos();
+    }
+
+    public List<PipelineStage> getStages() {
+        return List.of(customerStage, scoringStage, persistStage);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        getStages().forEach(PipelineStage::shutdown);
+    }
+}
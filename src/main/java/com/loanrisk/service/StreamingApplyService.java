@@ -0,0 +1,170 @@
+package com.loanrisk.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.loanrisk.admission.AdmissionService;
+import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.dto.ApplyStreamError;
+import com.loanrisk.exception.CustomerNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Decides a continuous NDJSON feed of {@link ApplyLoanRequest}s on one connection. Every line goes
+ * through the same admission checks and staged pipeline as {@code /loan/apply}, but where a unary
+ * request would be refused, a streamed line waits: the reader pauses until admission lets the line
+ * in, and a stage with a full queue holds it until there is room. Only a line that cannot be decided
+ * (malformed, invalid, unknown customer) is answered with an {@link ApplyStreamError}, and the stream
+ * carries on. Up to {@code loan.apply.stream.window} applications per connection are in flight;
+ * responses are written in request order as soon as the oldest one completes. When the window is full
+ * the reader blocks on the oldest application, so a slow database stops us from reading the socket
+ * and TCP flow control pushes back on the client.
+ */
+@Service
+public class StreamingApplyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingApplyService.class);
+
+    private final StagedApplyService stagedApplyService;
+    private final AdmissionService admissionService;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final int window;
+
+    @Autowired
+    public StreamingApplyService(StagedApplyService stagedApplyService,
+                                 AdmissionService admissionService,
+                                 ObjectMapper objectMapper,
+                                 Validator validator,
+                                 @Value("${loan.apply.stream.window:32}") int window) {
+        this.stagedApplyService = stagedApplyService;
+        this.admissionService = admissionService;
+        this.objectMapper = objectMapper;
+        this.requestReader = objectMapper.readerFor(ApplyLoanRequest.class);
+        this.validator = validator;
+        this.window = window;
+    }
+
+    /**
+     * @param apiKey the caller's API key, or {@code null} if none was sent
+     */
+    public long applyStream(String apiKey, InputStream body, OutputStream responseStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(responseStream, StandardCharsets.UTF_8));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.setRootValueSeparator(null);
+
+        ArrayDeque<CompletableFuture<Object>> inFlight = new ArrayDeque<>(window);
+        long lines = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            lines++;
+            inFlight.addLast(submit(apiKey, line, lines));
+
+            // Emit whatever is already finished at the head, then block only if the window is full
+            while (!inFlight.isEmpty() && inFlight.peekFirst().isDone()) {
+                write(generator, inFlight.pollFirst());
+            }
+            if (inFlight.size() >= window) {
+                flush(generator, writer);
+                write(generator, inFlight.pollFirst());
+            }
+            if (inFlight.isEmpty() || !reader.ready()) {
+                flush(generator, writer); // nothing more buffered from the client right now
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            write(generator, inFlight.pollFirst());
+            if (inFlight.isEmpty() || !inFlight.peekFirst().isDone()) {
+                flush(generator, writer);
+            }
+        }
+        flush(generator, writer);
+        logger.info("Streaming apply connection finished after {} requests", lines);
+        return lines;
+    }
+
+    private CompletableFuture<Object> submit(String apiKey, String line, long lineNumber) throws IOException {
+        ApplyLoanRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.completedFuture(error(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+        }
+        Set<ConstraintViolation<ApplyLoanRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            return CompletableFuture.completedFuture(error(lineNumber, message));
+        }
+        try {
+            admissionService.awaitAdmission(apiKey, request.getCustomerId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to admit a streamed application", e);
+        }
+        return stagedApplyService.applyWhenFree(request)
+                .<Object>thenApply(response -> response)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (!(cause instanceof CustomerNotFoundException)) {
+                        logger.error("Error deciding streamed application on line {}", lineNumber, cause);
+                        return error(lineNumber, "An unexpected error occurred: " + cause.getMessage());
+                    }
+                    return error(lineNumber, cause.getMessage());
+                });
+    }
+
+    private ApplyStreamError error(long line, String message) {
+        ApplyStreamError error = new ApplyStreamError();
+        error.setLine(line);
+        error.setError(message);
+        return error;
+    }
+
+    private void write(JsonGenerator generator, CompletableFuture<Object> result) throws IOException {
+        try {
+            generator.writeObject(result.get());
+            generator.writeRaw('\n');
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a streamed application", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause()); // exceptionally() above already mapped failures
+        }
+    }
+
+    private void flush(JsonGenerator generator, Writer writer) throws IOException {
+        generator.flush();
+        writer.flush();
+    }
+}
@@ -0,0 +1,54 @@
+-- Schema expected by the prod profile (spring.jpa.hibernate.ddl-auto=validate). Apply once per
+-- database before the first node starts; the statements run on both H2 and PostgreSQL.
+create table customer (
+    id bigint generated by default as identity,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    date_of_birth date not null,
+    address varchar(255) not null,
+    email varchar(255) not null unique,
+    city varchar(255),
+    country varchar(255),
+    zip_code varchar(255),
+    phone_number varchar(255),
+    credit_score integer,
+    employment_status varchar(255),
+    annual_income numeric(38,2),
+    existing_debt numeric(38,2),
+    marital_status varchar(255),
+    number_of_dependents integer,
+    created_at timestamp(6),
+    primary key (id)
+);
+
+create table loan_application (
+    id uuid not null,
+    customer_id bigint not null,
+    risk_score float(53),
+    risk_level varchar(255),
+    decision varchar(255),
+    explanation varchar(255),
+    created_at timestamp(6),
+    primary key (id),
+    constraint fk_loan_application_customer foreign key (customer_id) references customer
+);
+
+create index idx_loan_application_decision_created
+    on loan_application (decision, created_at, id, risk_level, risk_score, customer_id);
+create index idx_loan_application_risk_level_created
+    on loan_application (risk_level, created_at, id, decision, risk_score, customer_id);
+create index idx_loan_application_created
+    on loan_application (created_at, id, decision, risk_level, risk_score, customer_id);
+
+create table scoring_rule (
+    id bigint generated by default as identity,
+    name varchar(255),
+    field varchar(255),
+    operator varchar(255),
+    rule_value varchar(255),
+    expression varchar(1000),
+    risk_points integer not null,
+    priority integer not null,
+    enabled boolean not null,
+    primary key (id)
+);
@@ -0,0 +1,64 @@
+package com.loanrisk.admission;
+
+import com.loanrisk.exception.RateLimitExceededException;
+import com.loanrisk.exception.ServiceOverloadedException;
+import com.loanrisk.service.StagedApplyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdmissionServiceTest {
+
+    @Test
+    void admit_doesNotSpendTheApiKeyPermit_whenTheCustomerIsOverItsRate() {
+        // Two permits per API key, one per customer, refilling far slower than the test runs
+        AdmissionService admission = new AdmissionService(mock(StagedApplyService.class), new SimpleMeterRegistry(),
+                true, 500, 0.001, 1, 0.001, 2, 1000);
+
+        admission.admit("partner", 1L);
+        assertThatThrownBy(() -> admission.admit("partner", 1L)).isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("customer 1");
+
+        assertThatCode(() -> admission.admit("partner", 2L)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> admission.admit("partner", 3L)).isInstanceOf(RateLimitExceededException.class)
+                .hasMessageContaining("API key");
+    }
+
+    @Test
+    void awaitAdmission_waitsForTheCustomersNextPermit_insteadOfRefusing() throws Exception {
+        // One permit per customer, refilling every 100 ms
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionService admission = new AdmissionService(mock(StagedApplyService.class), meterRegistry,
+                true, 500, 10, 1, 1000, 1000, 1000);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            admission.awaitAdmission("partner", 1L);
+        }
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(250);
+        assertThat(meterRegistry.get("admission.throttled").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("admission.rejected").tag("reason", "customer").counter().count()).isZero();
+    }
+
+    @Test
+    void awaitAdmission_waitsWhileThePipelineIsOverItsLatencyBudget() throws Exception {
+        StagedApplyService pipeline = mock(StagedApplyService.class);
+        when(pipeline.getExpectedWaitNanos()).thenReturn(TimeUnit.MILLISECONDS.toNanos(600), TimeUnit.MILLISECONDS.toNanos(600), 0L);
+        AdmissionService admission = new AdmissionService(pipeline, new SimpleMeterRegistry(),
+                true, 500, 1000, 1000, 1000, 1000, 1000);
+
+        assertThatThrownBy(() -> admission.admit(null, 1L)).isInstanceOf(ServiceOverloadedException.class);
+        long started = System.nanoTime();
+        admission.awaitAdmission(null, 1L);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(90);
+    }
+}
@@ -0,0 +1,61 @@
+package com.loanrisk.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedTokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstThenRefillsAtRate() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(2, 3, 1000);
+        long now = 10 * SECOND;
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(buckets.tryAcquire("customer-1", now)).isZero();
+        }
+        long wait = buckets.tryAcquire("customer-1", now);
+        assertThat(wait).isEqualTo(SECOND / 2);
+        assertThat(buckets.tryAcquire("customer-2", now)).as("keys are independent").isZero();
+
+        assertThat(buckets.tryAcquire("customer-1", now + wait)).isZero();
+        assertThat(buckets.tryAcquire("customer-1", now + wait)).isPositive();
+    }
+
+    @Test
+    void releaseGivesBackAnUnusedPermit() {
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, 2, 1000);
+        long now = 10 * SECOND;
+
+        assertThat(buckets.tryAcquire("api-key", now)).isZero();
+        assertThat(buckets.tryAcquire("api-key", now)).isZero();
+        assertThat(buckets.tryAcquire("api-key", now)).isPositive();
+
+        buckets.release("api-key");
+        assertThat(buckets.tryAcquire("api-key", now)).isZero();
+        assertThat(buckets.tryAcquire("api-key", now)).isPositive();
+    }
+
+    @Test
+    void evictsOnlyFullBucketsWhenOverCapacity() {
+        // 16 stripes with room for one key each
+        StripedTokenBuckets buckets = new StripedTokenBuckets(1, 1, 16);
+        long now = 10 * SECOND;
+        for (int i = 0; i < 1000; i++) {
+            buckets.tryAcquire("key-" + i, now);
+        }
+        // every bucket is still draining, so none could be evicted
+        assertThat(buckets.size()).isEqualTo(1000);
+
+        long later = now + 2 * SECOND;
+        for (int i = 0; i < 1000; i++) {
+            buckets.tryAcquire("other-" + i, later);
+        }
+        assertThat(buckets.size()).isLessThan(2000);
+        assertThat(buckets.tryAcquire("key-1", later)).as("an evicted key starts with a full bucket").isZero();
+    }
+}
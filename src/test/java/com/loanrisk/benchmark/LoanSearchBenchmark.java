@@ -0,0 +1,131 @@
+package com.loanrisk.benchmark;
+
+import com.loanrisk.dto.LoanSearchRequest;
+import com.loanrisk.dto.LoanSearchResponse;
+import com.loanrisk.service.LoanSearchService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Loads {@code benchmark.rows} (default 10M) loan applications into H2 and checks that every search
+ * shape is planned on its search index rather than a table scan, then times the first and a deep page.
+ * H2's plan does not say whether the index alone answers the query, so this does not prove the
+ * PostgreSQL indexes ({@code db/postgresql/loan-search-indexes.sql}) give an Index Only Scan; check
+ * that with {@code EXPLAIN} on PostgreSQL.
+ *
+ * <pre>./mvnw test -Dtest=LoanSearchBenchmark -Dbenchmark=true [-Dbenchmark.rows=10000000]</pre>
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class LoanSearchBenchmark {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoanSearchService loanSearchService;
+
+    private long rows;
+
+    @BeforeAll
+    void loadRows() {
+        rows = Long.getLong("benchmark.rows", 10_000_000L);
+        jdbcTemplate.update("INSERT INTO customer (first_name, last_name, date_of_birth, address, email) "
+                + "VALUES ('Bench', 'Mark', DATE '1990-01-01', 'Nowhere', 'bench@example.com')");
+        Long customerId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM customer", Long.class);
+
+        long start = System.nanoTime();
+        // Rows spread evenly over 30 days, cycling through the three decisions and their score bands
+        long stepMillis = Math.max(1, 30L * 24 * 3600 * 1000 / rows);
+        jdbcTemplate.update("INSERT INTO loan_application "
+                + "(id, customer_id, risk_score, risk_level, decision, explanation, created_at) "
+                + "SELECT RANDOM_UUID(), CAST(? AS BIGINT), MOD(X, 100), "
+                + "CASE WHEN MOD(X, 100) < 30 THEN 'Low' WHEN MOD(X, 100) < 60 THEN 'Medium' ELSE 'High' END, "
+                + "CASE WHEN MOD(X, 100) < 30 THEN 'Approved' WHEN MOD(X, 100) < 60 THEN 'Manual Review' "
+                + "ELSE 'Rejected' END, '', DATEADD('MILLISECOND', X * CAST(? AS BIGINT), CAST(? AS TIMESTAMP)) "
+                + "FROM SYSTEM_RANGE(1, CAST(? AS BIGINT))",
+                customerId, stepMillis, EPOCH, rows);
+        jdbcTemplate.execute("ANALYZE");
+        System.out.printf("Loaded %,d loan applications in %d ms%n", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Test
+    void searchShapesUseTheSearchIndexes() {
+        assertPlanUsesIndex("SELECT id, customer_id, risk_score, risk_level, decision, created_at FROM loan_application "
+                        + "WHERE decision = 'Manual Review' AND created_at >= TIMESTAMP '2025-01-02 00:00:00' "
+                        + "AND created_at < TIMESTAMP '2025-01-03 00:00:00' ORDER BY created_at DESC, id DESC "
+                        + "FETCH FIRST 51 ROWS ONLY",
+                "IDX_LOAN_APPLICATION_DECISION_CREATED");
+        assertPlanUsesIndex("SELECT id, customer_id, risk_score, risk_level, decision, created_at FROM loan_application "
+                        + "WHERE decision = 'Manual Review' AND created_at >= TIMESTAMP '2025-01-02 00:00:00' "
+                        + "AND created_at < TIMESTAMP '2025-01-03 00:00:00' "
+                        + "AND created_at <= TIMESTAMP '2025-01-02 12:00:00' AND (created_at < TIMESTAMP "
+                        + "'2025-01-02 12:00:00' OR (created_at = TIMESTAMP '2025-01-02 12:00:00' "
+                        + "AND id < RANDOM_UUID())) ORDER BY created_at DESC, id DESC FETCH FIRST 51 ROWS ONLY",
+                "IDX_LOAN_APPLICATION_DECISION_CREATED");
+        assertPlanUsesIndex("SELECT id, customer_id, risk_score, risk_level, decision, created_at FROM loan_application "
+                        + "WHERE risk_level = 'High' AND risk_score >= 80 ORDER BY created_at DESC, id DESC "
+                        + "FETCH FIRST 51 ROWS ONLY",
+                "IDX_LOAN_APPLICATION_RISK_LEVEL_CREATED");
+        assertPlanUsesIndex("SELECT id, customer_id, risk_score, risk_level, decision, created_at FROM loan_application "
+                        + "WHERE created_at >= TIMESTAMP '2025-01-02 00:00:00' ORDER BY created_at DESC, id DESC "
+                        + "FETCH FIRST 51 ROWS ONLY",
+                "IDX_LOAN_APPLICATION_CREATED");
+    }
+
+    @Test
+    void timeFirstAndKeysetPages() {
+        LoanSearchRequest request = new LoanSearchRequest();
+        request.setDecision("Manual Review");
+        request.setCreatedFrom(EPOCH.plusDays(1));
+        request.setCreatedTo(EPOCH.plusDays(2));
+        request.setLimit(100);
+
+        for (int i = 0; i < 3; i++) { // warm-up: both the first-page and the keyset query shapes
+            paginate(request);
+        }
+
+        long start = System.nanoTime();
+        loanSearchService.search(request);
+        long firstPageMicros = (System.nanoTime() - start) / 1_000;
+
+        start = System.nanoTime();
+        int pages = paginate(request);
+        long perPageMicros = (System.nanoTime() - start) / 1_000 / pages;
+
+        System.out.printf("rows=%,d firstPage(with count)=%d us, average page=%d us over %d pages%n",
+                rows, firstPageMicros, perPageMicros, pages);
+        assertThat(pages).isGreaterThan(1);
+    }
+
+    private int paginate(LoanSearchRequest request) {
+        request.setCursor(null);
+        LoanSearchResponse page = loanSearchService.search(request);
+        int pages = 1;
+        while (page.getNextCursor() != null && pages < 200) {
+            request.setCursor(page.getNextCursor());
+            page = loanSearchService.search(request);
+            pages++;
+        }
+        request.setCursor(null);
+        return pages;
+    }
+
+    private void assertPlanUsesIndex(String sql, String expectedIndex) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertThat(plan).containsIgnoringCase(expectedIndex);
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+}
@@ -0,0 +1,79 @@
+package com.loanrisk.benchmark;
+
+import com.loanrisk.scorecard.ScorecardEngine;
+import com.loanrisk.service.ScoringInput;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Evaluates the example scorecard model and checks that an evaluation allocates nothing, using
+ * the JVM's per-thread allocation counter.
+ *
+ * <pre>./mvnw test -Dtest=ScorecardBenchmark -Dbenchmark=true</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ScorecardBenchmark {
+
+    private static final int WARMUP = 2_000_000;
+    private static final int ITERATIONS = 10_000_000;
+
+    private static volatile double sink;
+
+    @Test
+    void evaluatesWithoutAllocating() {
+        ScorecardEngine engine = new ScorecardEngine(Path.of("config/scorecard-model.json").toString(), 0.3, 0,
+                new SimpleMeterRegistry());
+        ScoringInput[] inputs = {
+                input(520, "25000.00", "40000.00", "12000.00", 23, 60),
+                input(690, "12500.50", "85000.00", "3000.00", 41, 36),
+                input(null, "40000.00", "62000.00", null, 67, 12),
+        };
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        sink = run(engine, inputs, WARMUP);
+        // The counter read itself allocates a little; subtract it using an empty measurement
+        long baselineStart = threads.getThreadAllocatedBytes(threadId);
+        long baseline = threads.getThreadAllocatedBytes(threadId) - baselineStart;
+
+        long start = System.nanoTime();
+        long allocatedStart = threads.getThreadAllocatedBytes(threadId);
+        double total = run(engine, inputs, ITERATIONS);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedStart - baseline;
+        long elapsed = System.nanoTime() - start;
+        sink = total;
+
+        System.out.printf("scorecard: %d features, %.1f ns/evaluation, %d bytes allocated over %,d evaluations%n",
+                engine.getModel().getFeatureCount(), (double) elapsed / ITERATIONS, allocated, ITERATIONS);
+        assertThat(allocated).isLessThan(ITERATIONS / 1000);
+    }
+
+    private static double run(ScorecardEngine engine, ScoringInput[] inputs, int iterations) {
+        double total = 0;
+        for (int i = 0; i < iterations; i++) {
+            total += engine.probability(inputs[i % inputs.length]);
+        }
+        return total;
+    }
+
+    private static ScoringInput input(Integer creditScore, String loanAmount, String annualIncome, String existingDebt,
+                                      int age, int termMonths) {
+        ScoringInput input = new ScoringInput();
+        input.setCustomerId(1L);
+        input.setCreditScore(creditScore);
+        input.setLoanAmount(new BigDecimal(loanAmount));
+        input.setAnnualIncome(new BigDecimal(annualIncome));
+        input.setExistingDebt(existingDebt != null ? new BigDecimal(existingDebt) : null);
+        input.setAge(age);
+        input.setLoanTermMonths(termMonths);
+        return input;
+    }
+}
@@ -0,0 +1,134 @@
+package com.loanrisk.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time from launching a JVM to its first successful {@code POST /loan/apply}, for the default
+ * packaged jar and for the fast-startup distribution with and without AOT and the CDS archive.
+ * Build the distribution first with {@code scripts/fast-startup.sh}.
+ *
+ * <pre>./mvnw test -Dtest=StartupBenchmark -Dbenchmark=true -Dbenchmark.runs=5</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class StartupBenchmark {
+
+    private static final Path JAR = Path.of("target/engine-0.0.1-SNAPSHOT.jar");
+    private static final Path FAST = Path.of("target/fast-startup");
+    private static final Path FAST_JAR = FAST.resolve("app/engine-0.0.1-SNAPSHOT.jar");
+    private static final Path ARCHIVE = FAST.resolve("app/application.jsa");
+    private static final Pattern CUSTOMER_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void timeToFirstApply() throws Exception {
+        assertThat(FAST_JAR).as("run scripts/fast-startup.sh first").exists();
+        int runs = Integer.getInteger("benchmark.runs", 3);
+        String prodDb = "jdbc:h2:file:" + FAST.resolve("data/loanrisk").toAbsolutePath();
+
+        measure("jar, create-drop + data.sql", runs, null,
+                "-jar", JAR.toString());
+        measure("prod (validate)", runs, prodDb,
+                "-Dspring.profiles.active=prod", "-jar", FAST_JAR.toString());
+        measure("prod + AOT", runs, prodDb,
+                "-Dspring.profiles.active=prod", "-Dspring.aot.enabled=true", "-jar", FAST_JAR.toString());
+        if (Files.exists(ARCHIVE)) {
+            measure("prod + AOT + CDS", runs, prodDb,
+                    "-XX:SharedArchiveFile=" + ARCHIVE, "-Xlog:cds=off",
+                    "-Dspring.profiles.active=prod", "-Dspring.aot.enabled=true", "-jar", FAST_JAR.toString());
+        }
+    }
+
+    private void measure(String mode, int runs, String databaseUrl, String... javaArgs) throws Exception {
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = launchAndApply(databaseUrl, javaArgs);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-30s time to first /loan/apply: median %5d ms, min %5d ms, max %5d ms%n",
+                mode, millis[runs / 2], millis[0], millis[runs - 1]);
+    }
+
+    private long launchAndApply(String databaseUrl, String... javaArgs) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(javaArgs));
+        command.add("--server.port=" + port);
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD);
+        if (databaseUrl != null) {
+            builder.environment().put("LOAN_DB_URL", databaseUrl);
+        }
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            String base = "http://localhost:" + port;
+            String customer = """
+                    {"firstName":"Startup","lastName":"Probe","dateOfBirth":"1985-01-01",
+                     "address":"1 Main St","email":"%s@example.com","creditScore":720,
+                     "annualIncome":80000,"existingDebt":5000}""".formatted(UUID.randomUUID());
+            String created = postUntil(base + "/customers", customer, 201, process);
+            Matcher id = CUSTOMER_ID.matcher(created);
+            assertThat(id.find()).isTrue();
+            postUntil(base + "/loan/apply",
+                    "{\"customerId\":" + id.group(1) + ",\"loanAmount\":10000,\"loanTermMonths\":36}", 200, process);
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private String postUntil(String url, String body, int expectedStatus, Process process) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(10))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+        while (System.nanoTime() < deadline) {
+            assertThat(process.isAlive()).as("application exited during startup").isTrue();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == expectedStatus) {
+                    return response.body();
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new AssertionError("No " + expectedStatus + " from " + url + " within 120s");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.loanrisk.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.dto.ApplyLoanResponse;
+import com.loanrisk.dto.GetLoanResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares JSON and CBOR for the loan DTOs: bytes on the wire and encode/decode cost per message,
+ * using mappers configured the way the application configures its message converters.
+ *
+ * <pre>./mvnw test -Dtest=WireFormatBenchmark -Dbenchmark=true</pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class WireFormatBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private final ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final ObjectMapper cbor = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .factory(new CBORFactory())
+            .build();
+
+    private static volatile Object sink;
+
+    @Test
+    void compareFormats() throws Exception {
+        Object[] messages = {applyRequest(), applyResponse(), getResponse()};
+        for (Object message : messages) {
+            Result jsonResult = measure(json, message);
+            Result cborResult = measure(cbor, message);
+            System.out.printf("%-18s json: %4d bytes, encode %5d ns, decode %5d ns | "
+                            + "cbor: %4d bytes, encode %5d ns, decode %5d ns%n",
+                    message.getClass().getSimpleName(),
+                    jsonResult.bytes, jsonResult.encodeNanos, jsonResult.decodeNanos,
+                    cborResult.bytes, cborResult.encodeNanos, cborResult.decodeNanos);
+            assertThat(cborResult.bytes).isLessThan(jsonResult.bytes);
+        }
+    }
+
+    private Result measure(ObjectMapper mapper, Object message) throws Exception {
+        Class<?> type = message.getClass();
+        byte[] encoded = mapper.writeValueAsBytes(message);
+        for (int i = 0; i < WARMUP; i++) {
+            sink = mapper.readValue(mapper.writeValueAsBytes(message), type);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = mapper.writeValueAsBytes(message);
+        }
+        long encodeNanos = (System.nanoTime() - start) / ITERATIONS;
+
+        start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = mapper.readValue(encoded, type);
+        }
+        long decodeNanos = (System.nanoTime() - start) / ITERATIONS;
+        return new Result(encoded.length, encodeNanos, decodeNanos);
+    }
+
+    private ApplyLoanRequest applyRequest() {
+        ApplyLoanRequest request = new ApplyLoanRequest();
+        request.setCustomerId(123456L);
+        request.setLoanAmount(new BigDecimal("15000.00"));
+        request.setLoanTermMonths(24);
+        return request;
+    }
+
+    private ApplyLoanResponse applyResponse() {
+        ApplyLoanResponse response = new ApplyLoanResponse();
+        response.setLoanId(UUID.randomUUID());
+        response.setRiskScore(45);
+        response.setRiskLevel("Medium");
+        response.setDecision("Manual Review");
+        response.setExplanation("Credit average (+15 points), Loan-to-income high (+25 points)");
+        return response;
+    }
+
+    private GetLoanResponse getResponse() {
+        GetLoanResponse response = new GetLoanResponse();
+        response.setLoanId(UUID.randomUUID());
+        response.setCustomerId(123456L);
+        response.setLoanAmount(new BigDecimal("15000.00"));
+        response.setLoanTermMonths(24);
+        response.setRiskScore(45);
+        response.setRiskLevel("Medium");
+        response.setDecision("Manual Review");
+        response.setExplanation("Credit average (+15 points), Loan-to-income high (+25 points)");
+        response.setCreatedAt(LocalDateTime.of(2025, 3, 1, 10, 15, 30));
+        return response;
+    }
+
+    private record Result(int bytes, long encodeNanos, long decodeNanos) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.loanrisk.bureau;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.entity.Customer;
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.repository.CustomerRepository;
+import com.loanrisk.repository.LoanApplicationRepository;
+import com.loanrisk.repository.ScoringRuleRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"loan.bureau.enabled=true", "loan.bureau.timeout-ms=200"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class CreditBureauIntegrationTest {
+
+    private static final String RULE = "Bureau score poor";
+
+    private static final StubCreditBureauServer bureau = start();
+
+    @DynamicPropertySource
+    static void bureauUrl(DynamicPropertyRegistry registry) {
+        registry.add("loan.bureau.url", bureau::url);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private ScoringRuleRepository scoringRuleRepository;
+
+    private ScoringRule rule;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        customerRepository.deleteAll();
+        rule = new ScoringRule();
+        rule.setName(RULE);
+        rule.setField("creditScore");
+        rule.setOperator("<");
+        rule.setRuleValue("600");
+        rule.setRiskPoints(30);
+        rule.setPriority(99);
+        rule.setEnabled(true);
+        rule = scoringRuleRepository.save(rule);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scoringRuleRepository.delete(rule);
+    }
+
+    @AfterAll
+    static void stopBureau() {
+        bureau.close();
+    }
+
+    @Test
+    void apply_scoresWithTheBureauScore_andLeavesTheStoredScoreAlone() throws Exception {
+        Customer customer = customer("bea.bureau@example.com");
+        bureau.setScore(customer.getId(), 540);
+
+        apply(customer).andExpect(jsonPath("$.explanation", containsString(RULE)));
+
+        assertThat(customerRepository.findById(customer.getId()).orElseThrow().getCreditScore()).isEqualTo(780);
+    }
+
+    @Test
+    void apply_usesTheStoredScore_whenTheBureauIsTooSlow() throws Exception {
+        Customer customer = customer("sam.slow@example.com");
+        bureau.setScore(customer.getId(), 540);
+        bureau.delayNext(1_000);
+        bureau.delayNext(1_000);
+
+        apply(customer).andExpect(jsonPath("$.explanation", not(containsString(RULE))));
+    }
+
+    private ResultActions apply(Customer customer) throws Exception {
+        ApplyLoanRequest apply = new ApplyLoanRequest();
+        apply.setCustomerId(customer.getId());
+        apply.setLoanAmount(new BigDecimal("12000.00"));
+        apply.setLoanTermMonths(24);
+        MvcResult started = mockMvc.perform(post("/loan/apply")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(apply)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+
+    private Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setFirstName("Bea");
+        customer.setLastName("Bureau");
+        customer.setDateOfBirth(LocalDate.of(1979, 3, 14));
+        customer.setAddress("14 Ledger Lane");
+        customer.setEmail(email);
+        customer.setCreditScore(780);
+        customer.setEmploymentStatus("Full-time");
+        customer.setAnnualIncome(new BigDecimal("68000.00"));
+        customer.setExistingDebt(new BigDecimal("2000.00"));
+        customer.setCreatedAt(LocalDateTime.now());
+        return customerRepository.save(customer);
+    }
+
+    private static StubCreditBureauServer start() {
+        try {
+            return new StubCreditBureauServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
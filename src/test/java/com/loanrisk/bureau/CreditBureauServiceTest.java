@@ -0,0 +1,170 @@
+package com.loanrisk.bureau;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreditBureauServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private StubCreditBureauServer bureau;
+    private HttpCreditBureauClient client;
+    private CreditBureauService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        bureau = new StubCreditBureauServer();
+        bureau.setScore(1L, 640);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        client.shutdown();
+        bureau.close();
+    }
+
+    @Test
+    void lookup_callsTheBureauOncePerCustomer_andAnswersRepeatsFromTheCache() throws Exception {
+        service = service(1_000, 1_000, 60_000, 0.8, 20, 5_000);
+        bureau.setScore(2L, 710);
+        bureau.setDelayMillis(100);
+
+        List<CompletableFuture<BureauScore>> concurrent = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            concurrent.add(service.lookup(2L));
+        }
+        for (CompletableFuture<BureauScore> lookup : concurrent) {
+            assertThat(lookup.get(5, TimeUnit.SECONDS).getCreditScore()).isEqualTo(710);
+        }
+        assertThat(bureau.getRequests()).isEqualTo(1);
+
+        CompletableFuture<BureauScore> cached = service.lookup(2L);
+        assertThat(cached).isCompleted();
+        assertThat(cached.get().getCreditScore()).isEqualTo(710);
+        assertThat(bureau.getRequests()).isEqualTo(1);
+        assertThat(meterRegistry.get("bureau.lookups").tag("result", "miss").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("bureau.lookups").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bureau.calls").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void lookup_cachesAnUnknownCustomer_asASuccessfulCallWithoutAScore() throws Exception {
+        service = service(1_000, 1_000, 60_000, 0.8, 4, 5_000);
+
+        for (int i = 0; i < 5; i++) {
+            BureauScore unknown = service.lookup(99L).get(5, TimeUnit.SECONDS);
+            assertThat(unknown).isNotNull();
+            assertThat(unknown.getCreditScore()).isNull();
+        }
+        assertThat(bureau.getRequests()).isEqualTo(1);
+        assertThat(meterRegistry.get("bureau.lookups").tag("result", "hit").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("bureau.calls").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void lookup_refreshesAheadOfExpiry_whileAnsweringFromTheCache() throws Exception {
+        service = service(1_000, 1_000, 5_000, 0.01, 20, 5_000);
+        assertThat(service.lookup(1L).get(5, TimeUnit.SECONDS).getCreditScore()).isEqualTo(640);
+
+        bureau.setScore(1L, 702);
+        Thread.sleep(100);
+        CompletableFuture<BureauScore> refreshing = service.lookup(1L);
+        assertThat(refreshing).isCompleted();
+        assertThat(refreshing.get().getCreditScore()).isEqualTo(640);
+
+        eventually(() -> bureau.getRequests() == 2 && service.lookup(1L).join().getCreditScore() == 702);
+        assertThat(meterRegistry.get("bureau.lookups").tag("result", "refresh-ahead").counter().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void lookup_hedgesASlowCall_andTakesTheFirstAnswer() throws Exception {
+        service = service(2_000, 50, 60_000, 0.8, 20, 5_000);
+        bureau.delayNext(1_500);
+
+        long started = System.nanoTime();
+        BureauScore score = service.lookup(1L).get(5, TimeUnit.SECONDS);
+
+        assertThat(score.getCreditScore()).isEqualTo(640);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isLessThan(1_000);
+        assertThat(bureau.getRequests()).isEqualTo(2);
+        assertThat(meterRegistry.get("bureau.hedges").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void lookup_fallsBackToTheStoredScore_thenToTheStaleCachedScore_whenTheBureauIsSlow() throws Exception {
+        service = service(100, 1_000, 200, 0.8, 20, 5_000);
+        bureau.setDelayMillis(400);
+
+        assertThat(service.lookup(1L).get(5, TimeUnit.SECONDS)).isNull();
+        eventually(() -> fallbacks("stored", "timeout") == 1);
+
+        // The slow call was not cancelled: its score is cached once it answers, then expires
+        eventually(() -> meterRegistry.get("bureau.calls").tag("outcome", "success").timer().count() == 1);
+        Thread.sleep(250);
+        BureauScore stale = service.lookup(1L).get(5, TimeUnit.SECONDS);
+
+        assertThat(stale.getCreditScore()).isEqualTo(640);
+        eventually(() -> fallbacks("cache", "timeout") == 1);
+    }
+
+    @Test
+    void circuitBreaker_opensOnFailures_rejectsCallsWhileOpen_andClosesAfterASuccessfulTrial() throws Exception {
+        service = service(1_000, 1_000, 60_000, 0.8, 4, 300);
+        bureau.setFailing(true);
+
+        for (long customerId = 1; customerId <= 4; customerId++) {
+            assertThat(service.lookup(customerId).get(5, TimeUnit.SECONDS)).isNull();
+        }
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        eventually(() -> fallbacks("stored", "failure") == 4);
+
+        assertThat(service.lookup(5L).get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(bureau.getRequests()).isEqualTo(4);
+        assertThat(meterRegistry.get("bureau.circuit.rejected").counter().count()).isEqualTo(1);
+        eventually(() -> fallbacks("stored", "circuit-open") == 1);
+        assertThat(meterRegistry.get("bureau.circuit.state").gauge().value()).isEqualTo(2.0);
+
+        bureau.setFailing(false);
+        Thread.sleep(400);
+        assertThat(service.lookup(1L).get(5, TimeUnit.SECONDS).getCreditScore()).isEqualTo(640);
+        assertThat(service.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    private CreditBureauService service(long timeoutMillis, long hedgeDelayMillis, long ttlMillis, double refreshAhead,
+                                        int circuitWindow, long circuitOpenMillis) {
+        client = new HttpCreditBureauClient(bureau.url(), 2_000, new ObjectMapper());
+        return new CreditBureauService(client, true, timeoutMillis, hedgeDelayMillis, ttlMillis, refreshAhead,
+                86_400_000, 10_000, circuitWindow, 0.5, circuitOpenMillis, meterRegistry);
+    }
+
+    /**
+     * Fallbacks are counted just after the lookup is answered, so tests wait for the count.
+     */
+    private double fallbacks(String source, String reason) {
+        Counter counter = meterRegistry.find("bureau.fallbacks").tags("source", source, "reason", reason).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
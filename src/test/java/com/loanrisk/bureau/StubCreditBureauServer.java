@@ -0,0 +1,96 @@
+package com.loanrisk.bureau;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local credit bureau for tests: answers {@code GET /scores/<customerId>} with the score set for
+ * the customer (404 if none), after a configurable delay. Delays queued with {@link #delayNext}
+ * apply to one request each, in arrival order, before the default delay.
+ */
+class StubCreditBureauServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<Long, Integer> scores = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Long> nextDelays = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long delayMillis;
+    private volatile boolean failing;
+
+    StubCreditBureauServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/scores/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void setScore(long customerId, int creditScore) {
+        scores.put(customerId, creditScore);
+    }
+
+    void setDelayMillis(long delayMillis) {
+        this.delayMillis = delayMillis;
+    }
+
+    void delayNext(long delayMillis) {
+        nextDelays.add(delayMillis);
+    }
+
+    void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+
+    int getRequests() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            Long delay = nextDelays.poll();
+            Thread.sleep(delay != null ? delay : delayMillis);
+            if (failing) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            long customerId = Long.parseLong(exchange.getRequestURI().getPath().substring("/scores/".length()));
+            Integer score = scores.get(customerId);
+            if (score == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] body = ("{\"customerId\":" + customerId + ",\"creditScore\":" + score + "}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
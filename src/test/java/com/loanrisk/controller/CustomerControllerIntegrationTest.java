@@ -16,6 +16,8 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -104,4 +106,64 @@ public class CustomerControllerIntegrationTest {
         mockMvc.perform(get("/customers/{id}", 999L))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void importCustomers_csv_reportsEachRowWithoutAbortingOnBadRows() throws Exception {
+        Customer existing = new Customer();
+        existing.setFirstName("Jane");
+        existing.setLastName("Doe");
+        existing.setDateOfBirth(LocalDate.of(1985, 10, 20));
+        existing.setAddress("456 Oak Ave");
+        existing.setEmail("jane.doe@example.com");
+        customerRepository.save(existing);
+
+        String body = "firstName,lastName,dateOfBirth,address,email\n"
+                + "John,Doe,1990-05-15,\"123 Main St, Apt 4\",john.doe@example.com\n"
+                + "Johnny,Doe,1991-01-01,1 Elm St,john.doe@example.com\n"
+                + ",Smith,1980-01-01,2 Elm St,no.name@example.com\n"
+                + "Jane,Again,1985-10-20,3 Elm St,jane.doe@example.com\n"
+                + "Mary,Smith,not-a-date,4 Elm St,mary@example.com\n";
+
+        String report = mockMvc.perform(post("/customers/import")
+                        .contentType("text/csv")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = report.split("\\n");
+        assertThat(lines).hasSize(5);
+        assertThat(objectMapper.readTree(lines[0]).get("status").asText()).isEqualTo("CREATED");
+        assertThat(objectMapper.readTree(lines[1]).get("status").asText()).isEqualTo("DUPLICATE");
+        assertThat(objectMapper.readTree(lines[2]).get("status").asText()).isEqualTo("INVALID");
+        assertThat(objectMapper.readTree(lines[2]).get("error").asText()).contains("firstName");
+        assertThat(objectMapper.readTree(lines[3]).get("status").asText()).isEqualTo("DUPLICATE");
+        assertThat(objectMapper.readTree(lines[4]).get("status").asText()).isEqualTo("INVALID");
+
+        Long createdId = objectMapper.readTree(lines[0]).get("customerId").asLong();
+        assertThat(customerRepository.findById(createdId)).get()
+                .extracting(Customer::getAddress).isEqualTo("123 Main St, Apt 4");
+        assertThat(customerRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void importCustomers_ndjson_skipsMalformedLines() throws Exception {
+        String body = "{\"firstName\":\"Ann\",\"lastName\":\"Lee\",\"dateOfBirth\":\"1970-02-03\","
+                + "\"address\":\"5 Pine Rd\",\"email\":\"ann.lee@example.com\"}\n"
+                + "{not json\n"
+                + "{\"firstName\":\"Bo\",\"lastName\":\"Lee\",\"dateOfBirth\":\"1972-04-05\","
+                + "\"address\":\"5 Pine Rd\",\"email\":\"bo.lee@example.com\"}\n";
+
+        String report = mockMvc.perform(post("/customers/import")
+                        .contentType("application/x-ndjson")
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = report.split("\\n");
+        assertThat(lines).hasSize(3);
+        assertThat(objectMapper.readTree(lines[0]).get("status").asText()).isEqualTo("CREATED");
+        assertThat(objectMapper.readTree(lines[1]).get("status").asText()).isEqualTo("INVALID");
+        assertThat(objectMapper.readTree(lines[2]).get("status").asText()).isEqualTo("CREATED");
+        assertThat(customerRepository.count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,185 @@
+package com.loanrisk.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.entity.Customer;
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.repository.CustomerRepository;
+import com.loanrisk.repository.LoanApplicationRepository;
+import com.loanrisk.repository.ScoringRuleRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class DiagnosticsControllerIntegrationTest {
+
+    private static final String RULE = "Latency test rule";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private ScoringRuleRepository scoringRuleRepository;
+
+    private Customer customer;
+    private ScoringRule rule;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        customerRepository.deleteAll();
+        customer = new Customer();
+        customer.setFirstName("Lena");
+        customer.setLastName("Latency");
+        customer.setDateOfBirth(LocalDate.of(1982, 7, 9));
+        customer.setAddress("9 Percentile Row");
+        customer.setEmail("lena.latency@example.com");
+        customer.setCreditScore(690);
+        customer.setEmploymentStatus("Full-time");
+        customer.setAnnualIncome(new BigDecimal("72000.00"));
+        customer.setExistingDebt(new BigDecimal("3000.00"));
+        customer.setCreatedAt(LocalDateTime.now());
+        customer = customerRepository.save(customer);
+
+        rule = new ScoringRule();
+        rule.setName(RULE);
+        rule.setField("creditScore");
+        rule.setOperator("<");
+        rule.setRuleValue("900");
+        rule.setRiskPoints(1);
+        rule.setPriority(99);
+        rule.setEnabled(true);
+        rule = scoringRuleRepository.save(rule);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scoringRuleRepository.delete(rule);
+    }
+
+    @Test
+    void latency_reportsEndpointsAndRules_andIntervalsResetOnRead() throws Exception {
+        mockMvc.perform(get("/diagnostics/latency").param("interval", "true")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/customers/{id}", customer.getId())).andExpect(status().isOk());
+        ApplyLoanRequest apply = new ApplyLoanRequest();
+        apply.setCustomerId(customer.getId());
+        apply.setLoanAmount(new BigDecimal("15000.00"));
+        apply.setLoanTermMonths(24);
+        MvcResult started = mockMvc.perform(post("/loan/apply")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(apply)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/diagnostics/latency")
+                        .param("interval", "true")
+                        .param("percentiles", "50,99.9"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.interval").value(true))
+                .andExpect(jsonPath("$.endpoints['GET /customers/{id}'].count").value(1))
+                .andExpect(jsonPath("$.endpoints['GET /customers/{id}'].percentileNanos.p50").value(greaterThan(0)))
+                .andExpect(jsonPath("$.endpoints['GET /customers/{id}'].percentileNanos['p99.9']").exists())
+                .andExpect(jsonPath("$.endpoints['POST /loan/apply'].count").value(1))
+                .andExpect(jsonPath("$.rules['" + RULE + "'].count").value(1));
+
+        mockMvc.perform(get("/diagnostics/latency").param("interval", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.endpoints['GET /customers/{id}'].count").value(0))
+                .andExpect(jsonPath("$.endpoints['GET /diagnostics/latency'].count").value(1));
+
+        mockMvc.perform(get("/diagnostics/latency"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.interval").value(false))
+                .andExpect(jsonPath("$.endpoints['GET /customers/{id}'].count").value(greaterThan(0)))
+                .andExpect(jsonPath("$.endpoints['GET /customers/{id}'].percentileNanos['p99.99']").exists());
+    }
+
+    @Test
+    void rules_publishTheEvaluationOrder_withEachRulesHitRateAndCost() throws Exception {
+        long before = hits();
+
+        ApplyLoanRequest apply = new ApplyLoanRequest();
+        apply.setCustomerId(customer.getId());
+        apply.setLoanAmount(new BigDecimal("15000.00"));
+        apply.setLoanTermMonths(24);
+        MvcResult started = mockMvc.perform(post("/loan/apply")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(apply)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        // The test rule has the highest priority number, so it is evaluated last
+        MvcResult plan = mockMvc.perform(get("/diagnostics/rules"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.order").value("priority"))
+                .andExpect(jsonPath("$.ruleSetVersion").exists())
+                .andReturn();
+        JsonNode rules = objectMapper.readTree(plan.getResponse().getContentAsString()).get("rules");
+        JsonNode last = rules.get(rules.size() - 1);
+        assertThat(last.get("name").asText()).isEqualTo(RULE);
+        assertThat(last.get("hitRate").asDouble()).isEqualTo(1.0);
+        assertThat(last.get("meanCostNanos").asDouble()).isPositive();
+        for (int i = 0; i < rules.size(); i++) {
+            assertThat(rules.get(i).get("position").asInt()).isEqualTo(i + 1);
+            if (i > 0) {
+                assertThat(rules.get(i).get("priority").asInt())
+                        .isGreaterThanOrEqualTo(rules.get(i - 1).get("priority").asInt());
+            }
+        }
+        assertThat(hits()).isEqualTo(before + 1);
+    }
+
+    private long hits() throws Exception {
+        JsonNode rules = objectMapper.readTree(mockMvc.perform(get("/diagnostics/rules"))
+                .andReturn().getResponse().getContentAsString()).get("rules");
+        for (JsonNode rule : rules) {
+            if (RULE.equals(rule.get("name").asText())) {
+                return rule.get("hits").asLong();
+            }
+        }
+        throw new AssertionError(RULE + " is not in the evaluation plan");
+    }
+
+    @Test
+    void latency_rejectsPercentilesOutsideTheRange() throws Exception {
+        mockMvc.perform(get("/diagnostics/latency").param("percentiles", "50,101"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+    }
+}
@@ -1,7 +1,12 @@
 package com.loanrisk.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.loanrisk.dto.ApplyLoanResponse;
 import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.dto.GetLoanResponse;
+import com.loanrisk.dto.LoanLookupRequest;
+import com.loanrisk.dto.LoanSearchRequest;
 import com.loanrisk.entity.Customer;
 import com.loanrisk.entity.LoanApplication;
 import com.loanrisk.repository.CustomerRepository;
@@ -14,15 +19,22 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -75,9 +87,13 @@ public class LoanControllerIntegrationTest {
         request.setLoanAmount(new BigDecimal("10000.00"));
         request.setLoanTermMonths(36);
 
-        mockMvc.perform(post("/loan/apply")
+        MvcResult result = mockMvc.perform(post("/loan/apply")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.loanId").exists())
                 .andExpect(jsonPath("$.riskScore").exists())
@@ -86,6 +102,49 @@ public class LoanControllerIntegrationTest {
                 .andExpect(jsonPath("$.explanation").exists());
     }
 
+    @Test
+    void applyLoan_unknownCustomer_returnsNotFoundFromPipeline() throws Exception {
+        ApplyLoanRequest request = new ApplyLoanRequest();
+        request.setCustomerId(999999L);
+        request.setLoanAmount(new BigDecimal("10000.00"));
+        request.setLoanTermMonths(36);
+
+        MvcResult result = mockMvc.perform(post("/loan/apply")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value(containsString("999999")));
+        assertThat(loanApplicationRepository.count()).isZero();
+    }
+
+    @Test
+    void applyLoan_overCustomerRate_returnsTooManyRequestsWithRetryAfter() throws Exception {
+        ApplyLoanRequest request = new ApplyLoanRequest();
+        request.setCustomerId(testCustomer.getId());
+        request.setLoanAmount(new BigDecimal("10000.00"));
+        request.setLoanTermMonths(36);
+        String body = objectMapper.writeValueAsString(request);
+
+        int status = 0;
+        for (int i = 0; i < 20 && status != 429; i++) {
+            MvcResult result = mockMvc.perform(post("/loan/apply")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andReturn();
+            status = result.getResponse().getStatus();
+            if (status == 429) {
+                assertThat(result.getResponse().getHeader("Retry-After")).isEqualTo("1");
+            } else {
+                mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+            }
+        }
+        assertThat(status).isEqualTo(429);
+    }
+
     @Test
     void applyLoan_invalidRequest_returnsBadRequest() throws Exception {
         ApplyLoanRequest request = new ApplyLoanRequest();
@@ -97,6 +156,62 @@ public class LoanControllerIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void applyLoanStream_answersEveryLineInRequestOrder() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            body.append("{\"customerId\":").append(testCustomer.getId())
+                    .append(",\"loanAmount\":1000,\"loanTermMonths\":12}\n");
+        }
+        body.append("{\"customerId\":").append(testCustomer.getId()).append(",\"loanTermMonths\":12}\n");
+        body.append("{\"customerId\":999999,\"loanAmount\":1000,\"loanTermMonths\":12}\n");
+        body.append("not json\n");
+
+        String response = mockMvc.perform(post("/loan/apply/stream")
+                        .contentType("application/x-ndjson")
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.split("\\n");
+        assertThat(lines).hasSize(8);
+        for (int i = 0; i < 5; i++) {
+            assertThat(objectMapper.readTree(lines[i]).get("loanId").asText()).isNotBlank();
+        }
+        assertThat(objectMapper.readTree(lines[5]).get("line").asInt()).isEqualTo(6);
+        assertThat(objectMapper.readTree(lines[5]).get("error").asText()).contains("loanAmount");
+        assertThat(objectMapper.readTree(lines[6]).get("error").asText()).contains("Customer not found");
+        assertThat(objectMapper.readTree(lines[7]).get("error").asText()).startsWith("Malformed JSON");
+        assertThat(loanApplicationRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void applyLoanStream_slowsLinesOverTheCustomerRate_insteadOfRefusingThem() throws Exception {
+        // The customer's burst is 10 at 5 per second, so the last 10 of a quick stream of 20 have to wait
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            body.append("{\"customerId\":").append(testCustomer.getId())
+                    .append(",\"loanAmount\":1000,\"loanTermMonths\":12}\n");
+        }
+
+        long started = System.nanoTime();
+        String response = mockMvc.perform(post("/loan/apply/stream")
+                        .contentType("application/x-ndjson")
+                        .header("X-API-Key", "stream-partner")
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = response.split("\\n");
+        assertThat(lines).hasSize(20);
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).has("loanId")).as(line).isTrue();
+        }
+        assertThat(loanApplicationRepository.count()).isEqualTo(20);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started)).isGreaterThanOrEqualTo(1_000);
+    }
+
     @Test
     void getLoan_existingLoan_returnsLoanDetails() throws Exception {
         LoanApplication loanApplication = new LoanApplication();
@@ -117,6 +232,49 @@ public class LoanControllerIntegrationTest {
                 .andExpect(jsonPath("$.explanation").value(savedLoan.getExplanation()));
     }
 
+    @Test
+    void applyAndGetLoan_cbor_roundTripsSameDtos() throws Exception {
+        ObjectMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+        MediaType cbor = MediaType.parseMediaType("application/cbor");
+
+        ApplyLoanRequest request = new ApplyLoanRequest();
+        request.setCustomerId(testCustomer.getId());
+        request.setLoanAmount(new BigDecimal("10000.00"));
+        request.setLoanTermMonths(36);
+
+        MvcResult applyResult = mockMvc.perform(post("/loan/apply")
+                        .contentType(cbor)
+                        .accept(cbor)
+                        .content(cborMapper.writeValueAsBytes(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] applyBody = mockMvc.perform(asyncDispatch(applyResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        ApplyLoanResponse applied = cborMapper.readValue(applyBody, ApplyLoanResponse.class);
+        assertThat(applied.getLoanId()).isNotNull();
+
+        byte[] getBody = mockMvc.perform(get("/loan/" + applied.getLoanId()).accept(cbor))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+        GetLoanResponse fetched = cborMapper.readValue(getBody, GetLoanResponse.class);
+        assertThat(fetched.getLoanId()).isEqualTo(applied.getLoanId());
+        assertThat(fetched.getDecision()).isEqualTo(applied.getDecision());
+        assertThat(fetched.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    void applyLoan_cborInvalidRequest_returnsBadRequest() throws Exception {
+        ObjectMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+
+        mockMvc.perform(post("/loan/apply")
+                        .contentType(MediaType.parseMediaType("application/cbor"))
+                        .content(cborMapper.writeValueAsBytes(new ApplyLoanRequest())))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getLoan_nonExistingLoan_returnsNotFound() throws Exception {
         UUID nonExistingId = UUID.randomUUID();
@@ -124,4 +282,176 @@ public class LoanControllerIntegrationTest {
         mockMvc.perform(get("/loan/" + nonExistingId))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void lookupLoans_returnsLoansInRequestOrder_withNotFoundMarkers() throws Exception {
+        LoanApplication first = saveLoan("Approved", "Low", 12.0, LocalDateTime.of(2025, 2, 1, 9, 0));
+        LoanApplication second = saveLoan("Rejected", "High", 81.0, LocalDateTime.of(2025, 2, 1, 9, 5));
+        UUID missing = UUID.randomUUID();
+
+        LoanLookupRequest request = new LoanLookupRequest();
+        request.setLoanIds(List.of(second.getId(), missing, first.getId(), second.getId()));
+
+        mockMvc.perform(post("/loan/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.foundCount").value(3))
+                .andExpect(jsonPath("$.results", hasSize(4)))
+                .andExpect(jsonPath("$.results[0].loanId").value(second.getId().toString()))
+                .andExpect(jsonPath("$.results[0].found").value(true))
+                .andExpect(jsonPath("$.results[0].loan.decision").value("Rejected"))
+                .andExpect(jsonPath("$.results[0].loan.riskScore").value(81))
+                .andExpect(jsonPath("$.results[0].loan.customerId").value(testCustomer.getId()))
+                .andExpect(jsonPath("$.results[1].loanId").value(missing.toString()))
+                .andExpect(jsonPath("$.results[1].found").value(false))
+                .andExpect(jsonPath("$.results[1].loan").doesNotExist())
+                .andExpect(jsonPath("$.results[2].loan.decision").value("Approved"))
+                .andExpect(jsonPath("$.results[2].loan.createdAt").value("2025-02-01T09:00:00"))
+                .andExpect(jsonPath("$.results[3].loanId").value(second.getId().toString()))
+                .andExpect(jsonPath("$.results[3].found").value(true));
+    }
+
+    @Test
+    void lookupLoans_emptyIdList_returnsBadRequest() throws Exception {
+        LoanLookupRequest request = new LoanLookupRequest();
+        request.setLoanIds(List.of());
+
+        mockMvc.perform(post("/loan/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void searchLoans_filtersByDecisionAndPagesWithCursor() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        for (int i = 0; i < 3; i++) {
+            saveLoan("Manual Review", "Medium", 40.0, base.plusMinutes(i));
+        }
+        saveLoan("Approved", "Low", 10.0, base.plusMinutes(10));
+
+        LoanSearchRequest request = new LoanSearchRequest();
+        request.setDecision("Manual Review");
+        request.setCreatedFrom(base);
+        request.setCreatedTo(base.plusDays(1));
+        request.setLimit(2);
+
+        String firstPage = mockMvc.perform(post("/loan/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].createdAt").value("2025-01-01T12:02:00"))
+                .andExpect(jsonPath("$.items[0].decision").value("Manual Review"))
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.countApproximate").value(false))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        request.setCursor(objectMapper.readTree(firstPage).get("nextCursor").asText());
+        mockMvc.perform(post("/loan/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].createdAt").value("2025-01-01T12:00:00"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void searchLoans_fractionalScoreBounds_areComparedWithTheStoredScore() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        saveLoan("Manual Review", "Medium", 45.0, base);
+        saveLoan("Manual Review", "Medium", 45.5, base.plusMinutes(1));
+        saveLoan("Manual Review", "Medium", 46.0, base.plusMinutes(2));
+
+        mockMvc.perform(post("/loan/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"minRiskScore\": 45.5, \"maxRiskScore\": 45.9}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].createdAt").value("2025-01-01T12:01:00"));
+    }
+
+    @Test
+    void searchLoans_invalidScoreRange_returnsBadRequest() throws Exception {
+        LoanSearchRequest request = new LoanSearchRequest();
+        request.setMinRiskScore(60.0);
+        request.setMaxRiskScore(30.0);
+
+        mockMvc.perform(post("/loan/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportDecisions_ndjson_streamsOneLinePerDecisionInWindow() throws Exception {
+        LocalDateTime base = LocalDateTime.of(2025, 2, 1, 9, 0);
+        LoanApplication first = saveLoan("Approved", "Low", 10.0, base);
+        LoanApplication second = saveLoan("Rejected", "High", 75.0, base.plusHours(1));
+        saveLoan("Approved", "Low", 5.0, base.plusDays(2)); // outside the window
+
+        MvcResult result = mockMvc.perform(get("/loan/export")
+                        .param("from", "2025-02-01T00:00:00")
+                        .param("to", "2025-02-02T00:00:00")
+                        .param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).as("the export's own timeout").isEqualTo(3_600_000L);
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("loanId").asText())
+                .isEqualTo(first.getId().toString());
+        assertThat(objectMapper.readTree(lines[1]).get("decision").asText())
+                .isEqualTo(second.getDecision());
+    }
+
+    @Test
+    void exportDecisions_csv_quotesExplanations() throws Exception {
+        LoanApplication loan = saveLoan("Manual Review", "Medium", 45.0, LocalDateTime.of(2025, 2, 1, 9, 0));
+        loan.setExplanation("Credit average (+15 points), Debt is high (+20 points)");
+        loanApplicationRepository.save(loan);
+
+        MvcResult result = mockMvc.perform(get("/loan/export")
+                        .param("from", "2025-02-01T00:00:00")
+                        .param("to", "2025-02-02T00:00:00")
+                        .param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("loanId,customerId,riskScore")))
+                .andExpect(content().string(containsString(loan.getId() + "," + testCustomer.getId()
+                        + ",45,Medium,Manual Review,\"Credit average (+15 points), Debt is high (+20 points)\","
+                        + "2025-02-01T09:00")));
+    }
+
+    @Test
+    void exportDecisions_unknownFormat_returnsBadRequest() throws Exception {
+        mockMvc.perform(get("/loan/export")
+                        .param("from", "2025-02-01T00:00:00")
+                        .param("to", "2025-02-02T00:00:00")
+                        .param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private LoanApplication saveLoan(String decision, String riskLevel, double riskScore, LocalDateTime createdAt) {
+        LoanApplication loanApplication = new LoanApplication();
+        loanApplication.setCustomer(testCustomer);
+        loanApplication.setRiskScore(riskScore);
+        loanApplication.setRiskLevel(riskLevel);
+        loanApplication.setDecision(decision);
+        loanApplication.setExplanation("");
+        loanApplication.setCreatedAt(createdAt);
+        return loanApplicationRepository.save(loanApplication);
+    }
+}
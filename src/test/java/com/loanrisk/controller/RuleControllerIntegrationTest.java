@@ -8,13 +8,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "rules.refresh-interval-ms=100")
 @AutoConfigureMockMvc
 public class RuleControllerIntegrationTest {
 
@@ -24,6 +30,9 @@ public class RuleControllerIntegrationTest {
     @Autowired
     private ScoringRuleRepository scoringRuleRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeEach
     void setUp() {
         scoringRuleRepository.deleteAll();
@@ -66,4 +75,93 @@ public class RuleControllerIntegrationTest {
                 .andExpect(jsonPath("$[1].name", is("Rule 1")))
                 .andExpect(jsonPath("$[1].priority", is(1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getActiveRules_withMatchingIfNoneMatch_returnsNotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/rules"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("X-Rule-Set-Version"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/rules").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getActiveRules_afterRuleChange_servesNewVersionAndEtag() throws Exception {
+        MvcResult before = mockMvc.perform(get("/rules")).andReturn();
+        String version = before.getResponse().getHeader("X-Rule-Set-Version");
+
+        ScoringRule rule4 = new ScoringRule();
+        rule4.setName("Rule 4");
+        rule4.setRuleValue("condition4");
+        rule4.setRiskPoints(5);
+        rule4.setPriority(3);
+        rule4.setEnabled(true);
+        scoringRuleRepository.save(rule4);
+
+        mockMvc.perform(get("/rules").header("If-None-Match", before.getResponse().getHeader("ETag")))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Rule-Set-Version", not(version)))
+                .andExpect(jsonPath("$", hasSize(3)));
+
+        // The version comes from the rules themselves: the same rules have the same version again
+        scoringRuleRepository.delete(rule4);
+        mockMvc.perform(get("/rules"))
+                .andExpect(header().string("X-Rule-Set-Version", version))
+                .andExpect(header().string("ETag", before.getResponse().getHeader("ETag")));
+    }
+
+    @Test
+    void getActiveRules_afterChangeMadeOutsideJpa_servesItOnceRefreshed() throws Exception {
+        String version = mockMvc.perform(get("/rules")).andReturn().getResponse().getHeader("X-Rule-Set-Version");
+
+        jdbcTemplate.update("update scoring_rule set risk_points = 77 where name = 'Rule 3'");
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        MvcResult after;
+        do {
+            assertThat(System.nanoTime()).as("change not picked up within 5s").isLessThan(deadline);
+            Thread.sleep(50);
+            after = mockMvc.perform(get("/rules")).andReturn();
+        } while (version.equals(after.getResponse().getHeader("X-Rule-Set-Version")));
+        assertThat(after.getResponse().getContentAsString()).contains("\"riskPoints\":77");
+    }
+
+    @Test
+    void getActiveRules_longPoll_completesWhenRulesChange() throws Exception {
+        MvcResult before = mockMvc.perform(get("/rules")).andReturn();
+        String version = before.getResponse().getHeader("X-Rule-Set-Version");
+
+        MvcResult pending = mockMvc.perform(get("/rules").param("waitForChange", version))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        ScoringRule rule = scoringRuleRepository.findByEnabledOrderByPriorityAsc(true).get(0);
+        rule.setRiskPoints(99);
+        scoringRuleRepository.save(rule);
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Rule-Set-Version", not(version)))
+                .andExpect(jsonPath("$[0].riskPoints", is(99)));
+    }
+
+    @Test
+    void getActiveRules_longPollFromAnotherVersion_returnsImmediately() throws Exception {
+        MvcResult before = mockMvc.perform(get("/rules")).andReturn();
+        String version = before.getResponse().getHeader("X-Rule-Set-Version");
+
+        MvcResult pending = mockMvc.perform(get("/rules").param("waitForChange", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Rule-Set-Version", version));
+    }
+}
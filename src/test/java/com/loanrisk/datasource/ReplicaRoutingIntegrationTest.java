@@ -0,0 +1,222 @@
+package com.loanrisk.datasource;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.dto.CreateCustomerRequest;
+import com.loanrisk.entity.Customer;
+import com.loanrisk.repository.CustomerRepository;
+import com.loanrisk.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import jakarta.servlet.http.Cookie;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Two in-memory H2 databases stand in for a primary and a replica that never replicates, so every
+ * read shows which side served it: rows inserted only into the replica are visible through it,
+ * rows written through the application only on the primary.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "loan.replica.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "loan.replica.lag-query=SELECT lag_ms FROM replica_lag",
+        "loan.replica.max-lag-ms=1000",
+        // The tests refresh lag explicitly
+        "loan.replica.lag-check-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final long REPLICA_ONLY_CUSTOMER_ID = 90_001L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/schema.sql"));
+            statement.execute("CREATE TABLE replica_lag (lag_ms BIGINT)");
+            statement.execute("INSERT INTO replica_lag VALUES (0)");
+            statement.execute("INSERT INTO customer (id, first_name, last_name, date_of_birth, address, email) "
+                    + "VALUES (" + REPLICA_ONLY_CUSTOMER_ID + ", 'Rita', 'Replica', DATE '1985-01-01', "
+                    + "'1 Standby Rd', 'rita@replica.example')");
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        setReplicaLag(0);
+        loanApplicationRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void readOnlyRequest_isServedByReplica() throws Exception {
+        mockMvc.perform(get("/customers/{id}", REPLICA_ONLY_CUSTOMER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value("Replica"));
+    }
+
+    @Test
+    void laggingReplica_readsFallBackToPrimary() throws Exception {
+        setReplicaLag(5_000);
+
+        mockMvc.perform(get("/customers/{id}", REPLICA_ONLY_CUSTOMER_ID))
+                .andExpect(status().isNotFound());
+        assertThat(replicaLagMonitor.getLagMillis("replica-0")).isEqualTo(5_000);
+    }
+
+    @Test
+    void unreachableLagQuery_readsFallBackToPrimary() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE replica_lag RENAME TO replica_lag_gone");
+            replicaLagMonitor.refresh();
+            try {
+                mockMvc.perform(get("/customers/{id}", REPLICA_ONLY_CUSTOMER_ID))
+                        .andExpect(status().isNotFound());
+            } finally {
+                statement.execute("ALTER TABLE replica_lag_gone RENAME TO replica_lag");
+            }
+        }
+    }
+
+    @Test
+    void createdCustomer_isReadBackFromPrimaryDespiteReplicaNotHavingIt() throws Exception {
+        CreateCustomerRequest request = new CreateCustomerRequest();
+        request.setFirstName("Paula");
+        request.setLastName("Primary");
+        request.setDateOfBirth(LocalDate.of(1990, 5, 15));
+        request.setAddress("2 Leader St");
+        request.setEmail("paula@primary.example");
+
+        MvcResult created = mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).get("id").asLong();
+
+        mockMvc.perform(get("/customers/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("paula@primary.example"));
+        assertThat(countOnReplica("SELECT COUNT(*) FROM customer WHERE id = " + id)).isZero();
+    }
+
+    @Test
+    void write_handsTheClientItsLastWriteTime() throws Exception {
+        CreateCustomerRequest request = new CreateCustomerRequest();
+        request.setFirstName("Carla");
+        request.setLastName("Cookie");
+        request.setDateOfBirth(LocalDate.of(1988, 3, 9));
+        request.setAddress("3 Crumb Ln");
+        request.setEmail("carla@cookie.example");
+
+        MvcResult created = mockMvc.perform(post("/customers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(ReadYourWritesInterceptor.HEADER))
+                .andReturn();
+
+        Cookie cookie = created.getResponse().getCookie(ReadYourWritesInterceptor.COOKIE);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getValue()).isEqualTo(created.getResponse().getHeader(ReadYourWritesInterceptor.HEADER));
+        assertThat(cookie.getMaxAge()).isEqualTo(5);
+        assertThat(cookie.isHttpOnly()).isTrue();
+
+        // A read-only POST is not a write
+        mockMvc.perform(post("/loan/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE));
+    }
+
+    @Test
+    void recentWriteOnAnotherNode_isReadFromPrimaryWhenTheClientCarriesItsTime() throws Exception {
+        // Saved straight to the primary, so this node has no record of it: a write taken by another node
+        Customer customer = new Customer();
+        customer.setFirstName("Otto");
+        customer.setLastName("Othernode");
+        customer.setDateOfBirth(LocalDate.of(1979, 11, 2));
+        customer.setAddress("4 Elsewhere Ave");
+        customer.setEmail("otto@othernode.example");
+        long id = customerRepository.save(customer).getId();
+        String justNow = Long.toString(System.currentTimeMillis());
+
+        mockMvc.perform(get("/customers/{id}", id))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/customers/{id}", id).cookie(new Cookie(ReadYourWritesInterceptor.COOKIE, justNow)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastName").value("Othernode"));
+        mockMvc.perform(get("/customers/{id}", id).header(ReadYourWritesInterceptor.HEADER, justNow))
+                .andExpect(status().isOk());
+
+        // Outside the window, or implausibly far in the future, the replica serves it again
+        String longAgo = Long.toString(System.currentTimeMillis() - 60_000);
+        String farAhead = Long.toString(System.currentTimeMillis() + 3_600_000);
+        mockMvc.perform(get("/customers/{id}", id).cookie(new Cookie(ReadYourWritesInterceptor.COOKIE, longAgo)))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/customers/{id}", id).header(ReadYourWritesInterceptor.HEADER, farAhead))
+                .andExpect(status().isNotFound());
+    }
+
+    private void setReplicaLag(long lagMillis) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE replica_lag SET lag_ms = " + lagMillis);
+        }
+        replicaLagMonitor.refresh();
+    }
+
+    private long countOnReplica(String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.loanrisk.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ShardSchemaInitializerTest {
+
+    private final DataSource[] databases = {database(), database(), database()};
+
+    @Test
+    void startup_failsWhenTheShardCountChanges_onceShardsHoldCustomers() throws Exception {
+        new ShardSchemaInitializer(shards(2), true).afterPropertiesSet();
+        try (Connection connection = databases[0].getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("insert into customer (first_name, last_name, date_of_birth, address, email) "
+                    + "values ('Ada', 'Shard', date '1980-01-01', '1 Hash Road', 'ada@example.com')");
+        }
+
+        assertThatThrownBy(() -> new ShardSchemaInitializer(shards(3), true).afterPropertiesSet())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shard count cannot change once customers exist");
+    }
+
+    @Test
+    void startup_realignsEmptyShards_whenTheShardCountChanges() throws Exception {
+        new ShardSchemaInitializer(shards(2), true).afterPropertiesSet();
+
+        assertThatCode(() -> new ShardSchemaInitializer(shards(3), true).afterPropertiesSet()).doesNotThrowAnyException();
+    }
+
+    private ShardRoutingDataSource shards(int count) {
+        ShardRoutingDataSource shards = mock(ShardRoutingDataSource.class);
+        when(shards.getShardCount()).thenReturn(count);
+        for (int shard = 0; shard < count; shard++) {
+            when(shards.getShard(shard)).thenReturn(databases[shard]);
+        }
+        return shards;
+    }
+
+    private static DataSource database() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
@@ -0,0 +1,327 @@
+package com.loanrisk.datasource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.dto.LoanLookupRequest;
+import com.loanrisk.dto.LoanSearchRequest;
+import com.loanrisk.entity.Customer;
+import com.loanrisk.entity.LoanApplication;
+import com.loanrisk.repository.LoanApplicationRepository;
+import com.loanrisk.service.CustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Three in-memory H2 databases as shards. Rows are checked on the shard databases directly, so the
+ * tests see where each customer and loan was actually written.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ShardingIntegrationTest.SHARD_0,
+        "loan.shard.urls=" + ShardingIntegrationTest.SHARD_1 + "," + ShardingIntegrationTest.SHARD_2,
+        "loan.shard.initialize-schema=true",
+        "loan.lookup.chunk-size=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+
+    static final String SHARD_0 = "jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1";
+    static final String SHARD_1 = "jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1";
+    static final String SHARD_2 = "jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1";
+    private static final String[] SHARD_URLS = {SHARD_0, SHARD_1, SHARD_2};
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Shards shards;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    private final List<Customer> customers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        for (String url : SHARD_URLS) {
+            execute(url, "delete from loan_application");
+            execute(url, "delete from customer");
+        }
+        customers.clear();
+        for (int i = 0; i < 12; i++) {
+            customers.add(customerService.createCustomer(customer("shard.test" + i + "@example.com")));
+        }
+    }
+
+    @Test
+    void customers_areSpreadAcrossShardsByIdAndReadBackFromTheirShard() throws Exception {
+        assertThat(shards.count()).isEqualTo(3);
+        Set<Integer> used = new HashSet<>();
+        for (Customer customer : customers) {
+            int shard = (int) (customer.getId() % 3);
+            used.add(shard);
+            assertThat(shards.ofEmail(customer.getEmail())).isEqualTo(shard);
+            for (int other = 0; other < 3; other++) {
+                assertThat(count(SHARD_URLS[other], "select count(*) from customer where id = " + customer.getId()))
+                        .isEqualTo(other == shard ? 1 : 0);
+            }
+            mockMvc.perform(get("/customers/{id}", customer.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.email").value(customer.getEmail()));
+        }
+        assertThat(used).hasSize(3);
+    }
+
+    @Test
+    void customerGivenAnIdOfAnotherShard_isRolledBack() throws Exception {
+        String email = emailOnShard("misaligned", 1);
+        // Shard 1 must hand out ids = 1 (mod 3); make it hand out one that belongs to shard 0
+        execute(SHARD_1, "alter table customer alter column id restart with 300000");
+        try {
+            Customer misplaced = customer(email);
+            assertThatThrownBy(() -> customerService.createCustomer(misplaced)).isInstanceOf(RuntimeException.class);
+            assertThat(count(SHARD_1, "select count(*) from customer where email = '" + email + "'")).isZero();
+        } finally {
+            execute(SHARD_1, "alter table customer alter column id restart with 300001");
+        }
+    }
+
+    @Test
+    void importedCustomerGivenAnIdOfAnotherShard_isRolledBack() throws Exception {
+        String email = emailOnShard("misimported", 1);
+        execute(SHARD_1, "alter table customer alter column id restart with 300000");
+        try {
+            String report = mockMvc.perform(post("/customers/import")
+                            .contentType("text/csv")
+                            .content("firstName,lastName,dateOfBirth,address,email\n"
+                                    + "Sam,Shard,1988-04-02,3 Partition Way," + email + "\n"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            assertThat(objectMapper.readTree(report.trim()).get("status").asText()).isEqualTo("FAILED");
+            assertThat(count(SHARD_1, "select count(*) from customer where email = '" + email + "'")).isZero();
+        } finally {
+            execute(SHARD_1, "alter table customer alter column id restart with 300001");
+        }
+    }
+
+    @Test
+    void appliedLoan_isStoredWithItsCustomer_andItsIdRoutesTheLookup() throws Exception {
+        for (Customer customer : customers.subList(0, 6)) {
+            ApplyLoanRequest request = new ApplyLoanRequest();
+            request.setCustomerId(customer.getId());
+            request.setLoanAmount(new BigDecimal("10000.00"));
+            request.setLoanTermMonths(36);
+            MvcResult started = mockMvc.perform(post("/loan/apply")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            String body = mockMvc.perform(asyncDispatch(started))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            UUID loanId = UUID.fromString(objectMapper.readTree(body).get("loanId").asText());
+
+            int shard = shards.ofCustomer(customer.getId());
+            assertThat(shards.ofLoan(loanId)).isEqualTo(shard);
+            assertThat(loanId.version()).isEqualTo(4);
+            assertThat(count(SHARD_URLS[shard], "select count(*) from loan_application where id = '" + loanId + "'"))
+                    .isEqualTo(1);
+            mockMvc.perform(get("/loan/{id}", loanId))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.customerId").value(customer.getId()));
+        }
+    }
+
+    @Test
+    void loanIdNamingAnUnknownShard_isNotFound() throws Exception {
+        mockMvc.perform(get("/loan/{id}", ShardedUuidGenerator.randomUuid(7)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void lookup_readsEveryShardInChunks_andAnswersInRequestOrder() throws Exception {
+        List<LoanApplication> loans = saveLoansWithSharedTimestamps();
+        List<UUID> requested = new ArrayList<>();
+        for (int i = loans.size() - 1; i >= 0; i--) {
+            requested.add(loans.get(i).getId());
+        }
+        UUID unknownShard = ShardedUuidGenerator.randomUuid(7);
+        UUID missing = ShardedUuidGenerator.randomUuid(1);
+        requested.add(3, unknownShard);
+        requested.add(missing);
+
+        LoanLookupRequest request = new LoanLookupRequest();
+        request.setLoanIds(requested);
+        String body = mockMvc.perform(post("/loan/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.foundCount").value(loans.size()))
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode results = objectMapper.readTree(body).get("results");
+        assertThat(results).hasSize(requested.size());
+        for (int i = 0; i < requested.size(); i++) {
+            JsonNode result = results.get(i);
+            UUID id = requested.get(i);
+            assertThat(result.get("loanId").asText()).isEqualTo(id.toString());
+            boolean known = !id.equals(unknownShard) && !id.equals(missing);
+            assertThat(result.get("found").asBoolean()).isEqualTo(known);
+            if (known) {
+                assertThat(result.get("loan").get("loanId").asText()).isEqualTo(id.toString());
+            }
+        }
+    }
+
+    @Test
+    void search_pagesThroughEveryShardInKeysetOrder() throws Exception {
+        List<LoanApplication> loans = saveLoansWithSharedTimestamps();
+
+        LoanSearchRequest search = new LoanSearchRequest();
+        search.setLimit(4);
+        List<UUID> seen = new ArrayList<>();
+        Long count = null;
+        String cursor = null;
+        do {
+            search.setCursor(cursor);
+            JsonNode page = objectMapper.readTree(mockMvc.perform(post("/loan/search")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(search)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (count == null) {
+                count = page.get("count").asLong();
+            }
+            page.get("items").forEach(item -> seen.add(UUID.fromString(item.get("loanId").asText())));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertThat(count).isEqualTo(loans.size());
+        assertThat(seen).containsExactlyElementsOf(loans.stream()
+                .sorted(databaseOrder().reversed()).map(LoanApplication::getId).toList());
+    }
+
+    @Test
+    void export_mergesShardsInCreatedAtThenIdOrder() throws Exception {
+        List<LoanApplication> loans = saveLoansWithSharedTimestamps();
+
+        MvcResult started = mockMvc.perform(get("/loan/export")
+                        .param("from", "2025-03-01T00:00:00")
+                        .param("to", "2025-03-02T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<UUID> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            exported.add(UUID.fromString(objectMapper.readTree(line).get("loanId").asText()));
+        }
+        assertThat(exported).containsExactlyElementsOf(loans.stream()
+                .sorted(databaseOrder()).map(LoanApplication::getId).toList());
+    }
+
+    // Four loans per timestamp, from customers on different shards, so ties are broken by id across shards
+    private List<LoanApplication> saveLoansWithSharedTimestamps() {
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 9, 0);
+        List<LoanApplication> loans = new ArrayList<>();
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            LoanApplication loan = new LoanApplication();
+            loan.setCustomer(customer);
+            loan.setRiskScore(10.0 + i);
+            loan.setRiskLevel("Low");
+            loan.setDecision("Approved");
+            loan.setExplanation("test");
+            loan.setCreatedAt(base.plusMinutes(i / 4));
+            loans.add(ShardRouting.onShard(shards.ofCustomer(customer.getId()),
+                    () -> loanApplicationRepository.save(loan)));
+        }
+        return loans;
+    }
+
+    private static Comparator<LoanApplication> databaseOrder() {
+        return Comparator.comparing(LoanApplication::getCreatedAt)
+                .thenComparing(LoanApplication::getId, Shards::compareUuids);
+    }
+
+    private String emailOnShard(String prefix, int shard) {
+        for (int i = 0; ; i++) {
+            String email = prefix + i + "@example.com";
+            if (shards.ofEmail(email) == shard) {
+                return email;
+            }
+        }
+    }
+
+    private static Customer customer(String email) {
+        Customer customer = new Customer();
+        customer.setFirstName("Sam");
+        customer.setLastName("Shard");
+        customer.setDateOfBirth(LocalDate.of(1988, 4, 2));
+        customer.setAddress("3 Partition Way");
+        customer.setEmail(email);
+        customer.setCreditScore(720);
+        customer.setEmploymentStatus("Full-time");
+        customer.setAnnualIncome(new BigDecimal("65000.00"));
+        customer.setExistingDebt(new BigDecimal("5000.00"));
+        customer.setCreatedAt(LocalDateTime.now());
+        return customer;
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static long count(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
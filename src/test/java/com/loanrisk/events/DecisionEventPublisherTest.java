@@ -0,0 +1,187 @@
+package com.loanrisk.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DecisionEventPublisherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DecisionEventPublisher publisher =
+            new DecisionEventPublisher(meterRegistry, 1000, 16, OverflowPolicy.DROP_OLDEST, 4);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        publisher.shutdown();
+    }
+
+    @Test
+    void dropOldestKeepsNewestDecisionsForIdleSubscriber() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe("idle", subscriber, OverflowPolicy.DROP_OLDEST, 4);
+
+        for (int i = 0; i < 10; i++) {
+            publisher.publish(event(i));
+        }
+        waitUntil(() -> counter("decision.events.dropped", "idle") == 6);
+        assertThat(meterRegistry.get("decision.events.buffered").tag("subscriber", "idle").gauge().value())
+                .isEqualTo(4);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        waitUntil(() -> subscriber.received.size() == 4);
+        assertThat(subscriber.received).extracting(DecisionEvent::getRiskScore).containsExactly(6.0, 7.0, 8.0, 9.0);
+    }
+
+    @Test
+    void sampleThinsOutDecisionsOnceBufferIsHalfFull() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe("sampled", subscriber, OverflowPolicy.SAMPLE, 8);
+
+        for (int i = 0; i < 20; i++) {
+            publisher.publish(event(i));
+        }
+        // 4 fill the buffer to half, then 1 in 4 is kept until it is full
+        waitUntil(() -> counter("decision.events.dropped", "sampled") == 12);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        waitUntil(() -> subscriber.received.size() == 8);
+        assertThat(subscriber.received).extracting(DecisionEvent::getRiskScore)
+                .containsExactly(0.0, 1.0, 2.0, 3.0, 4.0, 8.0, 12.0, 16.0);
+    }
+
+    @Test
+    void blockIsLosslessAndNeverBlocksThePublisher() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE) {
+            @Override
+            public void onNext(DecisionEvent item) {
+                awaitQuietly(release);
+                super.onNext(item);
+            }
+        };
+        publisher.subscribe("slow", subscriber, OverflowPolicy.BLOCK, 2);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            publisher.publish(event(i));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1000);
+
+        release.countDown();
+        waitUntil(() -> subscriber.received.size() == 100);
+        assertThat(counter("decision.events.dropped", "slow")).isZero();
+    }
+
+    @Test
+    void nonPositiveRequestSignalsError() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        publisher.subscribe("broken", subscriber, OverflowPolicy.DROP_OLDEST, 4);
+
+        subscriber.subscription.request(0);
+        waitUntil(() -> subscriber.error != null);
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cancelledSubscriberIsRemovedWhileDecisionsKeepFlowing() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        publisher.subscribe("gone", subscriber, OverflowPolicy.DROP_OLDEST, 4);
+        publisher.subscribe("staying", new RecordingSubscriber(Long.MAX_VALUE), OverflowPolicy.DROP_OLDEST, 4);
+        Thread traffic = new Thread(() -> {
+            for (int i = 0; !Thread.currentThread().isInterrupted(); i++) {
+                publisher.publish(event(i));
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        });
+        traffic.start();
+        try {
+            waitUntil(() -> !subscriber.received.isEmpty());
+            subscriber.subscription.cancel();
+
+            waitUntil(() -> meterRegistry.find("decision.events.buffered").tag("subscriber", "gone").gauge() == null);
+            assertThat(meterRegistry.find("decision.events.buffered").tag("subscriber", "staying").gauge()).isNotNull();
+        } finally {
+            traffic.interrupt();
+            traffic.join();
+        }
+    }
+
+    @Test
+    void anonymousSubscriberIsNamedAfterItsClass() {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0) {
+        };
+        publisher.subscribe(subscriber);
+
+        assertThat(meterRegistry.get("decision.events.buffered").tag("subscriber", subscriber.getClass().getName())
+                .gauge()).isNotNull();
+    }
+
+    private double counter(String name, String subscriber) {
+        return meterRegistry.get(name).tag("subscriber", subscriber).functionCounter().count();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 5s").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static DecisionEvent event(int sequence) {
+        return new DecisionEvent(UUID.randomUUID(), 1L, sequence, "Low", "Approved", 1L, LocalDateTime.now());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<DecisionEvent> {
+
+        private final long initialRequest;
+        final List<DecisionEvent> received = new CopyOnWriteArrayList<>();
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(DecisionEvent item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.loanrisk.expression;
+
+import com.loanrisk.service.ScoringInput;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExpressionCompilerTest {
+
+    private static final String STRETCHED_UNEMPLOYED =
+            "loanAmount / annualIncome > 0.5 AND employmentStatus != 'employed'";
+
+    @Test
+    void evaluatesCompositeArithmeticRule() {
+        CompiledConditions conditions = ExpressionCompiler.compile(List.of(ExpressionParser.parse(STRETCHED_UNEMPLOYED)));
+
+        assertThat(evaluate(conditions, input("60000", "100000", "Self-employed"))).isTrue();
+        assertThat(evaluate(conditions, input("60000", "100000", "EMPLOYED"))).isFalse();
+        assertThat(evaluate(conditions, input("40000", "100000", "Self-employed"))).isFalse();
+    }
+
+    @Test
+    void rejectsTypeErrorsWithPosition() {
+        assertThatThrownBy(() -> ExpressionParser.parse("employmentStatus > 3"))
+                .isInstanceOf(ExpressionException.class)
+                .hasMessage("Operator > expects NUMBER operands but got STRING and NUMBER at position 18");
+        assertThatThrownBy(() -> ExpressionParser.parse("age < 21 AND loanAmount"))
+                .hasMessageContaining("Operator AND expects BOOLEAN operands but got BOOLEAN and NUMBER");
+        assertThatThrownBy(() -> ExpressionParser.parse("loanAmount / annualIncome"))
+                .hasMessageContaining("Expression must be a condition but is NUMBER");
+        assertThatThrownBy(() -> ExpressionParser.parse("loanPurpose == 'vacation'"))
+                .hasMessage("Unknown field 'loanPurpose' at position 1");
+        assertThatThrownBy(() -> ExpressionParser.parse("employmentStatus == 'employed"))
+                .hasMessageContaining("Unterminated string");
+        assertThatThrownBy(() -> ExpressionParser.parse("(age < 21"))
+                .hasMessageContaining("Expected ')'");
+    }
+
+    @Test
+    void foldsConstantSubtrees() {
+        assertThat(ExpressionCompiler.fold(ExpressionParser.parse("loanAmount > 1000 * 12 AND TRUE")))
+                .hasToString("(loanAmount > 12000)");
+        assertThat(ExpressionCompiler.fold(ExpressionParser.parse("1 > 2 OR age < 21")))
+                .hasToString("(age < 21)");
+        assertThat(ExpressionCompiler.fold(ExpressionParser.parse("1 + 2 * 3 == 7 OR NOT NOT age < 21")))
+                .hasToString("TRUE");
+    }
+
+    @Test
+    void sharesDerivedValuesAcrossConditions() {
+        CompiledConditions conditions = ExpressionCompiler.compile(List.of(
+                ExpressionParser.parse("loanAmount / annualIncome > 0.5"),
+                ExpressionParser.parse("loanAmount / annualIncome > 0.3 AND loanTermMonths > 12 * 5"),
+                ExpressionParser.parse("(loanAmount / annualIncome) * 2 < 0.4")));
+
+        assertThat(conditions.getSharedSlotCount()).isEqualTo(1);
+        EvaluationContext context = conditions.newContext(input("40000", "100000", "employed"));
+        assertThat(conditions.test(0, context)).isFalse();
+        assertThat(conditions.test(1, context)).isFalse();
+        assertThat(conditions.test(2, context)).isFalse();
+        context = conditions.newContext(input("10000", "100000", "employed"));
+        assertThat(conditions.test(2, context)).isTrue();
+    }
+
+    @Test
+    void plansOnlyReferencedDerivedFieldsInDependencyOrder() {
+        CompiledConditions conditions = ExpressionCompiler.compile(List.of(
+                ExpressionParser.parse("paymentToIncomeRatio > 0.3"),
+                ExpressionParser.comparison("loanRatio", ">", "0.5"),
+                ExpressionParser.parse("monthlyPayment > 1000 OR creditScore < 600")));
+
+        assertThat(conditions.getDerivedFields()).extracting(DerivedField::getName)
+                .containsExactly("monthlyPayment", "paymentToIncomeRatio", "loanRatio");
+        // 36,000 over 36 months is 1,000 a month, 12,000 a year against 30,000 income
+        EvaluationContext context = conditions.newContext(input("36000", "30000", "employed"));
+        assertThat(conditions.test(0, context)).isTrue();
+        assertThat(conditions.test(1, context)).isTrue();
+        assertThat(conditions.test(2, context)).isFalse();
+
+        CompiledConditions baseOnly = ExpressionCompiler.compile(List.of(
+                ExpressionParser.comparison("creditScore", "<", "600")));
+        assertThat(baseOnly.getDerivedFields()).isEmpty();
+    }
+
+    @Test
+    void missingValuesMakeComparisonsFalse() {
+        CompiledConditions conditions = ExpressionCompiler.compile(List.of(
+                ExpressionParser.parse("creditScore < 600"),
+                ExpressionParser.parse("creditScore != 600"),
+                ExpressionParser.parse("employmentStatus != 'employed'"),
+                ExpressionParser.parse("NOT creditScore >= 600")));
+
+        ScoringInput input = input("40000", "100000", null);
+        EvaluationContext context = conditions.newContext(input);
+        assertThat(conditions.test(0, context)).isFalse();
+        assertThat(conditions.test(1, context)).isFalse();
+        assertThat(conditions.test(2, context)).isFalse();
+        assertThat(conditions.test(3, context)).isTrue();
+    }
+
+    private static boolean evaluate(CompiledConditions conditions, ScoringInput input) {
+        return conditions.test(0, conditions.newContext(input));
+    }
+
+    private static ScoringInput input(String loanAmount, String annualIncome, String employmentStatus) {
+        ScoringInput input = new ScoringInput();
+        input.setCustomerId(1L);
+        input.setLoanAmount(new BigDecimal(loanAmount));
+        input.setLoanTermMonths(36);
+        input.setAge(35);
+        input.setAnnualIncome(new BigDecimal(annualIncome));
+        input.setEmploymentStatus(employmentStatus);
+        return input;
+    }
+}
@@ -0,0 +1,161 @@
+package com.loanrisk.journal;
+
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.service.RiskScoringEngine;
+import com.loanrisk.service.ScoringInput;
+import com.loanrisk.service.ScoringResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DecisionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private final RiskScoringEngine engine = new RiskScoringEngine();
+
+    @Test
+    void recordsRoundTripAcrossSegments() throws Exception {
+        List<ScoringRule> rules = List.of(ageRule(">", "60", 70));
+        // four records per segment, so ten records roll over twice
+        DecisionJournal journal = new DecisionJournal(true, directory, 4 * DecisionRecord.SIZE, 100);
+        List<UUID> loanIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UUID loanId = UUID.randomUUID();
+            loanIds.add(loanId);
+            ScoringInput input = input(55 + i);
+            if (i == 9) {
+                input.setLoanTermMonths(null);
+            }
+            journal.append(DecisionRecord.of(loanId, 1000L + i, 7L, input, engine.score(input, rules)));
+        }
+        journal.shutdown();
+
+        assertThat(segmentCount()).isEqualTo(3);
+        List<DecisionRecord> records = new ArrayList<>();
+        assertThat(DecisionJournalReader.forEach(directory, records::add)).isEqualTo(10);
+        assertThat(records).extracting(DecisionRecord::getLoanId).containsExactlyElementsOf(loanIds);
+
+        DecisionRecord young = records.get(0);
+        assertThat(young.getDecision()).isEqualTo("Approved");
+        assertThat(young.getRuleSetVersion()).isEqualTo(7L);
+        assertThat(young.getLayoutVersion()).isEqualTo(DecisionRecord.LAYOUT_VERSION);
+        assertThat(young.toScoringInput().getLoanAmount()).isEqualByComparingTo("12500.50");
+        assertThat(young.toScoringInput().getLoanTermMonths()).isEqualTo(36);
+        assertThat(young.toScoringInput().getCreditScore()).isEqualTo(700);
+        assertThat(young.toScoringInput().getEmploymentStatus()).isEqualTo("Full-time");
+        assertThat(young.toScoringInput().getExistingDebt()).isNull();
+        DecisionRecord old = records.get(9);
+        assertThat(old.getRiskScore()).isEqualTo(70);
+        assertThat(old.getDecision()).isEqualTo("Rejected");
+        assertThat(old.getTriggeredRuleIds()).containsExactly(1L);
+        assertThat(old.toScoringInput().getLoanTermMonths()).isNull();
+        assertThat(journal.getWrittenCount()).isEqualTo(10);
+        assertThat(journal.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void readerStopsAtRecordWithoutCommitMarker() throws Exception {
+        DecisionJournal journal = new DecisionJournal(true, directory, 8 * DecisionRecord.SIZE, 100);
+        ScoringInput input = input(30);
+        ScoringResult result = engine.score(input, List.of());
+        journal.append(DecisionRecord.of(UUID.randomUUID(), 1L, 1L, input, result));
+        journal.append(DecisionRecord.of(UUID.randomUUID(), 2L, 1L, input, result));
+        journal.awaitDrained(5, TimeUnit.SECONDS);
+        journal.shutdown();
+
+        // simulate a crash between writing the body and the marker of the second record
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        bytes[DecisionRecord.SIZE] = 0;
+        Files.write(segment, bytes);
+
+        assertThat(DecisionJournalReader.forEach(directory, record -> { })).isEqualTo(1);
+    }
+
+    @Test
+    void readerRejectsRecordsInAnUnknownLayout() throws Exception {
+        DecisionJournal journal = new DecisionJournal(true, directory, 8 * DecisionRecord.SIZE, 100);
+        ScoringInput input = input(30);
+        journal.append(DecisionRecord.of(UUID.randomUUID(), 1L, 1L, input, engine.score(input, List.of())));
+        journal.shutdown();
+
+        // a record from a newer layout, with the version at offset 4
+        Path segment = segments().get(0);
+        byte[] bytes = Files.readAllBytes(segment);
+        ByteBuffer.wrap(bytes).putInt(4, DecisionRecord.LAYOUT_VERSION + 1);
+        Files.write(segment, bytes);
+
+        assertThatThrownBy(() -> DecisionJournalReader.forEach(directory, record -> { }))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Unsupported journal layout version " + (DecisionRecord.LAYOUT_VERSION + 1));
+    }
+
+    @Test
+    void replayReportsDecisionsThatWouldChange() throws Exception {
+        DecisionJournal journal = new DecisionJournal(true, directory, 64 * DecisionRecord.SIZE, 100);
+        List<ScoringRule> current = List.of(ageRule(">", "60", 70));
+        for (int age : new int[] {25, 45, 65}) {
+            ScoringInput input = input(age);
+            journal.append(DecisionRecord.of(UUID.randomUUID(), 1L, 1L, input, engine.score(input, current)));
+        }
+        journal.shutdown();
+
+        JournalReplayer replayer = new JournalReplayer(engine);
+        assertThat(replayer.replay(directory, current).getUnchanged()).isEqualTo(3);
+
+        JournalReplayer.Report report = replayer.replay(directory, List.of(ageRule(">", "40", 70)));
+        assertThat(report.getRecords()).isEqualTo(3);
+        assertThat(report.getChangedDecisions()).isEqualTo(1);
+        assertThat(report.getChangedScores()).isEqualTo(1);
+        assertThat(report.getChangedLoanIds()).hasSize(1);
+    }
+
+    private ScoringInput input(int age) {
+        ScoringInput input = new ScoringInput();
+        input.setCustomerId(42L);
+        input.setLoanAmount(new BigDecimal("12500.50"));
+        input.setLoanTermMonths(36);
+        input.setAge(age);
+        input.setCreditScore(700);
+        input.setAnnualIncome(new BigDecimal("85000.00"));
+        input.setEmploymentStatus("Full-time");
+        return input;
+    }
+
+    private ScoringRule ageRule(String operator, String value, int points) {
+        ScoringRule rule = new ScoringRule();
+        rule.setId(1L);
+        rule.setName("Age Rule");
+        rule.setField("customer.age");
+        rule.setOperator(operator);
+        rule.setRuleValue(value);
+        rule.setRiskPoints(points);
+        rule.setEnabled(true);
+        return rule;
+    }
+
+    private long segmentCount() throws IOException {
+        return segments().size();
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+}
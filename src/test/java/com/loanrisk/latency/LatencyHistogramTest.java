@@ -0,0 +1,105 @@
+package com.loanrisk.latency;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsAreExactForSmallValuesAndWithinOneSixtyFourthAbove() {
+        for (long value = 0; value < 128; value++) {
+            assertThat(LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value))).isEqualTo(value);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            long value = ThreadLocalRandom.current().nextLong(128, 1L << 40);
+            long reported = LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(value));
+            assertThat(reported).isGreaterThanOrEqualTo(value);
+            assertThat((double) (reported - value) / value).isLessThan(1.0 / 64);
+        }
+        assertThat(LatencyHistogram.bucketOf((1L << 40) - 1)).isEqualTo(LatencyHistogram.BUCKETS - 1);
+    }
+
+    @Test
+    void percentilesOfAUniformDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram("uniform");
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getTotalCount()).isEqualTo(10_000);
+        assertThat(snapshot.getMeanNanos()).isEqualTo(5_000_500.0);
+        assertThat((double) snapshot.getValueAtPercentile(50)).isCloseTo(5_000_000, within(5_000_000 / 64.0));
+        assertThat((double) snapshot.getValueAtPercentile(99)).isCloseTo(9_900_000, within(9_900_000 / 64.0));
+        assertThat((double) snapshot.getValueAtPercentile(99.99)).isCloseTo(9_999_000, within(9_999_000 / 64.0));
+        assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(snapshot.getMaxNanos());
+        assertThat(new LatencyHistogram("empty").snapshot().getValueAtPercentile(99)).isZero();
+    }
+
+    @Test
+    void recordingsOfAllThreadsAreMerged_includingThreadsThatHaveDied() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram("threads");
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            long value = 1_000L * (t + 1);
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(value);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        histogram.record(2_000_000);
+
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getTotalCount()).isEqualTo(400_001);
+        assertThat(snapshot.getValueAtPercentile(12)).isCloseTo(1_000L, within(1_000L / 64));
+        assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(snapshot.getMaxNanos());
+        assertThat(snapshot.getMaxNanos()).isCloseTo(2_000_000L, within(2_000_000L / 64));
+        // Dead threads' counters were folded into the shared total and are still reported
+        assertThat(histogram.snapshot().getTotalCount()).isEqualTo(400_001);
+    }
+
+    @Test
+    void intervalSnapshotsResetOnRead_cumulativeSnapshotsDoNot() {
+        LatencyHistogram histogram = new LatencyHistogram("interval");
+        histogram.record(100);
+        histogram.record(200);
+        assertThat(histogram.intervalSnapshot().getTotalCount()).isEqualTo(2);
+
+        histogram.record(5_000);
+        HistogramSnapshot interval = histogram.intervalSnapshot();
+        assertThat(interval.getTotalCount()).isEqualTo(1);
+        assertThat(interval.getMeanNanos()).isEqualTo(5_000.0);
+        assertThat(interval.getValueAtPercentile(50)).isCloseTo(5_000L, within(5_000L / 64));
+
+        assertThat(histogram.intervalSnapshot().getTotalCount()).isZero();
+        assertThat(histogram.snapshot().getTotalCount()).isEqualTo(3);
+    }
+
+    @Test
+    void resetDiscardsEverythingRecordedSoFar() {
+        LatencyHistogram histogram = new LatencyHistogram("reset");
+        histogram.record(1_000_000);
+        histogram.record(2_000_000);
+        histogram.reset();
+
+        assertThat(histogram.snapshot().getTotalCount()).isZero();
+        assertThat(histogram.intervalSnapshot().getTotalCount()).isZero();
+
+        histogram.record(300);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getTotalCount()).isEqualTo(1);
+        assertThat(snapshot.getMeanNanos()).isEqualTo(300.0);
+        assertThat(snapshot.getMaxNanos()).isCloseTo(300L, within(300L / 64));
+        assertThat(histogram.intervalSnapshot().getTotalCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.loanrisk.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void growsWhileFastAndSaturatedThenBacksOffWhenLatencyRises() throws Exception {
+        AimdLimiter limiter = new AimdLimiter(2, 1, 10, 2.0, 0.5, 10);
+
+        for (int round = 0; round < 200; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertThat(limiter.acquire(0)).isTrue();
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.release(FAST, true);
+            }
+        }
+        assertThat(limiter.getLimit()).isEqualTo(10);
+        assertThat(limiter.getBaseline(TimeUnit.MILLISECONDS)).isEqualTo(2);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(0);
+            limiter.release(SLOW, true);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void failedCallsDoNotMoveTheLimit() throws Exception {
+        AimdLimiter limiter = new AimdLimiter(4, 1, 10, 2.0, 0.5, 1);
+        limiter.acquire(0);
+        limiter.release(FAST, true);
+
+        limiter.acquire(0);
+        limiter.release(SLOW * 100, false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void callerOverTheLimitTimesOut() throws Exception {
+        AimdLimiter limiter = new AimdLimiter(1, 1, 1, 2.0, 0.5, 10);
+        assertThat(limiter.acquire(0)).isTrue();
+        assertThat(limiter.acquire(TimeUnit.MILLISECONDS.toNanos(20))).isFalse();
+
+        limiter.release(FAST, true);
+        assertThat(limiter.acquire(0)).isTrue();
+    }
+}
@@ -0,0 +1,133 @@
+package com.loanrisk.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> flight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void concurrentLoadsOfSameKeyShareOneCall() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> flight.load(1L, () -> {
+                loads.incrementAndGet();
+                loaderEntered.countDown();
+                awaitQuietly(release);
+                return "customer-1";
+            })));
+            loaderEntered.await(5, TimeUnit.SECONDS);
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> flight.load(1L, () -> {
+                    loads.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            // all seven followers must be waiting on the in-flight call before it completes
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced() < 7 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("customer-1");
+            }
+            assertThat(loads.get()).isEqualTo(1);
+            assertThat(coalesced()).isEqualTo(7);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitingCallersGetTheirOwnCopyOfAMutableResult() throws Exception {
+        SingleFlight<Long, StringBuilder> mutable = new SingleFlight<>("mutable", meterRegistry, StringBuilder::new);
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<StringBuilder> leader = executor.submit(() -> mutable.load(3L, () -> {
+                loaderEntered.countDown();
+                awaitQuietly(release);
+                return new StringBuilder("customer-3");
+            }));
+            loaderEntered.await(5, TimeUnit.SECONDS);
+            Future<StringBuilder> follower = executor.submit(() -> mutable.load(3L, StringBuilder::new));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (meterRegistry.get("singleflight.coalesced").tag("name", "mutable").counter().count() < 1
+                    && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            StringBuilder mine = leader.get(5, TimeUnit.SECONDS);
+            StringBuilder theirs = follower.get(5, TimeUnit.SECONDS);
+            assertThat(theirs).isNotSameAs(mine).hasToString("customer-3");
+            mine.append("-changed");
+            assertThat(theirs).hasToString("customer-3");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failureIsSharedAndNotRemembered() throws Exception {
+        CountDownLatch loaderEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = executor.submit(() -> flight.load(2L, () -> {
+                loaderEntered.countDown();
+                awaitQuietly(release);
+                throw new IllegalStateException("database down");
+            }));
+            loaderEntered.await(5, TimeUnit.SECONDS);
+            Future<String> follower = executor.submit(() -> flight.load(2L, () -> "unused"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced() < 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThatThrownBy(leader::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(follower::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(flight.load(2L, () -> "recovered")).isEqualTo("recovered");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("singleflight.coalesced").tag("name", "test").counter().count();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.loanrisk.repository;
+
+import com.loanrisk.datasource.ShardRoutingDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.UncategorizedSQLException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoanApplicationExportRepositoryImplTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    private final List<Connection> connections = new ArrayList<>();
+
+    @Test
+    void shardedExport_releasesEveryConnection_whenARollbackFails() throws Exception {
+        LoanApplicationExportRepositoryImpl repository = repository(3);
+        doThrow(new SQLException("connection is dead")).when(connections.get(0)).rollback();
+
+        assertThatThrownBy(() -> repository.streamDecisions(FROM, TO, 100, resultSet -> { }))
+                .isInstanceOf(UncategorizedSQLException.class)
+                .hasRootCauseMessage("connection is dead");
+        for (Connection connection : connections) {
+            verify(connection).close();
+        }
+    }
+
+    @Test
+    void shardedExport_keepsTheExportFailure_withReleaseFailuresSuppressed() throws Exception {
+        LoanApplicationExportRepositoryImpl repository = repository(3);
+        doThrow(new SQLException("rollback failed")).when(connections.get(1)).rollback();
+        doThrow(new SQLException("close failed")).when(connections.get(2)).close();
+
+        assertThatThrownBy(() -> repository.streamDecisions(FROM, TO, 100, resultSet -> {
+            throw new IllegalStateException("client went away");
+        }))
+                .isInstanceOf(IllegalStateException.class)
+                .satisfies(e -> {
+                    Throwable released = e.getSuppressed()[0];
+                    assertThat(released).hasMessage("rollback failed");
+                    assertThat(released.getSuppressed()).extracting(Throwable::getMessage).containsExactly("close failed");
+                });
+        for (Connection connection : connections) {
+            verify(connection).close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private LoanApplicationExportRepositoryImpl repository(int shardCount) throws SQLException {
+        ShardRoutingDataSource shards = mock(ShardRoutingDataSource.class);
+        when(shards.getShardCount()).thenReturn(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            Connection connection = connectionWithOneRow();
+            connections.add(connection);
+            DataSource dataSource = mock(DataSource.class);
+            when(dataSource.getConnection()).thenReturn(connection);
+            when(shards.getShard(shard)).thenReturn(dataSource);
+        }
+        ObjectProvider<ShardRoutingDataSource> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(shards);
+        return new LoanApplicationExportRepositoryImpl(provider);
+    }
+
+    private static Connection connectionWithOneRow() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getTimestamp(7)).thenReturn(Timestamp.valueOf(FROM));
+        when(resultSet.getObject(1, UUID.class)).thenReturn(UUID.randomUUID());
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        return connection;
+    }
+}
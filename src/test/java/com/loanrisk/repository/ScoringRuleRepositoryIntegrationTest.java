@@ -1,6 +1,7 @@
 package com.loanrisk.repository;
 
 import com.loanrisk.entity.ScoringRule;
+import jakarta.validation.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -10,6 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DataJpaTest
 public class ScoringRuleRepositoryIntegrationTest {
@@ -136,6 +138,41 @@ public class ScoringRuleRepositoryIntegrationTest {
         assertThat(deletedRule).isEmpty();
     }
 
+    @Test
+    public void whenSaveRuleWithExpression_thenExpressionIsPersisted() {
+        ScoringRule rule = new ScoringRule();
+        rule.setName("Stretched and not employed");
+        rule.setExpression("loanAmount / annualIncome > 0.5 AND employmentStatus != 'employed'");
+        rule.setRiskPoints(30);
+        rule.setPriority(7);
+        rule.setEnabled(true);
+
+        ScoringRule savedRule = scoringRuleRepository.save(rule);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(scoringRuleRepository.findById(savedRule.getId()))
+                .get()
+                .extracting(ScoringRule::getExpression)
+                .isEqualTo("loanAmount / annualIncome > 0.5 AND employmentStatus != 'employed'");
+    }
+
+    @Test
+    public void whenSaveRuleWithIllTypedExpression_thenSaveIsRejected() {
+        ScoringRule rule = new ScoringRule();
+        rule.setName("Ill-typed");
+        rule.setExpression("loanAmount > 'a lot'");
+        rule.setRiskPoints(10);
+        rule.setPriority(8);
+        rule.setEnabled(true);
+
+        assertThatThrownBy(() -> {
+            scoringRuleRepository.save(rule);
+            entityManager.flush();
+        }).isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining("Operator > expects NUMBER operands but got NUMBER and STRING");
+    }
+
     @Test
     public void whenApplicationStarts_thenInitialRulesAreLoaded() {
         long ruleCount = scoringRuleRepository.count();
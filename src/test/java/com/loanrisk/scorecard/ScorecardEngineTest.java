@@ -0,0 +1,84 @@
+package com.loanrisk.scorecard;
+
+import com.loanrisk.service.ScoringInput;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ScorecardEngineTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void evaluatesBinnedLogisticModel() throws IOException {
+        Path modelFile = writeModel("v1", 0.0, 1000);
+        ScorecardEngine engine = new ScorecardEngine(modelFile.toString(), 0.5, 0, new SimpleMeterRegistry());
+
+        // creditScore 620 -> bin [580, 640): 0.5; loan ratio 0.6 -> bin [0.5, inf): 1.0
+        double logit = engine.getModel().logit(input(620, "60000", "100000"));
+        assertThat(logit).isCloseTo(1.5, within(1e-9));
+        assertThat(engine.probability(input(620, "60000", "100000"))).isCloseTo(1 / (1 + Math.exp(-1.5)), within(1e-9));
+        // A boundary value belongs to the bin above it; a missing value uses the missing weight
+        assertThat(engine.getModel().logit(input(640, "30000", "100000"))).isCloseTo(-0.5 + 0.5, within(1e-9));
+        assertThat(engine.getModel().logit(input(null, "30000", "0"))).isCloseTo(0.75 + 0.25, within(1e-9));
+        assertThat(engine.blend(40, 0.8)).isCloseTo(0.5 * 40 + 0.5 * 80, within(1e-9));
+    }
+
+    @Test
+    void swapsModelWhenFileChangesAndKeepsItWhenNewFileIsBroken() throws IOException {
+        Path modelFile = writeModel("v1", 0.0, 1000);
+        ScorecardEngine engine = new ScorecardEngine(modelFile.toString(), 0.3, 0, new SimpleMeterRegistry());
+        assertThat(engine.getModel().getVersion()).isEqualTo("v1");
+
+        writeModel("v2", 2.0, 2000);
+        engine.checkForUpdate();
+        assertThat(engine.getModel().getVersion()).isEqualTo("v2");
+        assertThat(engine.getModel().logit(input(620, "60000", "100000"))).isCloseTo(3.5, within(1e-9));
+
+        Files.writeString(modelFile, "{\"version\": \"v3\", \"features\": [{\"field\": \"employmentStatus\"}]}");
+        Files.setLastModifiedTime(modelFile, FileTime.fromMillis(3000));
+        engine.checkForUpdate();
+        assertThat(engine.getModel().getVersion()).isEqualTo("v2");
+    }
+
+    @Test
+    void withoutModelFileScoresAreRulePointsAlone() {
+        ScorecardEngine engine = ScorecardEngine.disabled();
+
+        assertThat(engine.probability(input(620, "60000", "100000"))).isNaN();
+        assertThat(engine.blend(45, engine.probability(input(620, "60000", "100000")))).isEqualTo(45);
+    }
+
+    private Path writeModel(String version, double intercept, long modifiedMillis) throws IOException {
+        Path modelFile = directory.resolve("scorecard.json");
+        Files.writeString(modelFile, """
+                {"version": "%s", "intercept": %s, "features": [
+                  {"field": "creditScore", "boundaries": [580, 640, 700], "weights": [1.0, 0.5, -0.5, -1.0], "missingWeight": 0.75},
+                  {"field": "loanAmount", "divideBy": "annualIncome", "boundaries": [0.3, 0.5], "weights": [0.0, 0.5, 1.0], "missingWeight": 0.25}
+                ]}
+                """.formatted(version, intercept));
+        Files.setLastModifiedTime(modelFile, FileTime.fromMillis(modifiedMillis));
+        return modelFile;
+    }
+
+    static ScoringInput input(Integer creditScore, String loanAmount, String annualIncome) {
+        ScoringInput input = new ScoringInput();
+        input.setCustomerId(1L);
+        input.setLoanAmount(new BigDecimal(loanAmount));
+        input.setLoanTermMonths(36);
+        input.setAge(35);
+        input.setCreditScore(creditScore);
+        input.setAnnualIncome(new BigDecimal(annualIncome));
+        return input;
+    }
+}
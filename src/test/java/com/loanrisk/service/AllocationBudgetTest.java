@@ -0,0 +1,189 @@
+package com.loanrisk.service;
+
+import com.loanrisk.bureau.BureauScore;
+import com.loanrisk.bureau.CreditBureauService;
+import com.loanrisk.datasource.ReadYourWrites;
+import com.loanrisk.datasource.Shards;
+import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.entity.Customer;
+import com.loanrisk.entity.LoanApplication;
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.events.DecisionEventPublisher;
+import com.loanrisk.journal.DecisionJournal;
+import com.loanrisk.latency.LatencyHistograms;
+import com.loanrisk.limiter.RepositoryBulkheads;
+import com.loanrisk.perf.AllocationBudget;
+import com.loanrisk.repository.CustomerRepository;
+import com.loanrisk.repository.LoanApplicationRepository;
+import com.loanrisk.scorecard.ScorecardEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures the bytes each {@link AllocationBudget}-annotated method allocates per call on the
+ * current thread, after enough calls for the JIT to compile it, and fails when a budget is
+ * exceeded. Every annotated method must be measured here.
+ */
+class AllocationBudgetTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 20_000;
+    private static final List<Class<?>> GUARDED_CLASSES = List.of(RiskScoringEngine.class, LoanApplicationService.class);
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static volatile Object sink;
+
+    // Rule latencies recorded, as in the application
+    private final RiskScoringEngine engine = new RiskScoringEngine(ScorecardEngine.disabled(), new LatencyHistograms(true));
+    private final List<ScoringRule> rules = rules();
+    private final LoanApplicationService service = new LoanApplicationService(mock(LoanApplicationRepository.class),
+            mock(CustomerRepository.class), mock(ScoringRuleService.class), engine, mock(DecisionJournal.class),
+            mock(DecisionEventPublisher.class), new RepositoryBulkheads(new SimpleMeterRegistry(), 6, 4, 2.0, 1000),
+            new ReadYourWrites("", 5000, 100_000), new Shards("", 8), CreditBureauService.disabled(),
+            new SimpleMeterRegistry());
+
+    @BeforeAll
+    static void requireAllocationCounter() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "per-thread allocation counter not available");
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled(),
+                "per-thread allocation counter not enabled");
+    }
+
+    @Test
+    void engineScoring() throws Exception {
+        ScoringInput input = input();
+        assertWithinBudget(RiskScoringEngine.class.getMethod("score", ScoringInput.class, List.class),
+                () -> engine.score(input, rules));
+    }
+
+    @Test
+    void explanationRendering() throws Exception {
+        List<ScoringRule> triggered = rules.subList(0, 3);
+        assertWithinBudget(RiskScoringEngine.class.getMethod("renderExplanation", List.class, double.class),
+                () -> engine.renderExplanation(triggered, Double.NaN));
+    }
+
+    @Test
+    void applyScoringStep() throws Exception {
+        ApplyLoanRequest request = new ApplyLoanRequest();
+        request.setCustomerId(1L);
+        request.setLoanAmount(new BigDecimal("60000.00"));
+        request.setLoanTermMonths(36);
+        Customer customer = customer();
+        RuleSetSnapshot snapshot = new RuleSetSnapshot(1L, rules, new byte[0], "\"1\"");
+        BureauScore bureauScore = new BureauScore(1L, 655, Instant.now());
+        assertWithinBudget(LoanApplicationService.class.getMethod("score", ApplyLoanRequest.class, Customer.class,
+                RuleSetSnapshot.class, BureauScore.class), () -> service.score(request, customer, snapshot, bureauScore));
+    }
+
+    @Test
+    void responseMapping() throws Exception {
+        LoanApplication loanApplication = new LoanApplication();
+        loanApplication.setId(UUID.randomUUID());
+        loanApplication.setRiskScore(45.0);
+        loanApplication.setRiskLevel("Medium");
+        loanApplication.setDecision("Manual Review");
+        loanApplication.setExplanation("Credit average (+15 points), Loan-to-income high (+25 points)");
+        assertWithinBudget(LoanApplicationService.class.getMethod("toApplyLoanResponse", LoanApplication.class),
+                () -> service.toApplyLoanResponse(loanApplication));
+    }
+
+    @Test
+    void everyBudgetIsMeasured() {
+        Set<String> annotated = GUARDED_CLASSES.stream()
+                .flatMap(type -> Arrays.stream(type.getDeclaredMethods()))
+                .filter(method -> method.isAnnotationPresent(AllocationBudget.class))
+                .map(method -> method.getDeclaringClass().getSimpleName() + "." + method.getName())
+                .collect(Collectors.toSet());
+
+        assertThat(annotated).containsExactlyInAnyOrder("RiskScoringEngine.score", "RiskScoringEngine.renderExplanation",
+                "LoanApplicationService.score", "LoanApplicationService.toApplyLoanResponse");
+    }
+
+    private static void assertWithinBudget(Method method, Supplier<?> call) {
+        long budget = method.getAnnotation(AllocationBudget.class).bytes();
+        long perCall = bytesPerCall(call);
+        assertThat(perCall)
+                .as("bytes allocated per call of %s.%s", method.getDeclaringClass().getSimpleName(), method.getName())
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private static long bytesPerCall(Supplier<?> call) {
+        for (int i = 0; i < WARMUP; i++) {
+            sink = call.get();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long start = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink = call.get();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - start) / ITERATIONS;
+    }
+
+    private static List<ScoringRule> rules() {
+        return List.of(
+                rule(1L, "Credit average", "creditScore", "<", "700", null, 15),
+                rule(2L, "Loan-to-income high", "loanRatio", ">", "0.5", null, 25),
+                rule(3L, "Stretched and not employed", null, null, null,
+                        "loanAmount / annualIncome > 0.5 AND employmentStatus != 'employed'", 30),
+                rule(4L, "Debt is high", "existingDebtRatio", ">", "0.4", null, 20),
+                rule(5L, "Too young", "age", "<", "21", null, 20));
+    }
+
+    private static ScoringRule rule(Long id, String name, String field, String operator, String value,
+                                    String expression, int points) {
+        ScoringRule rule = new ScoringRule();
+        rule.setId(id);
+        rule.setName(name);
+        rule.setField(field);
+        rule.setOperator(operator);
+        rule.setRuleValue(value);
+        rule.setExpression(expression);
+        rule.setRiskPoints(points);
+        rule.setEnabled(true);
+        return rule;
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setId(1L);
+        customer.setDateOfBirth(LocalDate.of(1990, 5, 17));
+        customer.setCreditScore(650);
+        customer.setAnnualIncome(new BigDecimal("100000.00"));
+        customer.setExistingDebt(new BigDecimal("10000.00"));
+        customer.setEmploymentStatus("Self-employed");
+        return customer;
+    }
+
+    private static ScoringInput input() {
+        ScoringInput input = new ScoringInput();
+        input.setCustomerId(1L);
+        input.setLoanAmount(new BigDecimal("60000.00"));
+        input.setLoanTermMonths(36);
+        input.setAge(35);
+        input.setCreditScore(650);
+        input.setAnnualIncome(new BigDecimal("100000.00"));
+        input.setExistingDebt(new BigDecimal("10000.00"));
+        input.setEmploymentStatus("Self-employed");
+        return input;
+    }
+}
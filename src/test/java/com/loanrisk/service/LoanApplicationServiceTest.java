@@ -1,19 +1,30 @@
 package com.loanrisk.service;
 
+import com.loanrisk.bureau.CreditBureauService;
+import com.loanrisk.datasource.ReadYourWrites;
+import com.loanrisk.datasource.Shards;
 import com.loanrisk.dto.ApplyLoanRequest;
 import com.loanrisk.dto.ApplyLoanResponse;
 import com.loanrisk.dto.GetLoanResponse;
 import com.loanrisk.entity.Customer;
 import com.loanrisk.entity.LoanApplication;
 import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.events.DecisionEvent;
+import com.loanrisk.events.DecisionEventPublisher;
 import com.loanrisk.exception.LoanApplicationNotFoundException;
+import com.loanrisk.journal.DecisionJournal;
+import com.loanrisk.journal.DecisionRecord;
+import com.loanrisk.limiter.RepositoryBulkheads;
 import com.loanrisk.repository.CustomerRepository;
 import com.loanrisk.repository.LoanApplicationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -38,6 +49,31 @@ class LoanApplicationServiceTest {
     @Mock
     private ScoringRuleService scoringRuleService;
 
+    @Spy
+    private RiskScoringEngine riskScoringEngine = new RiskScoringEngine();
+
+    @Mock
+    private DecisionJournal decisionJournal;
+
+    @Mock
+    private DecisionEventPublisher decisionEventPublisher;
+
+    @Spy
+    private RepositoryBulkheads repositoryBulkheads =
+            new RepositoryBulkheads(new SimpleMeterRegistry(), 6, 4, 2.0, 1000);
+
+    @Spy
+    private ReadYourWrites readYourWrites = new ReadYourWrites("", 5000, 100_000);
+
+    @Spy
+    private Shards shards = new Shards("", 8);
+
+    @Spy
+    private CreditBureauService creditBureauService = CreditBureauService.disabled();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private LoanApplicationService loanApplicationService;
 
@@ -82,7 +118,7 @@ class LoanApplicationServiceTest {
         List<ScoringRule> activeRules = Arrays.asList(rule1);
 
         when(customerRepository.findById(request.getCustomerId())).thenReturn(Optional.of(testCustomer));
-        when(scoringRuleService.getActiveScoringRules()).thenReturn(activeRules);
+        when(scoringRuleService.getRuleSetSnapshot()).thenReturn(new RuleSetSnapshot(1L, activeRules, new byte[0], "\"1\""));
         when(loanApplicationRepository.save(any(LoanApplication.class))).thenReturn(loanApplication);
 
         // Act
@@ -97,8 +133,10 @@ class LoanApplicationServiceTest {
         assertEquals("", response.getExplanation());
 
         verify(customerRepository, times(1)).findById(request.getCustomerId());
-        verify(scoringRuleService, times(1)).getActiveScoringRules();
+        verify(scoringRuleService, times(1)).getRuleSetSnapshot();
         verify(loanApplicationRepository, times(1)).save(any(LoanApplication.class));
+        verify(decisionJournal, times(1)).append(any(DecisionRecord.class));
+        verify(decisionEventPublisher, times(1)).publish(any(DecisionEvent.class));
     }
 
     @Test
@@ -139,7 +177,7 @@ class LoanApplicationServiceTest {
         List<ScoringRule> activeRules = Arrays.asList(rule1, rule2);
 
         when(customerRepository.findById(request.getCustomerId())).thenReturn(Optional.of(testCustomer));
-        when(scoringRuleService.getActiveScoringRules()).thenReturn(activeRules);
+        when(scoringRuleService.getRuleSetSnapshot()).thenReturn(new RuleSetSnapshot(1L, activeRules, new byte[0], "\"1\""));
         when(loanApplicationRepository.save(any(LoanApplication.class))).thenReturn(loanApplication);
 
         // Act
@@ -154,7 +192,7 @@ class LoanApplicationServiceTest {
         assertEquals("Age Rule (+30 points)", response.getExplanation());
 
         verify(customerRepository, times(1)).findById(request.getCustomerId());
-        verify(scoringRuleService, times(1)).getActiveScoringRules();
+        verify(scoringRuleService, times(1)).getRuleSetSnapshot();
         verify(loanApplicationRepository, times(1)).save(any(LoanApplication.class));
     }
 
@@ -196,7 +234,7 @@ class LoanApplicationServiceTest {
         List<ScoringRule> activeRules = Arrays.asList(rule1, rule2);
 
         when(customerRepository.findById(request.getCustomerId())).thenReturn(Optional.of(testCustomer));
-        when(scoringRuleService.getActiveScoringRules()).thenReturn(activeRules);
+        when(scoringRuleService.getRuleSetSnapshot()).thenReturn(new RuleSetSnapshot(1L, activeRules, new byte[0], "\"1\""));
         when(loanApplicationRepository.save(any(LoanApplication.class))).thenReturn(loanApplication);
 
         // Act
@@ -211,7 +249,7 @@ class LoanApplicationServiceTest {
         assertEquals("Age Rule (+60 points)", response.getExplanation());
 
         verify(customerRepository, times(1)).findById(request.getCustomerId());
-        verify(scoringRuleService, times(1)).getActiveScoringRules();
+        verify(scoringRuleService, times(1)).getRuleSetSnapshot();
         verify(loanApplicationRepository, times(1)).save(any(LoanApplication.class));
     }
 
@@ -232,7 +270,7 @@ class LoanApplicationServiceTest {
         assertEquals("Customer not found with ID: " + request.getCustomerId(), exception.getMessage());
 
         verify(customerRepository, times(1)).findById(request.getCustomerId());
-        verify(scoringRuleService, times(0)).getActiveScoringRules();
+        verify(scoringRuleService, times(0)).getRuleSetSnapshot();
         verify(loanApplicationRepository, times(0)).save(any(LoanApplication.class));
     }
 
@@ -0,0 +1,115 @@
+package com.loanrisk.service;
+
+import com.loanrisk.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PipelineStageTest {
+
+    @Test
+    void rejectsWorkWhenQueueIsFullAndRecordsStageMetrics() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PipelineStage stage = new PipelineStage("test", 1, 1, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> running = stage.submit(() -> {
+                awaitQuietly(release);
+                return "first";
+            });
+            CompletableFuture<String> queued = stage.submit(() -> "second");
+            CompletableFuture<String> rejected = stage.submit(() -> "third");
+
+            assertThatThrownBy(rejected::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ServiceOverloadedException.class);
+            assertThat(meterRegistry.get("apply.pipeline.rejected").tag("stage", "test").counter().count())
+                    .isEqualTo(1);
+            assertThat(stage.getQueueDepth()).isEqualTo(1);
+
+            release.countDown();
+            assertThat(running.get()).isEqualTo("first");
+            assertThat(queued.get()).isEqualTo("second");
+            assertThat(meterRegistry.get("apply.pipeline.service.time").tag("stage", "test").timer().count())
+                    .isEqualTo(2);
+        } finally {
+            stage.shutdown();
+        }
+    }
+
+    @Test
+    void submitWhenFree_waitsForRoomInAFullQueue_insteadOfRejecting() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PipelineStage stage = new PipelineStage("test", 1, 1, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            stage.submit(() -> {
+                awaitQuietly(release);
+                return "first";
+            });
+            stage.submit(() -> "second");
+            CompletableFuture<String> waiting = stage.submitWhenFree(() -> "third");
+
+            sleepQuietly(50);
+            assertThat(waiting).isNotDone();
+            assertThat(meterRegistry.get("apply.pipeline.rejected").tag("stage", "test").counter().count()).isZero();
+            assertThat(meterRegistry.get("apply.pipeline.deferred").tag("stage", "test").counter().count())
+                    .isPositive();
+
+            release.countDown();
+            assertThat(waiting.get(5, TimeUnit.SECONDS)).isEqualTo("third");
+        } finally {
+            stage.shutdown();
+        }
+    }
+
+    @Test
+    void expectedWaitCountsRunningWork_onceEveryThreadIsBusy() throws Exception {
+        PipelineStage stage = new PipelineStage("test", 1, 4, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            stage.submit(() -> {
+                sleepQuietly(20);
+                return "measured";
+            }).get();
+            assertThat(stage.getExpectedWaitNanos()).as("the thread is free").isZero();
+
+            CompletableFuture<String> running = stage.submit(() -> {
+                started.countDown();
+                awaitQuietly(release);
+                return "running";
+            });
+            started.await();
+            assertThat(stage.getQueueDepth()).isZero();
+            assertThat(stage.getExpectedWaitNanos()).as("one running task ahead").isGreaterThan(2_000_000L);
+
+            release.countDown();
+            running.get();
+        } finally {
+            stage.shutdown();
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
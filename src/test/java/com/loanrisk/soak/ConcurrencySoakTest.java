@@ -0,0 +1,456 @@
+package com.loanrisk.soak;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loanrisk.dto.ApplyLoanRequest;
+import com.loanrisk.dto.CreateCustomerRequest;
+import com.loanrisk.dto.LoanSearchRequest;
+import com.loanrisk.entity.Customer;
+import com.loanrisk.entity.LoanApplication;
+import com.loanrisk.entity.ScoringRule;
+import com.loanrisk.repository.CustomerRepository;
+import com.loanrisk.repository.LoanApplicationRepository;
+import com.loanrisk.repository.ScoringRuleRepository;
+import com.loanrisk.service.LoanApplicationService;
+import com.loanrisk.service.RuleSetSnapshot;
+import com.loanrisk.service.ScoredApplication;
+import com.loanrisk.service.ScoringRuleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed read/write load over HTTP from many threads for a fixed duration, followed by invariant
+ * checks against the database:
+ * <ul>
+ *     <li>customers created concurrently with colliding emails: one row per email, and exactly the
+ *     customers answered with 201 (a shed 503 or a duplicate-email error stores nothing);</li>
+ *     <li>simultaneous applies for a handful of hot customers: one loan row per accepted (200) apply
+ *     and none for shed or rate-limited ones;</li>
+ *     <li>while a background thread keeps changing a rule, every stored score matches a rescoring
+ *     under one of the rule-set versions that was current while its request was in flight;</li>
+ *     <li>loans and customers are readable as soon as their creation was answered.</li>
+ * </ul>
+ * Throughput, latency and heap after GC are reported per window, and the last window's throughput
+ * must stay within {@code soak.max-degradation} of the best one, which catches leaks and growing
+ * contention that a short test would not.
+ *
+ * <pre>./mvnw test -Dtest=ConcurrencySoakTest -Dsoak=true [-Dsoak.duration-seconds=600 -Dsoak.threads=64]</pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "loan.admission.customer.permits-per-second=100000",
+        "loan.admission.customer.burst=100000",
+        "loan.events.ingress-capacity=262144"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "soak", matches = "true")
+public class ConcurrencySoakTest {
+
+    private static final long DURATION_SECONDS = Long.getLong("soak.duration-seconds", 60);
+    private static final int THREADS = Integer.getInteger("soak.threads", 32);
+    private static final long WINDOW_SECONDS = Long.getLong("soak.window-seconds", 10);
+    private static final double MAX_DEGRADATION = Double.parseDouble(System.getProperty("soak.max-degradation", "0.5"));
+    private static final int HOT_CUSTOMERS = Integer.getInteger("soak.hot-customers", 8);
+    private static final int EMAIL_POOL = Integer.getInteger("soak.email-pool", 2000);
+    private static final long RULE_CHANGE_INTERVAL_MS = Long.getLong("soak.rule-change-interval-ms", 250);
+
+    private static final String CHURNED_RULE = "Credit average";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private ScoringRuleRepository scoringRuleRepository;
+
+    @Autowired
+    private ScoringRuleService scoringRuleService;
+
+    @Autowired
+    private LoanApplicationService loanApplicationService;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private final List<Customer> hotCustomers = new ArrayList<>();
+    private final Map<String, Long> createdCustomers = new ConcurrentHashMap<>();
+    private final Map<UUID, AcceptedApply> acceptedApplies = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<UUID> recentLoans = new AtomicReferenceArray<>(1024);
+    private final List<RuleVersion> ruleVersions = new CopyOnWriteArrayList<>();
+    private final Queue<String> violations = new ConcurrentLinkedQueue<>();
+    private final LongAdder duplicateEmailsRejected = new LongAdder();
+    private final LongAdder customersShed = new LongAdder();
+    private final LongAdder appliesShed = new LongAdder();
+    private final LongAdder ruleChanges = new LongAdder();
+
+    private Window[] windows;
+    private long startNanos;
+
+    @BeforeEach
+    void setUp() {
+        loanApplicationRepository.deleteAll();
+        customerRepository.deleteAll();
+        for (int i = 0; i < HOT_CUSTOMERS; i++) {
+            Customer customer = new Customer();
+            customer.setFirstName("Hot");
+            customer.setLastName("Customer" + i);
+            customer.setDateOfBirth(LocalDate.of(1960 + i * 5, 1 + i % 12, 1));
+            customer.setAddress(i + " Contention Ave");
+            customer.setEmail("hot" + i + "@soak.example");
+            customer.setCreditScore(560 + i * 25);
+            customer.setEmploymentStatus(i % 3 == 0 ? "Unemployed" : "Full-time");
+            customer.setAnnualIncome(new BigDecimal(20_000 + i * 15_000));
+            customer.setExistingDebt(new BigDecimal(i * 4_000));
+            customer.setCreatedAt(LocalDateTime.now());
+            hotCustomers.add(customerRepository.save(customer));
+        }
+        windows = new Window[(int) (DURATION_SECONDS / WINDOW_SECONDS) + 2];
+        for (int i = 0; i < windows.length; i++) {
+            windows[i] = new Window();
+        }
+    }
+
+    @Test
+    void mixedWorkloadKeepsInvariants() throws Exception {
+        startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        ruleVersions.add(new RuleVersion(scoringRuleService.getRuleSetSnapshot(), startNanos));
+
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS + 2);
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            running.add(workers.submit(() -> runWorker(deadline)));
+        }
+        running.add(workers.submit(() -> churnRules(deadline)));
+        running.add(workers.submit(() -> sampleHeap(deadline)));
+        for (Future<?> future : running) {
+            future.get(DURATION_SECONDS + 120, TimeUnit.SECONDS);
+        }
+        workers.shutdown();
+
+        report();
+        checkNoDuplicateCustomers();
+        checkOneRowPerAcceptedApply();
+        checkScoresMatchARuleSetInUse();
+        assertThat(violations).as("invariant violations during the run").isEmpty();
+        checkThroughputDidNotDegrade();
+    }
+
+    private void runWorker(long deadline) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            int operation = random.nextInt(100);
+            long started = System.nanoTime();
+            try {
+                if (operation < 20) {
+                    createCustomer(random);
+                } else if (operation < 60) {
+                    apply(random, started);
+                } else if (operation < 75) {
+                    readLoan(random);
+                } else if (operation < 90) {
+                    readCustomer(random);
+                } else {
+                    search();
+                }
+            } catch (IOException e) {
+                violations.add("I/O error: " + e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long finished = System.nanoTime();
+            window(finished).record(finished - started);
+        }
+    }
+
+    // Many threads pick from the same small pool of emails, so creations of one email race
+    private void createCustomer(ThreadLocalRandom random) throws IOException, InterruptedException {
+        String email = "soak" + random.nextInt(EMAIL_POOL) + "@soak.example";
+        CreateCustomerRequest request = new CreateCustomerRequest();
+        request.setFirstName("Soak");
+        request.setLastName("Writer");
+        request.setDateOfBirth(LocalDate.of(1985, 6, 15));
+        request.setAddress("1 Load Lane");
+        request.setEmail(email);
+        HttpResponse<String> response = post("/customers", request);
+        if (response.statusCode() == 201) {
+            long id = objectMapper.readTree(response.body()).get("id").asLong();
+            Long previous = createdCustomers.putIfAbsent(email, id);
+            if (previous != null) {
+                violations.add("Email " + email + " created twice: customers " + previous + " and " + id);
+            }
+        } else if (response.statusCode() == 500 && response.body().contains("already exists")) {
+            duplicateEmailsRejected.increment();
+        } else if (response.statusCode() == 503) {
+            customersShed.increment(); // write bulkhead full; nothing was stored
+        } else {
+            violations.add("POST /customers answered " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private void apply(ThreadLocalRandom random, long started) throws IOException, InterruptedException {
+        Customer customer = hotCustomers.get(random.nextInt(hotCustomers.size()));
+        ApplyLoanRequest request = new ApplyLoanRequest();
+        request.setCustomerId(customer.getId());
+        request.setLoanAmount(BigDecimal.valueOf(1_000 + random.nextInt(60_000)));
+        request.setLoanTermMonths(6 + random.nextInt(60));
+        HttpResponse<String> response = post("/loan/apply", request);
+        if (response.statusCode() == 200) {
+            JsonNode body = objectMapper.readTree(response.body());
+            UUID loanId = UUID.fromString(body.get("loanId").asText());
+            AcceptedApply accepted = new AcceptedApply(request, customer, started, System.nanoTime(),
+                    body.get("riskScore").asInt(), body.get("decision").asText());
+            if (acceptedApplies.putIfAbsent(loanId, accepted) != null) {
+                violations.add("Loan id " + loanId + " returned for two applies");
+            }
+            recentLoans.set(random.nextInt(recentLoans.length()), loanId);
+        } else if (response.statusCode() == 429 || response.statusCode() == 503) {
+            appliesShed.increment();
+        } else {
+            violations.add("POST /loan/apply answered " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    private void readLoan(ThreadLocalRandom random) throws IOException, InterruptedException {
+        UUID loanId = recentLoans.get(random.nextInt(recentLoans.length()));
+        if (loanId == null) {
+            return;
+        }
+        HttpResponse<String> response = get("/loan/" + loanId);
+        if (response.statusCode() != 200) {
+            violations.add("GET /loan/" + loanId + " of an accepted apply answered " + response.statusCode());
+        }
+    }
+
+    private void readCustomer(ThreadLocalRandom random) throws IOException, InterruptedException {
+        Customer customer = hotCustomers.get(random.nextInt(hotCustomers.size()));
+        HttpResponse<String> response = get("/customers/" + customer.getId());
+        if (response.statusCode() != 200) {
+            violations.add("GET /customers/" + customer.getId() + " answered " + response.statusCode());
+        }
+    }
+
+    private void search() throws IOException, InterruptedException {
+        LoanSearchRequest request = new LoanSearchRequest();
+        request.setDecision("Approved");
+        request.setLimit(20);
+        HttpResponse<String> response = post("/loan/search", request);
+        if (response.statusCode() != 200) {
+            violations.add("POST /loan/search answered " + response.statusCode() + ": " + response.body());
+        }
+    }
+
+    // Alternates one rule's points, so consecutive rule-set versions score differently
+    private void churnRules(long deadline) {
+        try {
+            while (System.nanoTime() < deadline) {
+                Thread.sleep(RULE_CHANGE_INTERVAL_MS);
+                ScoringRule rule = scoringRuleRepository.findAll().stream()
+                        .filter(candidate -> CHURNED_RULE.equals(candidate.getName()))
+                        .findFirst().orElseThrow();
+                long changeStarted = System.nanoTime();
+                rule.setRiskPoints(rule.getRiskPoints() == 15 ? 16 : 15);
+                scoringRuleRepository.save(rule);
+                RuleSetSnapshot snapshot = scoringRuleService.getRuleSetSnapshot();
+                long observed = System.nanoTime();
+                RuleVersion previous = ruleVersions.get(ruleVersions.size() - 1);
+                if (snapshot.getVersion() == previous.snapshot.getVersion()) {
+                    violations.add("Rule change did not produce a new rule-set version");
+                    continue;
+                }
+                previous.until = observed;
+                ruleVersions.add(new RuleVersion(snapshot, changeStarted));
+                ruleChanges.increment();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sampleHeap(long deadline) {
+        try {
+            for (Window window : windows) {
+                long sleepNanos = Math.min(TimeUnit.SECONDS.toNanos(WINDOW_SECONDS), deadline - System.nanoTime());
+                if (sleepNanos <= 0) {
+                    return;
+                }
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                System.gc();
+                window.heapAfterGc = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkNoDuplicateCustomers() {
+        List<String> duplicated = jdbcTemplate.queryForList(
+                "select email from customer group by email having count(*) > 1", String.class);
+        assertThat(duplicated).as("emails stored more than once").isEmpty();
+        Set<Long> stored = new HashSet<>(jdbcTemplate.queryForList(
+                "select id from customer where email like 'soak%@soak.example'", Long.class));
+        assertThat(stored).as("customers stored vs customers answered with 201")
+                .isEqualTo(new HashSet<>(createdCustomers.values()));
+    }
+
+    private void checkOneRowPerAcceptedApply() {
+        List<UUID> stored = jdbcTemplate.queryForList("select id from loan_application", UUID.class);
+        assertThat(stored).as("loan rows vs accepted applies").hasSize(acceptedApplies.size());
+        assertThat(new HashSet<>(stored)).isEqualTo(acceptedApplies.keySet());
+    }
+
+    private void checkScoresMatchARuleSetInUse() {
+        for (LoanApplication loan : loanApplicationRepository.findAll()) {
+            AcceptedApply apply = acceptedApplies.get(loan.getId());
+            if (loan.getRiskScore().intValue() != apply.riskScore || !loan.getDecision().equals(apply.decision)) {
+                violations.add("Loan " + loan.getId() + " was answered differently from what was stored");
+            }
+            boolean matched = false;
+            for (RuleVersion version : ruleVersions) {
+                if (version.from > apply.finished || version.until < apply.started) {
+                    continue; // not current at any point while the request was in flight
+                }
+                ScoredApplication expected = loanApplicationService.score(apply.request, apply.customer, version.snapshot);
+                if (Objects.equals(expected.getResult().getRiskScore(), loan.getRiskScore())
+                        && expected.getResult().getDecision().equals(loan.getDecision())
+                        && expected.getResult().getExplanation().equals(loan.getExplanation())) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                violations.add("Loan " + loan.getId() + " (score " + loan.getRiskScore() + ", " + loan.getDecision()
+                        + ") matches no rule-set version current during its request");
+            }
+        }
+    }
+
+    private void checkThroughputDidNotDegrade() {
+        int full = (int) (DURATION_SECONDS / WINDOW_SECONDS);
+        if (full < 3) {
+            return; // the first window is warm-up; too few left to compare
+        }
+        double best = 0;
+        for (int i = 1; i < full; i++) {
+            best = Math.max(best, windows[i].throughput());
+        }
+        double last = windows[full - 1].throughput();
+        assertThat(last).as("throughput of the last window vs the best after warm-up (%.0f ops/s)", best)
+                .isGreaterThanOrEqualTo(best * (1 - MAX_DEGRADATION));
+    }
+
+    private void report() {
+        System.out.printf("Soak: %d s, %d threads, %d customers created (%d duplicate emails refused, %d shed), "
+                        + "%d applies accepted (%d shed), %d rule changes%n",
+                DURATION_SECONDS, THREADS, createdCustomers.size(), duplicateEmailsRejected.sum(), customersShed.sum(),
+                acceptedApplies.size(), appliesShed.sum(), ruleChanges.sum());
+        System.out.println("window    ops/s   mean ms    max ms   heap after GC MB");
+        for (int i = 0; i * WINDOW_SECONDS < DURATION_SECONDS; i++) {
+            Window window = windows[i];
+            long ops = window.operations.sum();
+            System.out.printf("%6d %8.0f %9.2f %9.2f %18.1f%n", i, window.throughput(),
+                    ops == 0 ? 0.0 : window.latencyNanos.sum() / 1e6 / ops, window.maxLatencyNanos.get() / 1e6,
+                    window.heapAfterGc / (1024.0 * 1024.0));
+        }
+    }
+
+    private Window window(long nanos) {
+        int index = (int) ((nanos - startNanos) / TimeUnit.SECONDS.toNanos(WINDOW_SECONDS));
+        return windows[Math.min(index, windows.length - 1)];
+    }
+
+    private HttpResponse<String> post(String path, Object body) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static final class Window {
+        private final LongAdder operations = new LongAdder();
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+        private volatile long heapAfterGc;
+
+        private void record(long nanos) {
+            operations.increment();
+            latencyNanos.add(nanos);
+            maxLatencyNanos.accumulate(nanos);
+        }
+
+        private double throughput() {
+            return operations.sum() / (double) WINDOW_SECONDS;
+        }
+    }
+
+    private static final class RuleVersion {
+        private final RuleSetSnapshot snapshot;
+        private final long from;
+        private volatile long until = Long.MAX_VALUE;
+
+        private RuleVersion(RuleSetSnapshot snapshot, long from) {
+            this.snapshot = snapshot;
+            this.from = from;
+        }
+    }
+
+    private record AcceptedApply(ApplyLoanRequest request, Customer customer, long started, long finished,
+                                 int riskScore, String decision) {
+    }
+}
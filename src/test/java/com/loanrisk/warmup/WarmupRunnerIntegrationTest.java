@@ -0,0 +1,63 @@
+package com.loanrisk.warmup;
+
+import com.loanrisk.latency.LatencyHistograms;
+import com.loanrisk.repository.CustomerRepository;
+import com.loanrisk.repository.LoanApplicationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"loan.warmup.iterations=2000", "loan.warmup.time-budget-ms=60000"})
+@AutoConfigureMockMvc
+public class WarmupRunnerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
+
+    @Autowired
+    private LoanApplicationRepository loanApplicationRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LatencyHistograms latencyHistograms;
+
+    @Test
+    void warmupCompletesBeforeReadinessWithoutPersisting() throws Exception {
+        assertThat(warmupRunner.isCompleted()).isTrue();
+        assertThat(warmupRunner.getCompletedIterations()).isEqualTo(2000);
+        assertThat(warmupRunner.getSteadyStateMicros()).isPositive();
+        assertThat(applicationAvailability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(loanApplicationRepository.count()).isZero();
+        assertThat(customerRepository.count()).isZero();
+        assertThat(latencyHistograms.report(false, new double[]{50}).getRules().values())
+                .as("synthetic applications are not reported")
+                .isNotEmpty()
+                .allSatisfy(rule -> assertThat(rule.getCount()).isZero());
+
+        // Details stay private to unauthenticated callers; the figures are metrics instead
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.components").doesNotExist());
+        mockMvc.perform(get("/actuator/metrics/warmup.iterations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(2000.0));
+    }
+}